@@ -0,0 +1,38 @@
+package net.appfold.sqlrose.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ * Runs (a selection of) the SQLrose benchmarks, accepting the very same command line options as the JMH launcher (try
+ * {@code -h}) but writing results as JSON to {@value #DEFAULT_RESULT_FILE} by default so that runs can be compared
+ * (e.g., by uploading them to <a href="https://jmh.morethan.net/">JMH Visualizer</a>).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class Benchmarks {
+
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        final CommandLineOptions cli = new CommandLineOptions(args);
+
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            Files.createDirectories(Paths.get(DEFAULT_RESULT_FILE).getParent()); // => JMH would not create it
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    private Benchmarks() {}
+}
@@ -0,0 +1,63 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.cache.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Single-threaded {@link SoftCache} vs. {@link ConcurrentSoftCache} lookups; the ratio between the number of distinct
+ * {@link #keys} and the {@value #MAX_SIZE} cache bound drives the hit / miss mix (from all hits to mostly misses).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+    public static final int MAX_SIZE = 1024;
+
+    static final Function<Integer, String> COMPUTATION = key -> "v" + key;
+
+    @Param({"SoftCache", "ConcurrentSoftCache"})
+    public String implementation;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyTrace distribution;
+
+    @Param({"512", "4096", "65536"})
+    public int keys;
+
+    private SoftCache<Integer, String> cache;
+
+    private Integer[] boxed; // => keys are boxed upfront, not while measuring
+
+    private int[] trace;
+
+    @Setup
+    public void setUp() {
+        cache = "SoftCache".equals(implementation) ? new SoftCache<>(MAX_SIZE) : new ConcurrentSoftCache<>(MAX_SIZE);
+        boxed = boxed(keys);
+        trace = distribution.generate(keys, 42);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String getOrCompute(TraceCursor cursor) {
+        return cache.getOrCompute(boxed[cursor.next(trace)], COMPUTATION);
+    }
+
+    static Integer[] boxed(int keys) {
+        final Integer[] boxed = new Integer[keys];
+        for (int i = 0; i < keys; i++) {
+            boxed[i] = i;
+        }
+        return boxed;
+    }
+}
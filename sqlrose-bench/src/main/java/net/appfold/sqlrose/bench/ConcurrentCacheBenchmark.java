@@ -0,0 +1,77 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.cache.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.appfold.sqlrose.bench.CacheBenchmark.*;
+
+/**
+ * Contended {@link ConcurrentSoftCache} lookups, for each {@link EvictionPolicy eviction policy}: {@link
+ * #getOrCompute(TraceCursor) uniformly} by several threads or by {@link #read(TraceCursor) readers} racing with {@link
+ * #write(TraceCursor) writers} (which keep missing, hence evicting).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentCacheBenchmark {
+
+    @Param({"LRU", "W_TINY_LFU"})
+    public String policy;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyTrace distribution;
+
+    @Param({"512", "4096", "65536"})
+    public int keys;
+
+    private ConcurrentSoftCache<Integer, String> cache;
+
+    private Integer[] boxed;
+
+    private int[] trace;
+
+    private Integer[] missing; // => never read, always computed and cached by writers
+
+    private int[] sequential;
+
+    @Setup
+    public void setUp() {
+        cache = new ConcurrentSoftCache<>(MAX_SIZE, Retention.SOFT_CACHE,
+                                          "LRU".equals(policy) ? EvictionPolicy.LRU : EvictionPolicy.W_TINY_LFU);
+        boxed = boxed(keys);
+        trace = distribution.generate(keys, 42);
+
+        missing = new Integer[KeyTrace.DEFAULT_LENGTH];
+        sequential = new int[KeyTrace.DEFAULT_LENGTH];
+        for (int i = 0; i < missing.length; i++) {
+            missing[i] = keys + i;
+            sequential[i] = i;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getOrCompute(TraceCursor cursor) {
+        return cache.getOrCompute(boxed[cursor.next(trace)], COMPUTATION);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public String read(TraceCursor cursor) { return cache.get(boxed[cursor.next(trace)]); }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public String write(TraceCursor cursor) {
+        return cache.getOrCompute(missing[cursor.next(sequential)], COMPUTATION);
+    }
+}
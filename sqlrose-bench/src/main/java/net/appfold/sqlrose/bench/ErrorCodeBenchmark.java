@@ -0,0 +1,54 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.core.error.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ErrorCode#errorCode(CharSequence) Error code} lookups, given either {@code String}s or other {@code
+ * CharSequence}s (which have to be converted first), single- and multi-threaded.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorCodeBenchmark {
+
+    private static final int CODES = 256;
+
+    private String[] values;
+
+    private StringBuilder[] builders;
+
+    private int[] trace;
+
+    @Setup
+    public void setUp() {
+        values = new String[CODES];
+        builders = new StringBuilder[CODES];
+        for (int i = 0; i < CODES; i++) {
+            values[i] = "E_BENCH_" + i;
+            builders[i] = new StringBuilder(values[i]);
+            ErrorCode.errorCode(values[i]);
+        }
+        trace = KeyTrace.ZIPFIAN.generate(CODES, 42);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ErrorCode string(TraceCursor cursor) { return ErrorCode.errorCode(values[cursor.next(trace)]); }
+
+    @Benchmark
+    @Threads(4)
+    public ErrorCode stringContended(TraceCursor cursor) { return ErrorCode.errorCode(values[cursor.next(trace)]); }
+
+    @Benchmark
+    @Threads(1)
+    public ErrorCode charSequence(TraceCursor cursor) { return ErrorCode.errorCode(builders[cursor.next(trace)]); }
+}
@@ -0,0 +1,99 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.core.error.ErrorCode;
+import net.appfold.sqlrose.core.error.SqlRoseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.appfold.sqlrose.core.error.ErrorCode.errorCode;
+
+/**
+ * Throwing (from {@code depth} frames down) and catching a {@link SqlRoseException} the way every one used to be
+ * created, i.e., filling in its stack trace and capturing its context eagerly, versus {@link ErrorCode#stackless()
+ * stackless} ones, created with a stackless code or by a stackless subclass, with or without their context being
+ * read afterwards.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionBenchmark {
+
+    private static final ErrorCode E_BENCH_FULL = errorCode("E_BENCH_FULL");
+
+    private static final ErrorCode E_BENCH_STACKLESS = errorCode("E_BENCH_STACKLESS").stackless();
+
+    @Param({"1", "16", "128"})
+    public int depth;
+
+    @Benchmark
+    public SqlRoseException full() {
+        try {
+            return thrown(depth, () -> new SqlRoseException(E_BENCH_FULL, depth));
+        } catch (SqlRoseException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public SqlRoseException stacklessCode() {
+        try {
+            return thrown(depth, () -> new SqlRoseException(E_BENCH_STACKLESS, depth));
+        } catch (SqlRoseException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public SqlRoseException stacklessSubclass() {
+        try {
+            return thrown(depth, () -> new NotFoundException(depth));
+        } catch (SqlRoseException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public String stacklessCodeContextRead() {
+        try {
+            return thrown(depth, () -> new SqlRoseException(E_BENCH_STACKLESS, depth)).getThreadName();
+        } catch (SqlRoseException ex) {
+            return ex.getTimestamp() + ex.getThreadName();
+        }
+    }
+
+    @Benchmark
+    public String fullContextRead() {
+        try {
+            return thrown(depth, () -> new SqlRoseException(E_BENCH_FULL, depth)).getThreadName();
+        } catch (SqlRoseException ex) {
+            return ex.getTimestamp() + ex.getThreadName();
+        }
+    }
+
+    private static SqlRoseException thrown(int depth, ExceptionFactory factory) {
+        if (depth > 1) {
+            return thrown(depth - 1, factory);
+        }
+        throw factory.create();
+    }
+
+    @FunctionalInterface
+    private interface ExceptionFactory {
+
+        SqlRoseException create();
+    }
+
+    private static final class NotFoundException extends SqlRoseException {
+
+        private static final ErrorCode E_NOT_FOUND = errorCode("E_NOT_FOUND");
+
+        NotFoundException(Object... details) { super(null, null, E_NOT_FOUND, details, true); }
+    }
+}
@@ -0,0 +1,116 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.cache.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.appfold.sqlrose.bench.CacheBenchmark.*;
+
+/**
+ * {@link ConcurrentSoftCache} lookups, for each {@link Retention retention}, while an {@link #allocate(Ballast)
+ * allocator} keeps a small heap under pressure, forcing the garbage collector to reclaim softly / weakly referenced
+ * values (and the lookups to recompute them). Reclaimed entries and misses are reported as {@link CacheEvents
+ * secondary results} of each iteration.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms128m", "-Xmx128m"})
+public class GcPressureBenchmark {
+
+    @Param({"SOFT_CACHE", "SOFT_VALUES", "WEAK_VALUES"})
+    public Retention retention;
+
+    @Param({"ZIPFIAN"})
+    public KeyTrace distribution;
+
+    @Param({"4096"})
+    public int keys;
+
+    private ConcurrentSoftCache<Integer, String> cache;
+
+    private Integer[] boxed;
+
+    private int[] trace;
+
+    @Setup
+    public void setUp() {
+        cache = new ConcurrentSoftCache<>(MAX_SIZE, retention);
+        boxed = boxed(keys);
+        trace = distribution.generate(keys, 42);
+    }
+
+    @Benchmark
+    @Group("pressure")
+    @GroupThreads(3)
+    public String getOrCompute(TraceCursor cursor) {
+        return cache.getOrCompute(boxed[cursor.next(trace)], COMPUTATION);
+    }
+
+    @Benchmark
+    @Group("pressure")
+    @GroupThreads(1)
+    public Object allocate(Ballast ballast, CacheEvents events) { return ballast.allocate(); }
+
+    /**
+     * Counts the entries reclaimed and the misses of an iteration. Since the counts are the cache's rather than the
+     * thread's, only the (single) allocating thread reports them, lest they be summed up for each lookup thread.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheEvents {
+
+        public long reclaimed;
+
+        public long misses;
+
+        private ConcurrentSoftCache<Integer, String> cache;
+
+        private CacheStats start;
+
+        @Setup(Level.Iteration)
+        public void setUp(GcPressureBenchmark benchmark) {
+            cache = benchmark.cache;
+            start = cache.getStats();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            final CacheStats stats = cache.getStats().minus(start); // => JMH reads the counters right after
+            reclaimed = stats.reclaimedCount();
+            misses = stats.missCount();
+        }
+    }
+
+    /**
+     * Retains a rolling window of 64 KiB chunks (up to 3/4 of the maximum heap size), so that old chunks get promoted
+     * and the heap stays nearly full.
+     */
+    @State(Scope.Thread)
+    public static class Ballast {
+
+        private static final int CHUNK_SIZE = 64 * 1024;
+
+        private byte[][] chunks;
+
+        private int index;
+
+        @Setup
+        public void setUp() { chunks = new byte[(int) (Runtime.getRuntime().maxMemory() * 3 / 4 / CHUNK_SIZE)][]; }
+
+        @TearDown
+        public void tearDown() { chunks = null; }
+
+        Object allocate() {
+            final byte[] chunk = new byte[CHUNK_SIZE];
+            chunks[index++ % chunks.length] = chunk;
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.i18n.SimpleI18n;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SimpleI18n#t(String, Object...) Message translation} against the core module's error messages: plain
+ * messages, messages to format (with arguments) and missing keys (i.e., every bundle looked up in vain), single- and
+ * multi-threaded, as well as through a {@link SimpleI18n#view(Locale) view} created for each message (i.e., request).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 17, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class I18nBenchmark {
+
+    @Param({"en", "fr"})
+    public String language;
+
+    private Bundled i18n;
+
+    @Setup
+    public void setUp() { i18n = new Bundled().setLocale(new Locale(language)); }
+
+    @Benchmark
+    @Threads(1)
+    public String plain() { return i18n.t("E_GENERIC"); }
+
+    @Benchmark
+    @Threads(1)
+    public String formatted() { return i18n.t("E_DS_CANNOT_CONNECT", "jdbc:h2:mem:bench"); }
+
+    @Benchmark
+    @Threads(4)
+    public String formattedContended() { return i18n.t("E_DS_CANNOT_CONNECT", "jdbc:h2:mem:bench"); }
+
+    @Benchmark
+    @Threads(1)
+    public String missing() { return i18n.t("E_MISSING"); }
+
+    @Benchmark
+    @Threads(4)
+    public String viewPerRequest() { return i18n.view(i18n.getLocale()).t("E_DS_CANNOT_CONNECT", "jdbc:h2:mem:bench"); }
+
+    public static class Bundled extends SimpleI18n<Bundled> {
+
+        public Bundled() { super("errors"); }
+    }
+}
@@ -0,0 +1,76 @@
+package net.appfold.sqlrose.bench;
+
+import java.util.*;
+
+/**
+ * Precomputed key sequences, so that benchmarks measure lookups rather than random number generation.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public enum KeyTrace {
+
+    /**
+     * Every key is equally likely.
+     */
+    UNIFORM {
+        @Override
+        int[] generate(int keys, int length, Random random) {
+            final int[] trace = new int[length];
+            for (int i = 0; i < length; i++) {
+                trace[i] = random.nextInt(keys);
+            }
+            return trace;
+        }
+    },
+
+    /**
+     * Key popularity follows <a href="https://en.wikipedia.org/wiki/Zipf%27s_law">Zipf's law</a> (with an exponent of
+     * {@value #ZIPF_EXPONENT}), like most real-world access patterns: a few keys are hot, most are cold.
+     */
+    ZIPFIAN {
+        @Override
+        int[] generate(int keys, int length, Random random) {
+            final double[] cdf = new double[keys];
+            double sum = 0;
+            for (int i = 0; i < keys; i++) {
+                cdf[i] = sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+            }
+
+            final int[] ranks = shuffledRanks(keys, random); // => hot keys should not simply be the smallest ones
+            final int[] trace = new int[length];
+            for (int i = 0; i < length; i++) {
+                final int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                trace[i] = ranks[Math.min(rank < 0 ? -rank - 1 : rank, keys - 1)];
+            }
+            return trace;
+        }
+    };
+
+    public static final double ZIPF_EXPONENT = .99;
+
+    /**
+     * Trace lengths are powers of 2 so that cursors can cheaply wrap around.
+     */
+    public static final int DEFAULT_LENGTH = 1 << 16;
+
+    /**
+     * @return {@value #DEFAULT_LENGTH} keys in {@code [0, keys)}
+     */
+    public int[] generate(int keys, long seed) { return generate(keys, DEFAULT_LENGTH, new Random(seed)); }
+
+    abstract int[] generate(int keys, int length, Random random);
+
+    private static int[] shuffledRanks(int keys, Random random) {
+        final int[] ranks = new int[keys];
+        for (int i = 0; i < keys; i++) {
+            ranks[i] = i;
+        }
+        for (int i = keys - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1), rank = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = rank;
+        }
+        return ranks;
+    }
+}
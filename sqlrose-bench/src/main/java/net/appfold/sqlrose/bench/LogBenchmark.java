@@ -0,0 +1,42 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.logging.Log;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getting hold of a {@link Logger} (and checking a disabled level, as most logging statements end up doing) through
+ * {@link Log#log()} and {@link Log#logFor(Object)} versus a {@code static} logger field and {@link
+ * LoggerFactory#getLogger(Class)}.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LogBenchmark.class);
+
+    @Benchmark
+    public boolean staticField() { return LOG.isTraceEnabled(); }
+
+    @Benchmark
+    public boolean loggerFactory() { return LoggerFactory.getLogger(LogBenchmark.class).isTraceEnabled(); }
+
+    @Benchmark
+    public boolean logForThis() { return Log.logFor(this).isTraceEnabled(); }
+
+    @Benchmark
+    public boolean logForClass() { return Log.logFor(LogBenchmark.class).isTraceEnabled(); }
+
+    @Benchmark
+    public boolean log() { return Log.log().isTraceEnabled(); }
+}
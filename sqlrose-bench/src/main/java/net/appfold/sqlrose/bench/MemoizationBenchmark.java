@@ -0,0 +1,88 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.cache.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.*;
+
+/**
+ * {@link MemoizedFn}, {@link MemoizedBiFn} and their primitive specializations on (mostly) hits, single- and
+ * multi-threaded; run with {@code -prof gc} to check that hits do not allocate.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoizationBenchmark {
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyTrace distribution;
+
+    @Param({"512", "4096"})
+    public int keys;
+
+    private Function<Integer, String> fn;
+
+    private BiFunction<Integer, Integer, String> biFn;
+
+    private IntFunction<String> intFn;
+
+    private IntBiFunction<String> intBiFn;
+
+    private Integer[] boxed;
+
+    private int[] trace;
+
+    @Setup
+    public void setUp() {
+        fn = MemoizedFn.memoize(key -> "v" + key);
+        biFn = MemoizedBiFn.memoize((key, other) -> "v" + key + other);
+        intFn = MemoizedIntFn.memoize(key -> "v" + key);
+        intBiFn = MemoizedIntBiFn.memoize((key, other) -> "v" + key + other);
+        boxed = CacheBenchmark.boxed(keys);
+        trace = distribution.generate(keys, 42);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String fn(TraceCursor cursor) { return fn.apply(boxed[cursor.next(trace)]); }
+
+    @Benchmark
+    @Threads(4)
+    public String fnContended(TraceCursor cursor) { return fn.apply(boxed[cursor.next(trace)]); }
+
+    @Benchmark
+    @Threads(1)
+    public String biFn(TraceCursor cursor) {
+        final Integer key = boxed[cursor.next(trace)];
+        return biFn.apply(key, key);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String biFnContended(TraceCursor cursor) {
+        final Integer key = boxed[cursor.next(trace)];
+        return biFn.apply(key, key);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String intFn(TraceCursor cursor) { return intFn.apply(cursor.next(trace)); }
+
+    @Benchmark
+    @Threads(4)
+    public String intFnContended(TraceCursor cursor) { return intFn.apply(cursor.next(trace)); }
+
+    @Benchmark
+    @Threads(1)
+    public String intBiFn(TraceCursor cursor) {
+        final int key = cursor.next(trace);
+        return intBiFn.apply(key, key);
+    }
+}
@@ -0,0 +1,56 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.i18n.MessageTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting a (precompiled) {@link MessageTemplate} versus a {@link MessageFormat}, the latter either shared (hence
+ * only safe if confined to a thread) or created for each message (the thread-safe way of using it).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+    @Param({"Cannot connect to {0}: {1}", "{0} of {1,number,integer} rows fetched in {2,number,#.##} ms"})
+    public String pattern;
+
+    private final Object[] args = {"jdbc:h2:mem:bench", 1024, 3.14159};
+
+    private final StringBuilder out = new StringBuilder(128);
+
+    private MessageFormat format;
+
+    private MessageTemplate template;
+
+    @Setup
+    public void setUp() {
+        format = new MessageFormat(pattern, Locale.US);
+        template = new MessageTemplate(pattern, Locale.US);
+    }
+
+    @Benchmark
+    public String messageFormatShared() { return format.format(args); }
+
+    @Benchmark
+    public String messageFormatPerCall() { return new MessageFormat(pattern, Locale.US).format(args); }
+
+    @Benchmark
+    public String templateRender() { return template.render(args); }
+
+    @Benchmark
+    public int templateFormatTo() {
+        out.setLength(0);
+        return template.formatTo(out, args).length();
+    }
+}
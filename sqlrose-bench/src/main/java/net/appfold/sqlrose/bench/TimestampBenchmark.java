@@ -0,0 +1,85 @@
+package net.appfold.sqlrose.bench;
+
+import net.appfold.sqlrose.i18n.TimestampFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting a {@code TIMESTAMP} column (epoch milliseconds, a few seconds apart, as in a result grid) the way {@link
+ * net.appfold.sqlrose.i18n.SimpleI18n#l(Instant)} used to, i.e., building a {@link java.time.ZonedDateTime} per value,
+ * versus a {@link TimestampFormat}, one value or the whole column at a time.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"yyyy-MM-dd HH:mm:ss.SSS", "EEE, d MMM yyyy HH:mm:ss z"})
+    public String pattern;
+
+    private final long[] column = new long[ROWS];
+
+    private final StringBuilder out = new StringBuilder(ROWS * 32);
+
+    private final ZoneId zoneId = ZoneId.of("Europe/Bucharest");
+
+    private DateTimeFormatter formatter;
+
+    private TimestampFormat format;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        long epochMilli = 1_790_000_000_000L;
+        for (int i = 0; i < ROWS; i++) {
+            column[i] = epochMilli += random.nextInt(10_000);
+        }
+
+        formatter = DateTimeFormatter.ofPattern(pattern);
+        format = TimestampFormat.ofPattern(pattern, Locale.US, zoneId);
+    }
+
+    @Benchmark
+    public String[] zonedDateTime() {
+        final String[] cells = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            cells[i] = formatter.withLocale(Locale.US).format(Instant.ofEpochMilli(column[i]).atZone(zoneId));
+        }
+        return cells;
+    }
+
+    @Benchmark
+    public String[] timestampFormat() {
+        final String[] cells = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            cells[i] = format.format(column[i]);
+        }
+        return cells;
+    }
+
+    @Benchmark
+    public String[] timestampFormatColumn() { return format.format(column); }
+
+    @Benchmark
+    public int timestampFormatTo() {
+        out.setLength(0);
+        for (int i = 0; i < ROWS; i++) {
+            format.formatTo(column[i], out).append('\n');
+        }
+        return out.length();
+    }
+}
@@ -0,0 +1,27 @@
+package net.appfold.sqlrose.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * A per-thread position in a (shared, read-only) {@link KeyTrace key trace}; threads start evenly apart so that they
+ * do not replay the very same sequence in lockstep.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@State(Scope.Thread)
+public class TraceCursor {
+
+    private int index;
+
+    @Setup
+    public void setUp(ThreadParams params) {
+        index = params.getThreadIndex() * (KeyTrace.DEFAULT_LENGTH / params.getThreadCount());
+    }
+
+    /**
+     * @param trace must have a power of 2 length
+     */
+    public int next(int[] trace) { return trace[index++ & trace.length - 1]; }
+}
@@ -0,0 +1,114 @@
+package net.appfold.sqlrose.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The (previous) contents of a cache, as {@link SnapshotFile#open() read} from a {@link SnapshotFile snapshot file}:
+ * keys are decoded upfront while values are only decoded (and their checksums verified) when {@link #take(Object)
+ * taken}, each at most once, so that a cache {@link SoftCache#setWarmStart(CacheSnapshot) warm-started} from a
+ * snapshot only pays for the entries it actually needs. Each value comes along with the {@link #writeTimeOf(Object)
+ * time} it had been written to the cache at, so that caches expiring (or refreshing) entries after a fixed time do not
+ * restore them as if they had just been computed. Thread-safe.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.2, Oct 18, 2026
+ */
+public final class CacheSnapshot<K, V> {
+
+    /**
+     * Stands for the write times of values cached while these were not tracked, i.e., while the cache was not {@link
+     * SoftCache#isTimed() timed}.
+     */
+    public static final long UNKNOWN_WRITE_TIME = Long.MIN_VALUE;
+
+    private final ByteBuffer data; // => a read-only view of the mapped file, duplicated upon each read
+
+    private final Codec<V> valueCodec;
+
+    private final Map<K, Record> records;
+
+    CacheSnapshot(ByteBuffer data, Codec<V> valueCodec, Map<K, Record> records) {
+        this.data = data;
+        this.valueCodec = valueCodec;
+        this.records = new ConcurrentHashMap<>(records);
+    }
+
+    /**
+     * Removes the value stored for the given {@code key}, if any.
+     *
+     * @return the decoded value or {@code null} if none or if corrupted (i.e., if its checksum does not match)
+     */
+    public V take(K key) {
+        final Record record = key == null ? null : records.remove(key);
+        if (record == null) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[record.length];
+        final ByteBuffer buffer = data.duplicate();
+        buffer.position(record.offset);
+        buffer.get(bytes);
+
+        if (SnapshotFile.checksum(bytes) != record.checksum) {
+            return null;
+        }
+        try {
+            return valueCodec.decode(bytes);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Discards the values whose keys match the given {@code filter} (e.g., upon invalidation) without decoding them.
+     */
+    public void discardIf(Predicate<? super K> filter) { records.keySet().removeIf(filter); }
+
+    /**
+     * Discards the value stored for the given {@code key}, if any, without decoding it.
+     */
+    public void discard(K key) {
+        if (key != null) {
+            records.remove(key);
+        }
+    }
+
+    /**
+     * @return the (wall clock) time in milliseconds the value stored for the given {@code key} had been written to the
+     *     cache at or {@link #UNKNOWN_WRITE_TIME} if unknown or if no value is stored
+     */
+    public long writeTimeOf(K key) {
+        final Record record = key == null ? null : records.get(key);
+        return record == null ? UNKNOWN_WRITE_TIME : record.writeTime;
+    }
+
+    public boolean contains(K key) { return key != null && records.containsKey(key); }
+
+    /**
+     * @return the number of values not taken yet
+     */
+    public int size() { return records.size(); }
+
+    public boolean isExhausted() { return records.isEmpty(); }
+
+    static final class Record {
+
+        final int offset;
+
+        final int length;
+
+        final int checksum;
+
+        final long writeTime;
+
+        Record(int offset, int length, int checksum, long writeTime) {
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+            this.writeTime = writeTime;
+        }
+    }
+}
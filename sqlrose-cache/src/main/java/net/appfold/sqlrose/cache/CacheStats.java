@@ -0,0 +1,142 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of a cache's {@link StatsCounter statistics}. Load times are kept in a logarithmic histogram:
+ * bucket {@code i} counts the loads that took less than <code>2<sup>i</sup></code> nanoseconds (and, except for the
+ * first bucket, at least <code>2<sup>i-1</sup></code>).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class CacheStats {
+
+    static final int HISTOGRAM_BUCKETS = 64;
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long loadSuccessCount;
+
+    private final long loadFailureCount;
+
+    private final long totalLoadTime;
+
+    private final long evictionCount;
+
+    private final long expirationCount;
+
+    private final long reclaimedCount;
+
+    private final long[] loadTimeHistogram;
+
+    public CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTime,
+                      long evictionCount, long expirationCount, long reclaimedCount, long[] loadTimeHistogram) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.reclaimedCount = reclaimedCount;
+        this.loadTimeHistogram = Arrays.copyOf(loadTimeHistogram, HISTOGRAM_BUCKETS);
+    }
+
+    public long hitCount() { return hitCount; }
+
+    public long missCount() { return missCount; }
+
+    public long requestCount() { return hitCount + missCount; }
+
+    /**
+     * @return the ratio of requests that were hits or {@code 1.0} if there have been no requests
+     */
+    public double hitRate() {
+        final long requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public long loadSuccessCount() { return loadSuccessCount; }
+
+    public long loadFailureCount() { return loadFailureCount; }
+
+    public long loadCount() { return loadSuccessCount + loadFailureCount; }
+
+    /**
+     * @return the total number of nanoseconds spent loading (i.e., computing) values, successfully or not
+     */
+    public long totalLoadTime() { return totalLoadTime; }
+
+    /**
+     * @return the average number of nanoseconds spent loading a value
+     */
+    public double averageLoadPenalty() {
+        final long loadCount = loadCount();
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * @param percentile between {@code 0} and {@code 100}
+     * @return an upper bound (i.e., the upper bound of the histogram bucket) of the load time percentile, in
+     *     nanoseconds, or {@code 0} if there have been no loads
+     */
+    public long loadTimePercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        final long loadCount = Arrays.stream(loadTimeHistogram).sum();
+        final long rank = (long) Math.ceil(percentile / 100 * loadCount);
+        long seen = 0;
+        for (int i = 0; i < loadTimeHistogram.length; i++) {
+            seen += loadTimeHistogram[i];
+            if (seen >= rank && seen > 0) {
+                return i == 63 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    public long[] loadTimeHistogram() { return loadTimeHistogram.clone(); }
+
+    /**
+     * @return the number of entries evicted because the cache was over capacity
+     */
+    public long evictionCount() { return evictionCount; }
+
+    public long expirationCount() { return expirationCount; }
+
+    /**
+     * @return the number of entries reclaimed by the garbage collector
+     */
+    public long reclaimedCount() { return reclaimedCount; }
+
+    /**
+     * @return the statistics accumulated since the given (earlier) snapshot
+     */
+    public CacheStats minus(CacheStats other) {
+        final long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = Math.max(0, loadTimeHistogram[i] - other.loadTimeHistogram[i]);
+        }
+        return new CacheStats(Math.max(0, hitCount - other.hitCount), Math.max(0, missCount - other.missCount),
+                              Math.max(0, loadSuccessCount - other.loadSuccessCount),
+                              Math.max(0, loadFailureCount - other.loadFailureCount),
+                              Math.max(0, totalLoadTime - other.totalLoadTime),
+                              Math.max(0, evictionCount - other.evictionCount),
+                              Math.max(0, expirationCount - other.expirationCount),
+                              Math.max(0, reclaimedCount - other.reclaimedCount), histogram);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", loadSuccessCount=" +
+               loadSuccessCount + ", loadFailureCount=" + loadFailureCount + ", totalLoadTime=" + totalLoadTime +
+               ", evictionCount=" + evictionCount + ", expirationCount=" + expirationCount + ", reclaimedCount=" +
+               reclaimedCount + "}";
+    }
+
+    static int bucketOf(long nanos) { return 64 - Long.numberOfLeadingZeros(nanos); } // => nanos >= 0
+}
@@ -0,0 +1,62 @@
+package net.appfold.sqlrose.cache;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Publishes the size and {@link CacheStats statistics} of a {@link SoftCache cache}, without altering it (hence
+ * without requiring the cache to be thread-safe).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+final class CacheStatsMBean implements CacheStatsMXBean {
+
+    private final SoftCache<?, ?> cache;
+
+    CacheStatsMBean(SoftCache<?, ?> cache) { this.cache = requireNonNull(cache, "Cannot publish a null cache"); }
+
+    @Override
+    public int getSize() { return cache.lastKnownSize; } // => SoftCache is not thread-safe
+
+    @Override
+    public int getMaxSize() { return cache.getMaxSize(); }
+
+    @Override
+    public long getMaxWeight() { return cache.getMaxWeight(); }
+
+    @Override
+    public long getHitCount() { return cache.getStats().hitCount(); }
+
+    @Override
+    public long getMissCount() { return cache.getStats().missCount(); }
+
+    @Override
+    public double getHitRate() { return cache.getStats().hitRate(); }
+
+    @Override
+    public long getLoadSuccessCount() { return cache.getStats().loadSuccessCount(); }
+
+    @Override
+    public long getLoadFailureCount() { return cache.getStats().loadFailureCount(); }
+
+    @Override
+    public long getTotalLoadTime() { return cache.getStats().totalLoadTime(); }
+
+    @Override
+    public double getAverageLoadPenalty() { return cache.getStats().averageLoadPenalty(); }
+
+    @Override
+    public long getLoadTimeP99() { return cache.getStats().loadTimePercentile(99); }
+
+    @Override
+    public long[] getLoadTimeHistogram() { return cache.getStats().loadTimeHistogram(); }
+
+    @Override
+    public long getEvictionCount() { return cache.getStats().evictionCount(); }
+
+    @Override
+    public long getExpirationCount() { return cache.getStats().expirationCount(); }
+
+    @Override
+    public long getReclaimedCount() { return cache.getStats().reclaimedCount(); }
+}
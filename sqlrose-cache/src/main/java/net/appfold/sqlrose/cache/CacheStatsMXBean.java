@@ -0,0 +1,47 @@
+package net.appfold.sqlrose.cache;
+
+/**
+ * The management interface a {@link SoftCache cache} is published through, once {@link
+ * SoftCache#registerMBean(String) registered} with the platform MBean server.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public interface CacheStatsMXBean {
+
+    /**
+     * @return the number of cached entries, as of the last write
+     */
+    int getSize();
+
+    int getMaxSize();
+
+    long getMaxWeight();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getLoadSuccessCount();
+
+    long getLoadFailureCount();
+
+    long getTotalLoadTime();
+
+    double getAverageLoadPenalty();
+
+    /**
+     * @return an upper bound of the 99th percentile of the load time, in nanoseconds
+     */
+    long getLoadTimeP99();
+
+    long[] getLoadTimeHistogram();
+
+    long getEvictionCount();
+
+    long getExpirationCount();
+
+    long getReclaimedCount();
+}
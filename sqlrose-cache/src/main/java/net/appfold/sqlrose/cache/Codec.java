@@ -0,0 +1,15 @@
+package net.appfold.sqlrose.cache;
+
+/**
+ * Turns values into bytes and back, e.g., in order to store them {@link OffHeapStore off-heap}.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ * @see Codecs
+ */
+public interface Codec<V> {
+
+    byte[] encode(V value);
+
+    V decode(byte[] bytes);
+}
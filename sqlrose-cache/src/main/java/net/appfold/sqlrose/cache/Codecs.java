@@ -0,0 +1,62 @@
+package net.appfold.sqlrose.cache;
+
+import java.io.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Common {@link Codec codecs}.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class Codecs {
+
+    private static final Codec<String> UTF_8_STRINGS = new Codec<String>() {
+
+        @Override
+        public byte[] encode(String value) { return value.getBytes(UTF_8); }
+
+        @Override
+        public String decode(byte[] bytes) { return new String(bytes, UTF_8); }
+    };
+
+    private static final Codec<Serializable> SERIALIZABLES = new Codec<Serializable>() {
+
+        @Override
+        public byte[] encode(Serializable value) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public Serializable decode(byte[] bytes) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (Serializable) in.readObject();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } catch (ClassNotFoundException ex) {
+                throw new IllegalStateException("Cannot decode value of unknown class", ex);
+            }
+        }
+    };
+
+    /**
+     * @return a codec storing strings as UTF-8 bytes (e.g., for DDL text)
+     */
+    public static Codec<String> utf8() { return UTF_8_STRINGS; }
+
+    /**
+     * @return a codec relying on the standard Java serialization; convenient but neither compact nor fast, hence
+     *     better replaced with a dedicated codec for large or frequently moved values
+     */
+    @SuppressWarnings("unchecked")
+    public static <V extends Serializable> Codec<V> serializable() { return (Codec<V>) SERIALIZABLES; }
+
+    private Codecs() {}
+}
@@ -1,109 +1,871 @@
 package net.appfold.sqlrose.cache;
 
+import java.lang.ref.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.*;
-import java.util.function.Function;
+import java.util.function.*;
+
+import static java.util.Objects.requireNonNull;
 
 /**
- * A synchronized version of {@link SoftCache}.
+ * A thread-safe version of {@link SoftCache}.
+ * <p/>
+ * Cached data is held in a {@link ConcurrentMap} ({@link #createBoundedCache() created} as a {@link
+ * ConcurrentHashMap} by default and itself wrapped in a {@link SoftReference} unless a per-value {@link Retention
+ * retention} is specified) so that reads never block. Since reads also matter to the {@link
+ * EvictionPolicy replacement policy} (which is not thread-safe), they are only <em>recorded</em> in a lossy, striped
+ * {@link ReadBuffer buffer} and replayed against the policy in batches, by whichever thread manages to acquire the
+ * eviction lock when the buffer fills up or when the cache is written to. Writes (i.e., inserting, removing and
+ * evicting entries) are serialized by the same eviction lock.
+ * <p/>
+ * The policy, the read buffer and the timer wheel all refer to entries (hence, to their values) and are thus kept in
+ * the backing {@link Store store} itself: under the default {@link Retention#SOFT_CACHE retention}, they are
+ * reclaimed along with it rather than keeping every value strongly reachable.
+ * <p/>
+ * Computations never run while holding a lock: a placeholder entry is published for the key being computed so that
+ * concurrent callers asking for the <em>same</em> key wait for (and share) the outcome of a single computation while
+ * callers asking for <em>other</em> keys are not blocked at all.
+ * <p/>
+ * With per-value retention, reclaimed values are expunged from the cache along with the buffered reads (i.e., in
+ * batches, while holding the eviction lock) and entries found reclaimed in the meantime are simply computed again.
+ * <p/>
+ * When the cache is bounded by weight, entries are weighed right after being computed, i.e., outside of any lock.
+ * <p/>
+ * Expired entries are removed from the {@link TimerWheel timer wheel} along with the buffered reads; reads check the
+ * deadlines themselves, without locking, and never wait for expired entries to be computed again by other callers
+ * longer than they would for new entries. Entries due for a {@link #setRefreshAfterWrite(Duration) refresh} are
+ * computed again on the {@link #setExecutor(Executor) executor} while the current value keeps being served, so that
+ * callers never wait for the refresh of a hot key.
+ * <p/>
+ * Entries are {@link #setTagger(Function) tagged} right after their placeholders get published and before their
+ * values get computed, so that invalidating a tag also discards the values being computed for it at the same time.
  *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.0, May 20, 2019
+ * @version 2.13, Oct 18, 2026
+ * @see <a href="https://github.com/ben-manes/caffeine/wiki/Design">Caffeine's design</a>
  */
 public class ConcurrentSoftCache<K, V> extends SoftCache<K, V> {
 
-    protected final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    /**
+     * Stands in for {@code null} keys, not supported by concurrent maps.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Node> REFRESHING =
+        AtomicIntegerFieldUpdater.newUpdater(Node.class, "refreshing");
+
+    protected final Lock evictionLock = new ReentrantLock();
+
+    protected transient volatile SoftReference<Store<K, V>> storeRef; // => Retention.SOFT_CACHE
+
+    protected transient volatile Store<K, V> strongStore; // => Retention.SOFT_VALUES or Retention.WEAK_VALUES
+
+    protected volatile Executor executor = ForkJoinPool.commonPool();
+
+    public ConcurrentSoftCache() { this(DEFAULT_MAX_SIZE); }
+
+    public ConcurrentSoftCache(int maxSize) { this(maxSize, Retention.SOFT_CACHE); }
+
+    public ConcurrentSoftCache(int maxSize, Retention retention) { this(maxSize, retention, EvictionPolicy.LRU); }
+
+    public ConcurrentSoftCache(int maxSize, Retention retention, EvictionPolicy.Factory policyFactory) {
+        super(maxSize, retention, policyFactory);
+    }
+
+    public ConcurrentSoftCache(long maxWeight, Weigher<? super K, ? super V> weigher, Retention retention,
+                               EvictionPolicy.Factory policyFactory) {
+        super(maxWeight, weigher, retention, policyFactory);
+    }
+
+    @Override
+    public V getOrCompute(K probe, UnaryOperator<K> keyOf, Function<? super K, ? extends V> computation) {
+        final Store<K, V> store = store();
+        final Object maskedProbe = mask(probe);
 
-    public ConcurrentSoftCache() {}
+        K key = null; // => obtained from the probe upon the first miss
+        for (; ; ) {
+            final Node<K, V> node = store.data.get(maskedProbe);
+            if (node != null) {
+                final V value = read(store, node, computation);
+                if (value != null) {
+                    return value;
+                }
+                if (node.future != null) {
+                    stats.recordMiss();
+                    return await(node);
+                }
+                if (!isReclaimed(node)) {
+                    continue; // => computed (or expired and removed) in the meantime, look again
+                }
+            }
 
-    public ConcurrentSoftCache(int maxSize) { super(maxSize); }
+            if (key == null) {
+                key = keyOf.apply(probe);
+            }
+            final Node<K, V> loading = new Node<>(mask(key), new CompletableFuture<>());
+            if (insert(store, node, loading)) {
+                stats.recordMiss();
+                tag(key);
+                return load(store, loading, key, computation);
+            }
+        }
+    }
 
+    /**
+     * Similar to {@link #getOrCompute(Object, Function)} but runs the {@code computation} (if needed) on the {@link
+     * #setExecutor(Executor) configured executor}. Concurrent callers (synchronous or not) asking for the same key
+     * share the same computation and its outcome.
+     */
     @Override
-    public V getOrCompute(K key, Function<? super K, ? extends V> computation) {
-        rwLock.writeLock().lock();
-        try {
-            return super.getOrCompute(key, computation);
-        } finally {
-            rwLock.writeLock().unlock();
+    public CompletableFuture<V> getOrComputeAsync(K key, Function<? super K, ? extends V> computation) {
+        final Store<K, V> store = store();
+        final Object maskedKey = mask(key);
+
+        for (; ; ) {
+            final Node<K, V> node = store.data.get(maskedKey);
+            if (node != null) {
+                final V value = read(store, node, computation);
+                if (value != null) {
+                    return CompletableFuture.completedFuture(value);
+                }
+                final CompletableFuture<V> future = node.future;
+                if (future != null) {
+                    stats.recordMiss();
+                    return future;
+                }
+                if (!isReclaimed(node)) {
+                    continue; // => computed (or expired and removed) in the meantime, look again
+                }
+            }
+
+            final Node<K, V> loading = new Node<>(maskedKey, new CompletableFuture<>());
+            if (insert(store, node, loading)) {
+                stats.recordMiss();
+                tag(key);
+                final CompletableFuture<V> future = loading.future;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            load(store, loading, key, computation);
+                        } catch (Throwable throwable) {
+                            // already propagated through the future
+                        }
+                    });
+                } catch (Throwable throwable) { // e.g., RejectedExecutionException
+                    fail(store, loading, throwable);
+                }
+                return future;
+            }
+        }
+    }
+
+    /**
+     * Concurrent callers (of either method) asking for the same key share the same computation (or bulk load) and
+     * its outcome: keys already being computed by other callers are waited for rather than loaded again, once the
+     * keys missing altogether have been loaded.
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys,
+                            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        requireNonNull(keys, "Cannot get the values of a null collection of keys");
+        requireNonNull(bulkLoader, "Cannot load values with a null bulk loader");
+
+        final Store<K, V> store = store();
+        final Function<K, V> computation = computationOf(bulkLoader);
+
+        final Map<K, V> values = new LinkedHashMap<>();
+        final Map<K, Node<K, V>> loading = new LinkedHashMap<>(), waiting = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (values.containsKey(key)) {
+                continue;
+            }
+            values.put(key, null); // => a placeholder, keeping the iteration order
+
+            final Object maskedKey = mask(key);
+            for (; ; ) {
+                final Node<K, V> node = store.data.get(maskedKey);
+                if (node != null) {
+                    final V value = read(store, node, computation);
+                    if (value != null) {
+                        values.put(key, value);
+                        break;
+                    }
+                    if (node.future != null) {
+                        stats.recordMiss();
+                        waiting.put(key, node);
+                        break;
+                    }
+                    if (!isReclaimed(node)) {
+                        continue; // => computed (or expired and removed) in the meantime, look again
+                    }
+                }
+
+                final Node<K, V> inserted = new Node<>(maskedKey, new CompletableFuture<>());
+                if (insert(store, node, inserted)) {
+                    stats.recordMiss();
+                    tag(key);
+                    loading.put(key, inserted);
+                    break;
+                }
+            }
+        }
+
+        if (!loading.isEmpty()) { // => before waiting for other callers, which might be waiting for these keys
+            final Map<? extends K, ? extends V> loaded = loadAll(store, loading, bulkLoader);
+            loading.keySet().forEach(key -> values.put(key, loaded.get(key)));
         }
+        waiting.forEach((key, node) -> values.put(key, await(node)));
+
+        values.values().removeIf(Objects::isNull);
+        return values;
     }
 
     @Override
     public V get(K key) {
-        rwLock.readLock().lock();
-        try {
-            return super.get(key);
-        } finally {
-            rwLock.readLock().unlock();
+        final Store<K, V> store = currentStore();
+        final Node<K, V> node = store == null ? null : store.data.get(mask(key));
+        final V value = node == null ? null : read(store, node, null); // never waits for in-flight computations
+        if (value == null) {
+            stats.recordMiss();
         }
+        return value;
     }
 
     @Override
     public boolean contains(K key) {
-        rwLock.readLock().lock();
-        try {
-            return super.contains(key);
-        } finally {
-            rwLock.readLock().unlock();
-        }
+        final Store<K, V> store = currentStore();
+        final Node<K, V> node = store == null ? null : store.data.get(mask(key));
+        return node != null && node.getValue() != null &&
+               !(isTimed() && hasExpired(node.writeTime, node.accessTime, ticker.getAsLong()));
     }
 
     @Override
     public V remove(K key) {
-        rwLock.writeLock().lock();
-        try {
-            return super.remove(key);
-        } finally {
-            rwLock.writeLock().unlock();
+        discardWarmStart(key);
+        final Store<K, V> store = currentStore();
+        final Node<K, V> node = store == null ? null : store.data.remove(mask(key));
+        if (node == null) {
+            return null;
         }
+        unlink(store, node);
+        return node.getValue();
     }
 
     @Override
     public void clear() {
-        rwLock.writeLock().lock();
+        evictionLock.lock();
         try {
-            super.clear();
+            warmStart = null; // => no longer restores what was cleared
+            tagIndex.clear();
+            storeRef = null;
+            final Store<K, V> store = strongStore;
+            if (store != null) { // cleared in place so that reclaimed references polled later on are told apart
+                store.data.clear();
+                store.size = 0;
+                store.weightedSize = 0;
+                store.policy.clear();
+                if (store.timerWheel != null) {
+                    store.timerWheel.clear();
+                }
+                store.readBuffer.drainTo(node -> {}); // discard pending reads, they refer to the dropped entries
+            }
+            lastKnownSize = 0;
         } finally {
-            rwLock.writeLock().unlock();
+            evictionLock.unlock();
         }
     }
 
     @Override
     public int size() {
-        rwLock.readLock().lock();
+        final Store<K, V> store = currentStore();
+        return store == null ? 0 : store.size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        requireNonNull(action, "Cannot perform a null action");
+        final Store<K, V> store = currentStore();
+        if (store == null) {
+            return;
+        }
+
+        final long now = isTimed() ? ticker.getAsLong() : 0L;
+        for (Node<K, V> node : store.data.values()) {
+            final V value = node.getValue();
+            if (value != null && !(isTimed() && hasExpired(node.writeTime, node.accessTime, now))) {
+                @SuppressWarnings("unchecked") final K key = (K) unmask(node.key);
+                action.accept(key, value);
+            }
+        }
+    }
+
+    @Override
+    protected long writeTimeOf(K key) {
+        final Store<K, V> store = currentStore();
+        final Node<K, V> node = store == null ? null : store.data.get(mask(key));
+        return node == null || node.future != null ? CacheSnapshot.UNKNOWN_WRITE_TIME : toEpochMillis(node.writeTime);
+    }
+
+    @Override
+    public long getWeightedSize() {
+        final Store<K, V> store = currentStore();
+        return store == null ? 0 : store.weightedSize;
+    }
+
+    public Executor getExecutor() { return executor; }
+
+    /**
+     * @param executor the {@link Executor executor} used to run {@link #getOrComputeAsync(Object, Function)
+     *                 asynchronous computations}; if {@code null}, {@link ForkJoinPool#commonPool()} is used
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor == null ? ForkJoinPool.commonPool() : executor;
+    }
+
+    @Override
+    protected boolean isPresent(K key) {
+        final Store<K, V> store = currentStore();
+        return store != null && store.data.containsKey(mask(key));
+    }
+
+    @Override
+    protected void boundChanged() {
+        evictionLock.lock();
         try {
-            return super.size();
+            final Store<K, V> store = currentStore();
+            if (store != null) {
+                store.policy.setMaximum(policyMaximum());
+                evict(store);
+                updateSize(store);
+            }
         } finally {
-            rwLock.readLock().unlock();
+            evictionLock.unlock();
         }
     }
 
-    @Override
-    public int getMaxSize() {
-        rwLock.readLock().lock();
+    /**
+     * Runs the {@code computation} for a {@code loading} node that the current thread managed to insert, then
+     * publishes the outcome to all callers waiting for the same key. Other keys are never blocked in the meantime.
+     */
+    protected V load(Store<K, V> store, Node<K, V> loading, K key, Function<? super K, ? extends V> computation) {
+        final V value;
+        loading.loader = Thread.currentThread();
         try {
-            return super.getMaxSize();
+            value = load(key, computation);
+        } catch (Throwable throwable) {
+            fail(store, loading, throwable);
+            throw throwable;
         } finally {
-            rwLock.readLock().unlock();
+            loading.loader = null;
         }
+        return complete(store, loading, key, value);
     }
 
-    @Override
-    public void setMaxSize(int maxSize) {
-        rwLock.writeLock().lock();
+    /**
+     * Runs the {@code bulkLoader} once for all the {@code loading} nodes that the current thread managed to insert,
+     * then publishes each outcome to the callers waiting for the corresponding key. Should the loader fail, all nodes
+     * fail along.
+     *
+     * @return the loaded values, never {@code null}
+     */
+    protected Map<? extends K, ? extends V> loadAll(Store<K, V> store, Map<K, Node<K, V>> loading,
+                           Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        final Map<? extends K, ? extends V> values;
+        final Thread loader = Thread.currentThread();
+        loading.values().forEach(node -> node.loader = loader);
         try {
-            super.setMaxSize(maxSize);
+            values = loadAll(loading.keySet(), bulkLoader);
+        } catch (Throwable throwable) {
+            loading.values().forEach(node -> fail(store, node, throwable));
+            throw throwable;
         } finally {
-            rwLock.writeLock().unlock();
+            loading.values().forEach(node -> node.loader = null);
+        }
+
+        RuntimeException failure = null;
+        for (Map.Entry<K, Node<K, V>> entry : loading.entrySet()) {
+            try {
+                complete(store, entry.getValue(), entry.getKey(), values.get(entry.getKey()));
+            } catch (RuntimeException ex) { // => e.g., a negative weight; the other nodes must be completed anyway
+                failure = failure == null ? ex : failure;
+            }
         }
+        if (failure != null) {
+            throw failure;
+        }
+        return values;
     }
 
-    @Override
-    public boolean isFull() {
-        rwLock.readLock().lock();
+    /**
+     * Publishes the {@code value} computed for a {@code loading} node (weighing it first) to all callers waiting for
+     * the same key.
+     */
+    protected V complete(Store<K, V> store, Node<K, V> loading, K key, V value) {
+        final long now = ticker.getAsLong(), writeTime = writeTime(key, now);
+        if (value != null) {
+            try {
+                loading.weight = weigh(key, value);
+            } catch (RuntimeException ex) {
+                fail(store, loading, ex);
+                throw ex;
+            }
+        }
+
+        final CompletableFuture<V> future = loading.future;
+        if (value == null) { // => nothing to cache, just like Map.computeIfAbsent()
+            store.data.remove(loading.key, loading);
+            future.complete(null);
+            return null;
+        }
+
+        loading.value = ValueReference.wrap(retention, value, loading, referenceQueue);
+        loading.writeTime = writeTime;
+        loading.accessTime = now;
+        loading.future = null;
+        future.complete(value);
+        afterWrite(store, loading);
+        return value;
+    }
+
+    protected void fail(Store<K, V> store, Node<K, V> loading, Throwable throwable) {
+        store.data.remove(loading.key, loading);
+        loading.future.completeExceptionally(throwable); // the future is kept so that late waiters see the failure
+    }
+
+    /**
+     * Tells a node whose value has been reclaimed by the garbage collector apart from one found still being computed
+     * but whose value has been published in the meantime: {@link #complete(Store, Node, Object, Object) completing} a
+     * node sets its value before clearing its {@code future}, hence reading them in the opposite order.
+     *
+     * @return whether the value of a node found with neither a value nor a {@code future} has actually been reclaimed
+     */
+    protected boolean isReclaimed(Node<K, V> node) { return node.future == null && node.getValue() == null; }
+
+    /**
+     * Atomically inserts a {@code loading} node, either as a brand new entry (if {@code existing} is {@code null}) or
+     * in place of an {@code existing} entry whose value has been {@link #isReclaimed(Node) reclaimed} by the garbage
+     * collector.
+     *
+     * @return whether the {@code loading} node has been inserted, i.e., whether the caller should compute its value
+     */
+    protected boolean insert(Store<K, V> store, Node<K, V> existing, Node<K, V> loading) {
+        if (existing == null) {
+            return store.data.putIfAbsent(loading.key, loading) == null;
+        }
+        if (store.data.replace(loading.key, existing, loading)) {
+            stats.recordReclaimed(1); // the policy forgets the reclaimed node once its reference is enqueued
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the value of the given {@code node}, waiting for its computation to finish if still in flight
+     */
+    protected V await(Node<K, V> node) {
+        final CompletableFuture<V> future = node.future;
+        if (future == null) {
+            return node.getValue(); // computed in the meantime
+        }
+        if (node.loader == Thread.currentThread()) {
+            throw new IllegalStateException("Recursive computation of the same cache key: " + unmask(node.key));
+        }
+
         try {
-            return super.isFull();
+            return future.join();
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * @return the value of the given {@code node} if computed and not expired yet (recording the read and, if due,
+     *     triggering a refresh when a {@code computation} is given) or {@code null} otherwise
+     */
+    protected V read(Store<K, V> store, Node<K, V> node, Function<? super K, ? extends V> computation) {
+        final V value = node.getValue();
+        if (value == null) {
+            return null;
+        }
+        if (!isTimed()) {
+            stats.recordHit();
+            afterRead(store, node);
+            return value;
+        }
+
+        final long now = ticker.getAsLong();
+        if (hasExpired(node.writeTime, node.accessTime, now)) {
+            if (store.data.remove(node.key, node)) {
+                stats.recordExpiration();
+                unlink(store, node);
+            }
+            return null;
+        }
+        stats.recordHit();
+        if (expireAfterAccessNanos != NEVER) {
+            node.accessTime = now; // => the timer is pushed back lazily, once due
+        }
+        afterRead(store, node);
+        if (computation != null && isRefreshDue(node.writeTime, now)) {
+            @SuppressWarnings("unchecked") final K key = (K) unmask(node.key);
+            refresh(store, node, key, computation);
+        }
+        return value;
+    }
+
+    /**
+     * Computes the value of a cached entry again, on the {@link #setExecutor(Executor) executor}, unless a refresh is
+     * already in flight. The current value keeps being served in the meantime and, should the refresh fail, until the
+     * next read triggers a new refresh.
+     */
+    protected void refresh(Store<K, V> store, Node<K, V> node, K key, Function<? super K, ? extends V> computation) {
+        if (!REFRESHING.compareAndSet(node, 0, 1)) {
+            return;
+        }
+        try {
+            executor.execute(() -> reload(store, node, key, computation));
+        } catch (Throwable throwable) { // e.g., RejectedExecutionException
+            node.refreshing = 0;
+        }
+    }
+
+    protected void reload(Store<K, V> store, Node<K, V> node, K key, Function<? super K, ? extends V> computation) {
+        try {
+            final V value = load(key, computation);
+            final long writeTime = writeTime(key, ticker.getAsLong());
+            if (value == null) { // => nothing to cache anymore, just like Map.compute()
+                if (store.data.remove(node.key, node)) {
+                    unlink(store, node);
+                }
+                return;
+            }
+
+            final int weight = weigh(key, value);
+            evictionLock.lock();
+            try {
+                if (store.data.get(node.key) == node) { // => not removed in the meantime
+                    node.value = ValueReference.wrap(retention, value, node, referenceQueue);
+                    node.writeTime = writeTime;
+                    node.weight = weight;
+                    if (node.linked) {
+                        store.policy.onInsert(node, weight);
+                        schedule(store, node);
+                        evict(store);
+                        updateSize(store);
+                    }
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        } catch (Throwable throwable) {
+            // keep serving the current value
+        } finally {
+            node.refreshing = 0;
+        }
+    }
+
+    /**
+     * Stops tracking a node that has just been removed from the backing map.
+     */
+    protected void unlink(Store<K, V> store, Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            if (node.linked) {
+                node.linked = false;
+                store.policy.onRemove(node);
+                cancel(store, node);
+                updateSize(store);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    protected void afterRead(Store<K, V> store, Node<K, V> node) {
+        if (store.readBuffer.offer(node) == ReadBuffer.FULL && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer(store);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    protected void afterWrite(Store<K, V> store, Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            drainReadBuffer(store);
+            if (!node.linked && store.data.get(node.key) == node && store == currentStore()) { // => not removed
+                node.linked = true;
+                store.policy.onInsert(node, node.weight);
+                schedule(store, node);
+                evict(store);
+                updateSize(store);
+            }
         } finally {
-            rwLock.readLock().unlock();
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Expunges the reclaimed values, removes the expired entries then replays the buffered reads against the {@link
+     * Store#policy policy}; must be called while holding the {@link #evictionLock}.
+     */
+    protected void drainReadBuffer(Store<K, V> store) {
+        expungeReclaimed(store);
+        expire(store);
+        store.readBuffer.drainTo(node -> {
+            if (node.linked) { // => ignore reads of removed entries; the policy ignores entries it no longer tracks
+                store.policy.onAccess(node);
+            }
+        });
+    }
+
+    /**
+     * Must be called while holding the {@link #evictionLock}.
+     */
+    protected void expungeReclaimed(Store<K, V> store) {
+        for (Reference<? extends V> reference; (reference = referenceQueue.poll()) != null; ) {
+            @SuppressWarnings("unchecked") final Node<K, V> node = (Node<K, V>) ((ValueReference<?>) reference).owner();
+            if (node.value != reference) {
+                continue; // => refreshed in the meantime
+            }
+            if (store.data.remove(node.key, node)) { // => not replaced (and counted) by a new computation yet
+                stats.recordReclaimed(1);
+            }
+            if (node.linked) {
+                node.linked = false;
+                store.policy.onRemove(node);
+                cancel(store, node);
+            }
+        }
+        updateSize(store);
+    }
+
+    /**
+     * Evicts the entries chosen by the {@link Store#policy policy}, one at a time, while the cache is over capacity;
+     * must be called while holding the {@link #evictionLock}.
+     */
+    protected void evict(Store<K, V> store) {
+        while (store.policy.size() > getMaxSize() || store.policy.weightedSize() > getMaxWeight()) {
+            final Node<K, V> victim = store.policy.evict();
+            victim.linked = false;
+            cancel(store, victim);
+            if (store.data.remove(victim.key, victim)) {
+                final V value = victim.getValue();
+                if (value != null) {
+                    @SuppressWarnings("unchecked") final K key = (K) unmask(victim.key);
+                    evicted(key, value);
+                }
+            }
+            stats.recordEviction();
+        }
+    }
+
+    /**
+     * Removes the entries whose timers are due, checking their deadlines again since reads might have pushed these
+     * back in the meantime; must be called while holding the {@link #evictionLock}.
+     */
+    protected void expire(Store<K, V> store) {
+        if (store.timerWheel == null) {
+            return;
+        }
+        final long now = ticker.getAsLong();
+        store.timerWheel.advance(now, timer -> {
+            final Node<K, V> node = timer.element;
+            if (!hasExpired(node.writeTime, node.accessTime, now)) {
+                schedule(store, node);
+            } else if (node.linked) {
+                node.linked = false;
+                store.policy.onRemove(node);
+                store.data.remove(node.key, node);
+                stats.recordExpiration();
+            }
+        });
+        updateSize(store);
+    }
+
+    /**
+     * (Re-)schedules the expiry of a linked node, if any; must be called while holding the {@link #evictionLock}.
+     */
+    protected void schedule(Store<K, V> store, Node<K, V> node) {
+        final long expiresAt = expiresAt(node.writeTime, node.accessTime);
+        if (expiresAt == NEVER) {
+            cancel(store, node);
+            return;
+        }
+        if (store.timerWheel == null) {
+            store.timerWheel = new TimerWheel<>(ticker.getAsLong());
+        }
+        if (node.timer == null) {
+            node.timer = new TimerWheel.Timer<>(node);
+        }
+        store.timerWheel.schedule(node.timer, expiresAt);
+    }
+
+    /**
+     * Must be called while holding the {@link #evictionLock}.
+     */
+    protected void cancel(Store<K, V> store, Node<K, V> node) {
+        if (node.timer != null && store.timerWheel != null) {
+            store.timerWheel.cancel(node.timer);
         }
     }
+
+    /**
+     * Must be called while holding the {@link #evictionLock}.
+     */
+    protected void updateSize(Store<K, V> store) {
+        lastKnownSize = store.size = store.policy.size();
+        store.weightedSize = store.policy.weightedSize();
+    }
+
+    protected Store<K, V> currentStore() {
+        if (retention != Retention.SOFT_CACHE) {
+            return strongStore;
+        }
+        final SoftReference<Store<K, V>> ref = storeRef;
+        return ref == null ? null : ref.get();
+    }
+
+    protected Store<K, V> store() {
+        Store<K, V> store = currentStore();
+        if (store == null) {
+            evictionLock.lock();
+            try {
+                if ((store = currentStore()) == null) {
+                    store = new Store<>(createData(), policyFactory.create());
+                    store.policy.setMaximum(policyMaximum());
+                    if (retention != Retention.SOFT_CACHE) {
+                        strongStore = store;
+                    } else {
+                        if (storeRef != null) { // => reclaimed as a whole, along with its policy
+                            stats.recordReclaimed(lastKnownSize);
+                        }
+                        storeRef = new SoftReference<>(store);
+                    }
+                    lastKnownSize = 0;
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Override in order to change the implementation details of the actual storage structure, which has to be a
+     * {@link ConcurrentMap} since it is read without locking. The default implementation returns a {@link
+     * ConcurrentHashMap} instance.
+     * <p/>
+     * The structure holds the cache's entries (rather than its values) and {@code null} keys are stood for by a
+     * private sentinel, hence structures ordering their keys should be given a comparator accepting any object.
+     *
+     * @return a new instance of the backing {@link ConcurrentMap structure} to hold data
+     */
+    @Override
+    protected Map<K, V> createBoundedCache() {
+        return new ConcurrentHashMap<>(16); // => not too many slots, initially
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentMap<Object, Node<K, V>> createData() {
+        final Map<K, V> data = createBoundedCache();
+        if (!(data instanceof ConcurrentMap)) {
+            throw new IllegalStateException(
+                "A concurrent cache cannot be backed by " + (data == null ? null : data.getClass().getName()) +
+                ", only by a " + ConcurrentMap.class.getName());
+        }
+        return (ConcurrentMap<Object, Node<K, V>>) (Map<?, ?>) data;
+    }
+
+    private static Object mask(Object key) { return key == null ? NULL_KEY : key; }
+
+    private static Object unmask(Object key) { return key == NULL_KEY ? null : key; }
+
+    /**
+     * The (possibly softly referenced) backing structure: a concurrent map for lock-free lookups, along with everything
+     * else referring to its entries, so that nothing outside of it keeps them reachable.
+     */
+    protected static final class Store<K, V> {
+
+        protected final ConcurrentMap<Object, Node<K, V>> data;
+
+        /**
+         * Tracks entries (rather than keys) so that a removed entry and a new one for the same key are told apart;
+         * guarded by the {@link ConcurrentSoftCache#evictionLock eviction lock}.
+         */
+        protected final EvictionPolicy<Node<K, V>> policy;
+
+        protected final ReadBuffer<Node<K, V>> readBuffer = new ReadBuffer<>();
+
+        protected TimerWheel<Node<K, V>> timerWheel; // => created upon the first entry to expire; guarded likewise
+
+        protected volatile int size; // => as tracked by the policy, upon the last write
+
+        protected volatile long weightedSize;
+
+        protected Store(ConcurrentMap<Object, Node<K, V>> data, EvictionPolicy<Node<K, V>> policy) {
+            this.data = data;
+            this.policy = policy;
+        }
+    }
+
+    /**
+     * A cache entry; while its value is being computed, the entry is already present in the backing map (so that
+     * concurrent callers can wait for the same {@code future}) but not yet tracked by the {@link Store#policy
+     * policy}. The {@code linked} flag (i.e., tracked by the policy) is guarded by the {@link #evictionLock}.
+     * <p/>
+     * Entries are only equal to themselves but hash like their keys, so that policies estimating access frequencies
+     * keep track of keys across entries.
+     */
+    protected static final class Node<K, V> {
+
+        protected final Object key;
+
+        protected volatile Object value; // => the value itself or a reference to it, depending on the retention
+
+        protected volatile CompletableFuture<V> future; // => null once the value has been successfully computed
+
+        protected volatile Thread loader;
+
+        protected boolean linked;
+
+        protected int weight = 1; // => set by the computing thread, before the node gets linked
+
+        protected volatile long writeTime;
+
+        protected volatile long accessTime;
+
+        protected volatile int refreshing; // => 1 while a refresh is in flight
+
+        protected TimerWheel.Timer<Node<K, V>> timer; // => guarded by the evictionLock
+
+        protected Node(Object key, CompletableFuture<V> future) {
+            this.key = key;
+            this.future = future;
+        }
+
+        /**
+         * @return the cached value or {@code null} if still being computed or already reclaimed
+         */
+        protected V getValue() { return ValueReference.unwrap(value); }
+
+        @Override
+        public int hashCode() { return key.hashCode(); }
+
+        @Override
+        public boolean equals(Object o) { return this == o; }
+    }
 }
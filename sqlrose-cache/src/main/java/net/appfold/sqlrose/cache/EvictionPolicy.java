@@ -0,0 +1,78 @@
+package net.appfold.sqlrose.cache;
+
+/**
+ * A (cache) replacement policy: keeps track of the elements held by a cache (i.e., keys or entries) and of their
+ * {@link Weigher weights} and, when the cache grows past its maximum size (or weight), decides which one to {@link
+ * #evict() evict} next. Implementations need
+ * <strong>not</strong> be thread-safe, the owning cache being responsible for serializing calls, and should ignore
+ * accesses to or removals of elements they do not (or no longer) track.
+ * <p/>
+ * Since a cache might track entries rather than keys, the policy should only rely on {@link Object#hashCode()} to
+ * tell apart different keys (e.g., to estimate access frequencies) and on {@link Object#equals(Object)} to tell
+ * apart different elements.
+ *
+ * @param <E> the type of elements tracked by the policy
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 17, 2026
+ * @see <a href="https://en.wikipedia.org/wiki/Cache_replacement_policies">Cache replacement policies</a>
+ */
+public interface EvictionPolicy<E> {
+
+    /**
+     * The <a href="https://en.wikipedia.org/wiki/Cache_replacement_policies#LRU">least recently used</a> policy; cheap
+     * and good enough for recency-biased workloads but easily polluted by scans.
+     */
+    Factory LRU = LruPolicy::new;
+
+    /**
+     * The <a href="https://arxiv.org/abs/1512.00727">W-TinyLFU</a> policy; admits new elements into the bulk of the
+     * cache only if they are estimated to be accessed more frequently than the ones they would replace, hence resists
+     * scans and one-hit wonders.
+     */
+    Factory W_TINY_LFU = WindowTinyLfuPolicy::new;
+
+    /**
+     * @param maximum the maximum number of elements the owning cache holds or, if the cache is bounded by weight, the
+     *                maximum total weight of its elements; the policy might size its internal segments accordingly
+     */
+    void setMaximum(long maximum);
+
+    /**
+     * Starts tracking an element or, if already tracked, updates its weight and records an access to it.
+     *
+     * @param weight the weight of the element, {@code 1} unless the owning cache is bounded by weight
+     */
+    void onInsert(E element, int weight);
+
+    void onAccess(E element);
+
+    void onRemove(E element);
+
+    /**
+     * Called by the owning cache while its size (or weighted size) exceeds its maximum.
+     *
+     * @return the element to evict (no longer tracked by the policy) or {@code null} if no element is tracked
+     */
+    E evict();
+
+    /**
+     * @return the number of elements tracked by the policy
+     */
+    int size();
+
+    /**
+     * @return the total weight of the elements tracked by the policy
+     */
+    long weightedSize();
+
+    void clear();
+
+    /**
+     * Creates {@link EvictionPolicy policies} for any type of elements, since caches might track keys or entries.
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        <E> EvictionPolicy<E> create();
+    }
+}
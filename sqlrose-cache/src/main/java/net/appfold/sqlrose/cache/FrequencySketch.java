@@ -0,0 +1,119 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.*;
+
+/**
+ * A probabilistic, compact estimate of how often elements have been seen recently: a <a
+ * href="https://en.wikipedia.org/wiki/Count%E2%80%93min_sketch">count-min sketch</a> with 4 hash functions and 4-bit
+ * counters (16 counters packed in each {@code long}). To keep the estimates <em>recent</em>, all counters are halved
+ * once a sample of 10 times the sketch's capacity has been recorded.
+ * <p/>
+ * The capacity follows the number of elements tracked by the owning policy rather than the cache's maximum, which
+ * might be a weight (e.g., a number of bytes) instead of a number of entries.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 17, 2026
+ * @see <a href="https://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+                                         0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private long[] table = new long[1];
+
+    private int tableMask;
+
+    private int sampleSize = 10;
+
+    private int additions;
+
+    int capacity() { return table.length; }
+
+    /**
+     * Grows (and resets) the sketch if smaller than the given capacity; never shrinks it.
+     */
+    void ensureCapacity(long capacity) {
+        final int maximum = (int) Math.min(Math.max(capacity, 1), 1 << 30);
+        if (maximum <= table.length) {
+            return;
+        }
+        final int length = Integer.highestOneBit(maximum - 1) << 1;
+        table = new long[length];
+        tableMask = length - 1;
+        additions = 0;
+        sampleSize = length > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : 10 * length;
+    }
+
+    /**
+     * @return the estimated number of times the element has been seen, at most 15
+     */
+    int frequency(Object element) {
+        final int hash = spread(Objects.hashCode(element));
+        final int start = (hash & 3) << 2; // => which 4 of the 16 counters in a long are used by this element
+
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(Object element) {
+        final int hash = spread(Objects.hashCode(element));
+        final int start = (hash & 3) << 2;
+
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    void clear() {
+        Arrays.fill(table, 0L);
+        additions = 0;
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        final int offset = counter << 2;
+        final long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) { // => saturates at 15
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halves all counters (and the number of additions), taking into account the odd counters' truncation.
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,14 @@
+package net.appfold.sqlrose.cache;
+
+/**
+ * Like {@link java.util.function.BiFunction} but accepting two {@code int}s, hence not boxing them.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ * @see MemoizedIntBiFn
+ */
+@FunctionalInterface
+public interface IntBiFunction<R> {
+
+    R apply(int t, int u);
+}
@@ -0,0 +1,316 @@
+package net.appfold.sqlrose.cache;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * A thread-safe, bounded cache keyed by primitive {@code long}s (hence by {@code int}s or pairs of {@code int}s as
+ * well) backing the primitive {@link MemoizedLongFn memoized functions}: keys are never boxed and lookups allocate
+ * nothing.
+ * <p/>
+ * Entries are spread over a few segments, each being an <a href="https://en.wikipedia.org/wiki/Linear_probing">open
+ * addressing, linear probing</a> table (kept at most half full) wrapped in a {@link SoftReference}, just like {@link
+ * Retention#SOFT_CACHE}. Reads are optimistic (i.e., validated by a {@link StampedLock} and retried under its read
+ * lock only if racing with a write) while writes lock their segment. Each segment is bounded on its own and evicts
+ * entries following the <a href="https://en.wikipedia.org/wiki/Page_replacement_algorithm#Clock">CLOCK</a> policy, an
+ * approximation of LRU that needs no more than a bit per entry.
+ * <p/>
+ * Values are computed outside of any lock hence, unlike {@link ConcurrentSoftCache}, concurrent callers missing the
+ * same key might compute its value more than once (the first value cached being returned to all of them).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+final class LongKeyedCache<V> {
+
+    private static final int SEGMENT_COUNT =
+        Integer.highestOneBit(Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors())));
+
+    private final Segment<V>[] segments;
+
+    private final StatsCounter stats = new StatsCounter();
+
+    private volatile int maxSize;
+
+    @SuppressWarnings("unchecked")
+    LongKeyedCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum cache size must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        segments = new Segment[maxSize < 64 * SEGMENT_COUNT ? 1 : SEGMENT_COUNT]; // => small caches are more exact
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<>(segmentMaxSize(maxSize, i));
+        }
+    }
+
+    V getOrCompute(long key, LongFunction<? extends V> computation) {
+        final long hash = spread(key);
+        final Segment<V> segment = segments[(int) (hash >>> 32) & (segments.length - 1)];
+
+        final V cached = segment.get(key, (int) hash);
+        if (cached != null) {
+            stats.recordHit();
+            return cached;
+        }
+
+        stats.recordMiss();
+        final long start = System.nanoTime();
+        final V value;
+        try {
+            value = computation.apply(key);
+        } catch (RuntimeException | Error ex) {
+            stats.recordLoadFailure(System.nanoTime() - start);
+            throw ex;
+        }
+        stats.recordLoadSuccess(System.nanoTime() - start);
+        return value == null ? null : segment.putIfAbsent(key, (int) hash, value, stats);
+    }
+
+    void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    int getMaxSize() { return maxSize; }
+
+    void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum cache size must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i].setMaxSize(segmentMaxSize(maxSize, i), stats);
+        }
+    }
+
+    CacheStats getStats() { return stats.snapshot(); }
+
+    private int segmentMaxSize(int maxSize, int segment) {
+        return Math.max(1, maxSize / segments.length + (segment < maxSize % segments.length ? 1 : 0));
+    }
+
+    private static long spread(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ h >>> 29;
+    }
+
+    private static final class Segment<V> {
+
+        private final StampedLock lock = new StampedLock();
+
+        private volatile SoftReference<Table<V>> tableRef;
+
+        private int maxSize; // => guarded by the lock
+
+        private int lastKnownSize; // => guarded by the lock
+
+        private Segment(int maxSize) { this.maxSize = maxSize; }
+
+        private V get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                final Table<V> table = currentTable();
+                final V value = table == null ? null : table.get(key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                final Table<V> table = currentTable();
+                return table == null ? null : table.get(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private V putIfAbsent(long key, int hash, V value, StatsCounter stats) {
+            final long stamp = lock.writeLock();
+            try {
+                final Table<V> table = table(stats);
+                final V cached = table.putIfAbsent(key, hash, value, maxSize, stats);
+                lastKnownSize = table.size;
+                return cached;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void clear() {
+            final long stamp = lock.writeLock();
+            try {
+                tableRef = null;
+                lastKnownSize = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int size() {
+            final Table<V> table = currentTable();
+            return table == null ? 0 : table.size;
+        }
+
+        private void setMaxSize(int maxSize, StatsCounter stats) {
+            final long stamp = lock.writeLock();
+            try {
+                this.maxSize = maxSize;
+                final Table<V> table = currentTable();
+                if (table != null) {
+                    final Table<V> resized = new Table<>(maxSize);
+                    table.forEach((key, hash, value) -> resized.putIfAbsent(key, hash, value, maxSize, stats));
+                    tableRef = new SoftReference<>(resized);
+                    lastKnownSize = resized.size;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private Table<V> currentTable() {
+            final SoftReference<Table<V>> ref = tableRef;
+            return ref == null ? null : ref.get();
+        }
+
+        /**
+         * Must be called while holding the write lock.
+         */
+        private Table<V> table(StatsCounter stats) {
+            final SoftReference<Table<V>> ref = tableRef;
+            Table<V> table = ref == null ? null : ref.get();
+            if (table == null) {
+                if (ref != null) { // => reclaimed as a whole
+                    stats.recordReclaimed(lastKnownSize);
+                    lastKnownSize = 0;
+                }
+                tableRef = new SoftReference<>(table = new Table<>(maxSize));
+            }
+            return table;
+        }
+    }
+
+    /**
+     * The open addressing table of a segment; only mutated while holding the segment's write lock but probed
+     * optimistically, hence probes are bounded by the table's length.
+     */
+    private static final class Table<V> {
+
+        private final long[] keys;
+
+        private final Object[] values; // => null for empty slots
+
+        private final boolean[] referenced;
+
+        private final int mask;
+
+        private int size;
+
+        private int hand; // => the CLOCK hand
+
+        private Table(int maxSize) {
+            final int capacity = Math.min(Math.max(2, maxSize), 1 << 29);
+            final int length = Integer.highestOneBit(capacity * 2 - 1) << 1; // => at most half full
+            keys = new long[length];
+            values = new Object[length];
+            referenced = new boolean[length];
+            mask = length - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V get(long key, int hash) {
+            for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                final Object value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    referenced[i] = true; // => a racy hint for the CLOCK hand, at worst lost
+                    return (V) value;
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V putIfAbsent(long key, int hash, V value, int maxSize, StatsCounter stats) {
+            int i = hash & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i]; // => cached in the meantime, by a concurrent caller
+                }
+            }
+
+            if (size >= maxSize) {
+                evict(stats);
+                for (i = hash & mask; values[i] != null; i = (i + 1) & mask) {} // => eviction might shift entries
+            }
+            keys[i] = key;
+            values[i] = value;
+            referenced[i] = false;
+            size++;
+            return value;
+        }
+
+        private void evict(StatsCounter stats) {
+            for (; ; hand = (hand + 1) & mask) {
+                if (values[hand] == null) {
+                    continue;
+                }
+                if (referenced[hand]) {
+                    referenced[hand] = false; // => second chance
+                    continue;
+                }
+                removeAt(hand);
+                stats.recordEviction();
+                return;
+            }
+        }
+
+        /**
+         * Removes the entry at the given slot, shifting back the entries that follow it in the same run so that no
+         * tombstones are needed.
+         */
+        private void removeAt(int slot) {
+            values[slot] = null;
+            size--;
+            for (int i = slot, j = (slot + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                final int home = (int) spread(keys[j]) & mask;
+                final boolean between = i <= j ? i < home && home <= j : i < home || home <= j;
+                if (!between) { // => the entry at j can (and must) fill the hole at i
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    referenced[i] = referenced[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        private void forEach(EntryConsumer<V> consumer) {
+            for (int i = 0; i <= mask; i++) {
+                @SuppressWarnings("unchecked") final V value = (V) values[i];
+                if (value != null) {
+                    consumer.accept(keys[i], (int) spread(keys[i]), value);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryConsumer<V> {
+
+        void accept(long key, int hash, V value);
+    }
+}
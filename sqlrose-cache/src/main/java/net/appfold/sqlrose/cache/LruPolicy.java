@@ -0,0 +1,70 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.*;
+
+/**
+ * The <a href="https://en.wikipedia.org/wiki/Cache_replacement_policies#LRU">least recently used</a> {@link
+ * EvictionPolicy replacement policy}.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 17, 2026
+ */
+public final class LruPolicy<E> implements EvictionPolicy<E> {
+
+    private final Map<E, PolicyDeque.Node<E>> nodes = new HashMap<>();
+
+    private final PolicyDeque<E> deque = new PolicyDeque<>();
+
+    @Override
+    public void setMaximum(long maximum) {}
+
+    @Override
+    public void onInsert(E element, int weight) {
+        PolicyDeque.Node<E> node = nodes.get(element);
+        if (node == null) {
+            nodes.put(element, node = new PolicyDeque.Node<>(element));
+        } else {
+            deque.remove(node);
+        }
+        node.weight = weight;
+        deque.addLast(node);
+    }
+
+    @Override
+    public void onAccess(E element) {
+        final PolicyDeque.Node<E> node = nodes.get(element);
+        if (node != null) {
+            deque.moveToLast(node);
+        }
+    }
+
+    @Override
+    public void onRemove(E element) {
+        final PolicyDeque.Node<E> node = nodes.remove(element);
+        if (node != null) {
+            deque.remove(node);
+        }
+    }
+
+    @Override
+    public E evict() {
+        final PolicyDeque.Node<E> eldest = deque.pollFirst();
+        if (eldest == null) {
+            return null;
+        }
+        nodes.remove(eldest.element);
+        return eldest.element;
+    }
+
+    @Override
+    public int size() { return nodes.size(); }
+
+    @Override
+    public long weightedSize() { return deque.weight(); }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+        deque.clear();
+    }
+}
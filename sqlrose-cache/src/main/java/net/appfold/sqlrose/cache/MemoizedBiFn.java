@@ -1,13 +1,19 @@
 package net.appfold.sqlrose.cache;
 
-import java.util.Objects;
-import java.util.function.BiFunction;
+import javax.management.ObjectName;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.*;
 
 import static java.util.Objects.requireNonNull;
 
 /**
+ * Cache hits allocate nothing: the cache is probed with a per-thread, reused {@link Key key} holding the current
+ * arguments while an immutable copy of it is only created (and cached) upon misses (and, for {@link
+ * #memoizeTwoLevel(BiFunction) two-level caches}, upon per-thread cache misses).
+ *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.2, May 22, 2019
+ * @version 1.8, Oct 18, 2026
  */
 public final class MemoizedBiFn<T, U, R> implements BiFunction<T, U, R> {
 
@@ -15,6 +21,11 @@ public final class MemoizedBiFn<T, U, R> implements BiFunction<T, U, R> {
 
     private final SoftCache<Key<T, U>, R> cache;
 
+    private final Function<Key<T, U>, R> computation; // => not capturing the arguments, hence allocated only once
+
+    @SuppressWarnings("rawtypes")
+    private static final ThreadLocal<Key> PROBE = ThreadLocal.withInitial(Key::new);
+
     public MemoizedBiFn(BiFunction<T, U, R> delegate) {
         this(delegate, SoftCache.DEFAULT_MAX_SIZE);
     }
@@ -26,14 +37,77 @@ public final class MemoizedBiFn<T, U, R> implements BiFunction<T, U, R> {
     public MemoizedBiFn(BiFunction<T, U, R> delegate, SoftCache<Key<T, U>, R> cache) {
         this.delegate = requireNonNull(delegate, "Cannot memoize a null bi-function");
         this.cache = requireNonNull(cache, "A bi-memoized function requires a cache");
+        this.computation = key -> this.delegate.apply(key.first, key.second);
     }
 
     public void clearCache() { cache.clear(); }
 
+    /**
+     * @param tagger tags each result, based on the arguments it has been computed for (e.g., with the name of the
+     *               schema the function has queried), so that results can later be {@link #invalidateTag(String)
+     *               invalidated by tag}; {@code null} to stop tagging results
+     * @see SoftCache#setTagger(Function)
+     */
+    public void setTagger(BiFunction<? super T, ? super U, ? extends Collection<String>> tagger) {
+        cache.setTagger(tagger == null ? null : key -> tagger.apply(key.first, key.second));
+    }
+
+    /**
+     * @see SoftCache#invalidateTag(String)
+     */
+    public int invalidateTag(String tag) { return cache.invalidateTag(tag); }
+
+    /**
+     * @see SoftCache#invalidateTagPrefix(String)
+     */
+    public int invalidateTagPrefix(String prefix) { return cache.invalidateTagPrefix(prefix); }
+
     public void setMaxMemoized(int maxMemoized) { cache.setMaxSize(maxMemoized); }
 
+    /**
+     * @see SoftCache#getStats()
+     */
+    public CacheStats getStats() { return cache.getStats(); }
+
+    /**
+     * @see SoftCache#registerMBean(String)
+     */
+    public ObjectName registerMBean(String name) { return cache.registerMBean(name); }
+
+    /**
+     * @see SoftCache#setExpireAfterWrite(Duration)
+     */
+    public void setExpireAfterWrite(Duration expireAfterWrite) { cache.setExpireAfterWrite(expireAfterWrite); }
+
+    /**
+     * @see SoftCache#setExpireAfterAccess(Duration)
+     */
+    public void setExpireAfterAccess(Duration expireAfterAccess) { cache.setExpireAfterAccess(expireAfterAccess); }
+
+    /**
+     * Results due for a refresh keep being returned while the delegate is called again in the background (unless the
+     * cache is not thread-safe, in which case the delegate is called again in the calling thread).
+     *
+     * @see SoftCache#setRefreshAfterWrite(Duration)
+     */
+    public void setRefreshAfterWrite(Duration refreshAfterWrite) { cache.setRefreshAfterWrite(refreshAfterWrite); }
+
+    /**
+     * The probe of the calling thread is shared by all bi-memoized functions, hence saved and restored around each
+     * call, so that nested calls (e.g., made by the delegate) leave the probe of the enclosing call intact.
+     */
     @Override
-    public R apply(T t, U u) { return cache.getOrCompute(Key.of(t, u), tAndU -> delegate.apply(t, u)); }
+    public R apply(T t, U u) {
+        @SuppressWarnings("unchecked") final Key<T, U> probe = PROBE.get();
+        final T first = probe.first; // => of the enclosing call, if any, otherwise null
+        final U second = probe.second;
+        final int hash = probe.hash;
+        try {
+            return cache.getOrCompute(probe.set(t, u), Key::copy, computation);
+        } finally {
+            probe.restore(first, second, hash); // => do not retain the arguments past the outermost call
+        }
+    }
 
     public static <T, U, R> MemoizedBiFn<T, U, R> memoize(BiFunction<T, U, R> fn) { return new MemoizedBiFn<>(fn); }
 
@@ -45,21 +119,45 @@ public final class MemoizedBiFn<T, U, R> implements BiFunction<T, U, R> {
         return new MemoizedBiFn<>(fn, cache);
     }
 
+    /**
+     * Memoizes the given bi-function in a {@link TwoLevelCache two-level cache}, so that the results of the arguments
+     * each thread uses the most are returned without touching any shared cache structure.
+     */
+    public static <T, U, R> MemoizedBiFn<T, U, R> memoizeTwoLevel(BiFunction<T, U, R> fn, int maxMemoized) {
+        return new MemoizedBiFn<>(fn, new TwoLevelCache<>(maxMemoized));
+    }
+
+    public static <T, U, R> MemoizedBiFn<T, U, R> memoizeTwoLevel(BiFunction<T, U, R> fn) {
+        return memoizeTwoLevel(fn, SoftCache.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Cached keys are never mutated, only (per-thread) probes are.
+     */
     private static final class Key<F, S> {
 
-        private final F first;
+        private F first;
+
+        private S second;
 
-        private final S second;
+        private int hash; // computed once per (probed) pair of arguments
 
-        private final int hash; // a Key instance is immutable hence we can cache the hash
+        private Key() {}
+
+        private Key<F, S> set(F first, S second) {
+            this.first = first;
+            this.second = second;
+            this.hash = 31 * Objects.hashCode(first) + Objects.hashCode(second);
+            return this;
+        }
 
-        private Key(F first, S second) {
+        private void restore(F first, S second, int hash) {
             this.first = first;
             this.second = second;
-            this.hash = Objects.hash(first, second);
+            this.hash = hash;
         }
 
-        private static <F, S> Key<F, S> of(F first, S second) { return new Key<>(first, second); }
+        private Key<F, S> copy() { return new Key<F, S>().set(first, second); }
 
         @Override
         public String toString() { return "(" + first + ", " + second + ")"; }
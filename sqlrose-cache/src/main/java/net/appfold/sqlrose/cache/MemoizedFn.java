@@ -1,12 +1,15 @@
 package net.appfold.sqlrose.cache;
 
-import java.util.function.Function;
+import javax.management.ObjectName;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.*;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.2, May 22, 2019
+ * @version 1.7, Oct 17, 2026
  */
 public final class MemoizedFn<T, R> implements Function<T, R> {
 
@@ -14,6 +17,8 @@ public final class MemoizedFn<T, R> implements Function<T, R> {
 
     private final SoftCache<T, R> cache;
 
+    private volatile Function<? super Set<T>, ? extends Map<? extends T, ? extends R>> bulkDelegate = this::applyEach;
+
     public MemoizedFn(Function<T, R> delegate) {
         this(delegate, SoftCache.DEFAULT_MAX_SIZE);
     }
@@ -29,11 +34,80 @@ public final class MemoizedFn<T, R> implements Function<T, R> {
 
     public void clearCache() { cache.clear(); }
 
+    /**
+     * @see SoftCache#setTagger(Function)
+     */
+    public void setTagger(Function<? super T, ? extends Collection<String>> tagger) { cache.setTagger(tagger); }
+
+    /**
+     * @see SoftCache#invalidateTag(String)
+     */
+    public int invalidateTag(String tag) { return cache.invalidateTag(tag); }
+
+    /**
+     * @see SoftCache#invalidateTagPrefix(String)
+     */
+    public int invalidateTagPrefix(String prefix) { return cache.invalidateTagPrefix(prefix); }
+
+    /**
+     * @param bulkDelegate computes the results for a whole set of arguments at once (e.g., by means of a single
+     *                     database round trip), consistently with the memoized function; if {@code null}, {@link
+     *                     #getAll(Collection)} computes the results one argument at a time
+     */
+    public void setBulkDelegate(Function<? super Set<T>, ? extends Map<? extends T, ? extends R>> bulkDelegate) {
+        this.bulkDelegate = bulkDelegate == null ? this::applyEach : bulkDelegate;
+    }
+
     public void setMaxMemoized(int maxMemoized) { cache.setMaxSize(maxMemoized); }
 
+    /**
+     * @see SoftCache#getStats()
+     */
+    public CacheStats getStats() { return cache.getStats(); }
+
+    /**
+     * @see SoftCache#registerMBean(String)
+     */
+    public ObjectName registerMBean(String name) { return cache.registerMBean(name); }
+
+    /**
+     * @see SoftCache#setExpireAfterWrite(Duration)
+     */
+    public void setExpireAfterWrite(Duration expireAfterWrite) { cache.setExpireAfterWrite(expireAfterWrite); }
+
+    /**
+     * @see SoftCache#setExpireAfterAccess(Duration)
+     */
+    public void setExpireAfterAccess(Duration expireAfterAccess) { cache.setExpireAfterAccess(expireAfterAccess); }
+
+    /**
+     * Results due for a refresh keep being returned while the delegate is called again in the background (unless the
+     * cache is not thread-safe, in which case the delegate is called again in the calling thread).
+     *
+     * @see SoftCache#setRefreshAfterWrite(Duration)
+     */
+    public void setRefreshAfterWrite(Duration refreshAfterWrite) { cache.setRefreshAfterWrite(refreshAfterWrite); }
+
     @Override
     public R apply(T t) { return cache.getOrCompute(t, delegate); }
 
+    /**
+     * Applies the function to all the given arguments, the results not memoized yet being computed by a single call
+     * to the {@link #setBulkDelegate(Function) bulk delegate}.
+     *
+     * @return the (non-{@code null}) results, by argument
+     * @see SoftCache#getAll(Collection, Function)
+     */
+    public Map<T, R> getAll(Collection<? extends T> args) { return cache.getAll(args, bulkDelegate); }
+
+    private Map<T, R> applyEach(Set<T> args) {
+        final Map<T, R> results = new HashMap<>();
+        for (T t : args) {
+            results.put(t, delegate.apply(t));
+        }
+        return results;
+    }
+
     public static <T, R> MemoizedFn<T, R> memoize(Function<T, R> fn) { return new MemoizedFn<>(fn); }
 
     public static <T, R> MemoizedFn<T, R> memoize(Function<T, R> fn, int maxMemoized) {
@@ -43,4 +117,15 @@ public final class MemoizedFn<T, R> implements Function<T, R> {
     public static <T, R> MemoizedFn<T, R> memoize(Function<T, R> fn, SoftCache<T, R> cache) {
         return new MemoizedFn<>(fn, cache);
     }
+
+    /**
+     * @see MemoizedBiFn#memoizeTwoLevel(BiFunction, int)
+     */
+    public static <T, R> MemoizedFn<T, R> memoizeTwoLevel(Function<T, R> fn, int maxMemoized) {
+        return new MemoizedFn<>(fn, new TwoLevelCache<>(maxMemoized));
+    }
+
+    public static <T, R> MemoizedFn<T, R> memoizeTwoLevel(Function<T, R> fn) {
+        return memoizeTwoLevel(fn, SoftCache.DEFAULT_MAX_SIZE);
+    }
 }
@@ -0,0 +1,44 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.function.LongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link MemoizedBiFn} specialized for pairs of {@code int} arguments, which are never boxed: both arguments are
+ * packed into a single {@code long} key of a {@link LongKeyedCache}, so that cache hits allocate nothing.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class MemoizedIntBiFn<R> implements IntBiFunction<R> {
+
+    private final IntBiFunction<R> delegate;
+
+    private final LongKeyedCache<R> cache;
+
+    private final LongFunction<R> computation; // => allocated only once
+
+    public MemoizedIntBiFn(IntBiFunction<R> delegate) { this(delegate, SoftCache.DEFAULT_MAX_SIZE); }
+
+    public MemoizedIntBiFn(IntBiFunction<R> delegate, int maxMemoized) {
+        this.delegate = requireNonNull(delegate, "Cannot memoize a null bi-function");
+        this.cache = new LongKeyedCache<>(maxMemoized);
+        this.computation = key -> this.delegate.apply((int) (key >>> 32), (int) key);
+    }
+
+    public void clearCache() { cache.clear(); }
+
+    public void setMaxMemoized(int maxMemoized) { cache.setMaxSize(maxMemoized); }
+
+    public CacheStats getStats() { return cache.getStats(); }
+
+    @Override
+    public R apply(int t, int u) { return cache.getOrCompute((long) t << 32 | u & 0xFFFFFFFFL, computation); }
+
+    public static <R> MemoizedIntBiFn<R> memoize(IntBiFunction<R> fn) { return new MemoizedIntBiFn<>(fn); }
+
+    public static <R> MemoizedIntBiFn<R> memoize(IntBiFunction<R> fn, int maxMemoized) {
+        return new MemoizedIntBiFn<>(fn, maxMemoized);
+    }
+}
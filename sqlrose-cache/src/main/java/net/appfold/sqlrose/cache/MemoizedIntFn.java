@@ -0,0 +1,44 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.function.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link MemoizedFn} specialized for {@code int} arguments, which are never boxed: results are cached in a {@link
+ * LongKeyedCache}, so that cache hits allocate nothing.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class MemoizedIntFn<R> implements IntFunction<R> {
+
+    private final IntFunction<R> delegate;
+
+    private final LongKeyedCache<R> cache;
+
+    private final LongFunction<R> computation; // => allocated only once
+
+    public MemoizedIntFn(IntFunction<R> delegate) { this(delegate, SoftCache.DEFAULT_MAX_SIZE); }
+
+    public MemoizedIntFn(IntFunction<R> delegate, int maxMemoized) {
+        this.delegate = requireNonNull(delegate, "Cannot memoize a null function");
+        this.cache = new LongKeyedCache<>(maxMemoized);
+        this.computation = key -> this.delegate.apply((int) key);
+    }
+
+    public void clearCache() { cache.clear(); }
+
+    public void setMaxMemoized(int maxMemoized) { cache.setMaxSize(maxMemoized); }
+
+    public CacheStats getStats() { return cache.getStats(); }
+
+    @Override
+    public R apply(int value) { return cache.getOrCompute(value, computation); }
+
+    public static <R> MemoizedIntFn<R> memoize(IntFunction<R> fn) { return new MemoizedIntFn<>(fn); }
+
+    public static <R> MemoizedIntFn<R> memoize(IntFunction<R> fn, int maxMemoized) {
+        return new MemoizedIntFn<>(fn, maxMemoized);
+    }
+}
@@ -0,0 +1,41 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.function.LongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link MemoizedFn} specialized for {@code long} arguments, which are never boxed: results are cached in a {@link
+ * LongKeyedCache}, so that cache hits allocate nothing.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class MemoizedLongFn<R> implements LongFunction<R> {
+
+    private final LongFunction<R> delegate;
+
+    private final LongKeyedCache<R> cache;
+
+    public MemoizedLongFn(LongFunction<R> delegate) { this(delegate, SoftCache.DEFAULT_MAX_SIZE); }
+
+    public MemoizedLongFn(LongFunction<R> delegate, int maxMemoized) {
+        this.delegate = requireNonNull(delegate, "Cannot memoize a null function");
+        this.cache = new LongKeyedCache<>(maxMemoized);
+    }
+
+    public void clearCache() { cache.clear(); }
+
+    public void setMaxMemoized(int maxMemoized) { cache.setMaxSize(maxMemoized); }
+
+    public CacheStats getStats() { return cache.getStats(); }
+
+    @Override
+    public R apply(long value) { return cache.getOrCompute(value, delegate); }
+
+    public static <R> MemoizedLongFn<R> memoize(LongFunction<R> fn) { return new MemoizedLongFn<>(fn); }
+
+    public static <R> MemoizedLongFn<R> memoize(LongFunction<R> fn, int maxMemoized) {
+        return new MemoizedLongFn<>(fn, maxMemoized);
+    }
+}
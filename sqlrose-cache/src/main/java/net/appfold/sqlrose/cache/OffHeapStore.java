@@ -0,0 +1,321 @@
+package net.appfold.sqlrose.cache;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.locks.*;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A thread-safe, bounded store keeping {@link Codec encoded} values outside of the Java heap, in direct {@link
+ * ByteBuffer}s (i.e., slabs) allocated lazily, up to a fixed memory budget. Values are neither scanned nor moved
+ * around by the garbage collector and are never reclaimed under memory pressure; keys and a small index entry per
+ * value stay on heap.
+ * <p/>
+ * Slabs are carved into fixed-size blocks and each value occupies a chain of (not necessarily adjacent) blocks, so
+ * that freed space can always be reused without compaction at the cost of wasting half a block per value, on
+ * average. When running out of blocks, the least recently used values are evicted. Values are encoded before and
+ * decoded after locking the store, only copying bytes to and from the slabs happening under the lock.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ * @see TieredCache
+ */
+public final class OffHeapStore<K, V> {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final int MAX_SLAB_SIZE = 1 << 30;
+
+    private static final int NONE = -1;
+
+    private final Codec<V> codec;
+
+    private final long budget;
+
+    private final int blockSize;
+
+    private final int blocksPerSlab;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Map<K, Entry> entries = new LinkedHashMap<>(16, .75f, true); // => in least recently used order
+
+    private ByteBuffer[] slabs; // => allocated upon first use
+
+    private int[] next; // => chains the blocks of each value as well as the free blocks
+
+    private int freeHead = NONE;
+
+    private int freeBlocks;
+
+    private int highWater; // => blocks never used so far start here
+
+    private long usedBytes;
+
+    private long storeCount, hitCount, missCount, evictionCount, rejectionCount;
+
+    public OffHeapStore(long budget, Codec<V> codec) { this(budget, DEFAULT_BLOCK_SIZE, codec); }
+
+    /**
+     * @param budget    the maximum number of bytes to allocate off-heap
+     * @param blockSize the allocation unit; should be close to (or a fraction of) the typical size of encoded values
+     */
+    public OffHeapStore(long budget, int blockSize, Codec<V> codec) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be greater than 0");
+        }
+        if (budget < blockSize || budget / blockSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap budget must allow for 1 to 2^31 - 1 blocks of " + blockSize +
+                                               " bytes");
+        }
+        this.budget = budget / blockSize * blockSize;
+        this.blockSize = blockSize;
+        this.blocksPerSlab = Math.max(1, MAX_SLAB_SIZE / blockSize);
+        this.codec = requireNonNull(codec, "An off-heap store requires a codec");
+    }
+
+    /**
+     * Encodes and stores the given {@code value}, evicting the least recently used values if needed.
+     *
+     * @return {@code false} if the encoded value is larger than the whole budget, hence not stored
+     */
+    public boolean put(K key, V value) {
+        requireNonNull(value, "Cannot store null values off-heap");
+        final byte[] bytes = codec.encode(value);
+        final int blocks = blocks(bytes.length);
+
+        lock.lock();
+        try {
+            release(entries.remove(key));
+            if ((long) blocks * blockSize > budget) {
+                rejectionCount++;
+                return false;
+            }
+            while (freeBlocks + maxBlocks() - highWater < blocks) {
+                final Iterator<Entry> eldest = entries.values().iterator();
+                release(eldest.next());
+                eldest.remove();
+                evictionCount++;
+            }
+
+            final Entry entry = new Entry(allocate(blocks), bytes.length);
+            write(entry, bytes);
+            entries.put(key, entry);
+            usedBytes += (long) blocks * blockSize;
+            storeCount++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the decoded value stored for the given {@code key} or {@code null} if none
+     */
+    public V get(K key) {
+        final byte[] bytes;
+        lock.lock();
+        try {
+            final Entry entry = entries.get(key);
+            bytes = entry == null ? null : read(entry);
+            recordLookup(bytes);
+        } finally {
+            lock.unlock();
+        }
+        return bytes == null ? null : codec.decode(bytes);
+    }
+
+    /**
+     * Removes the value stored for the given {@code key} (e.g., when promoting it to a faster tier).
+     *
+     * @return the decoded value or {@code null} if none
+     */
+    public V remove(K key) {
+        final byte[] bytes;
+        lock.lock();
+        try {
+            final Entry entry = entries.remove(key);
+            bytes = entry == null ? null : read(entry);
+            release(entry);
+            recordLookup(bytes);
+        } finally {
+            lock.unlock();
+        }
+        return bytes == null ? null : codec.decode(bytes);
+    }
+
+    public boolean contains(K key) {
+        lock.lock();
+        try {
+            return entries.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all values and drops the slabs, letting the garbage collector free the off-heap memory.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            slabs = null;
+            next = null;
+            freeHead = NONE;
+            freeBlocks = highWater = 0;
+            usedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes taken by the blocks of the stored values
+     */
+    public long getUsedBytes() { return locked(() -> usedBytes); }
+
+    public long getBudget() { return budget; }
+
+    public int getBlockSize() { return blockSize; }
+
+    public long getStoreCount() { return locked(() -> storeCount); }
+
+    public long getHitCount() { return locked(() -> hitCount); }
+
+    public long getMissCount() { return locked(() -> missCount); }
+
+    public long getEvictionCount() { return locked(() -> evictionCount); }
+
+    /**
+     * @return how many values were too large to be stored at all
+     */
+    public long getRejectionCount() { return locked(() -> rejectionCount); }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "OffHeapStore{size=" + entries.size() + ", usedBytes=" + usedBytes + ", budget=" + budget +
+                   ", stores=" + storeCount + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" +
+                   evictionCount + ", rejections=" + rejectionCount + '}';
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long locked(LongSupplier supplier) {
+        lock.lock();
+        try {
+            return supplier.getAsLong();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordLookup(byte[] bytes) {
+        if (bytes == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+    }
+
+    private int maxBlocks() { return (int) (budget / blockSize); }
+
+    private int blocks(int length) { return (int) ((length + (long) blockSize - 1) / blockSize); }
+
+    /**
+     * @return the first of a chain of {@code count} blocks, the caller having made sure that enough blocks are free
+     */
+    private int allocate(int count) {
+        if (next == null) {
+            next = new int[maxBlocks()];
+            slabs = new ByteBuffer[(maxBlocks() - 1) / blocksPerSlab + 1];
+        }
+
+        int first = NONE, last = NONE;
+        for (int i = 0; i < count; i++) {
+            final int block;
+            if (freeHead != NONE) {
+                block = freeHead;
+                freeHead = next[block];
+                freeBlocks--;
+            } else {
+                block = highWater++;
+            }
+            next[block] = NONE;
+            if (last == NONE) {
+                first = block;
+            } else {
+                next[last] = block;
+            }
+            last = block;
+        }
+        return first;
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (int block = entry.first, following; block != NONE; block = following) {
+            following = next[block];
+            next[block] = freeHead;
+            freeHead = block;
+            freeBlocks++;
+            usedBytes -= blockSize;
+        }
+    }
+
+    private void write(Entry entry, byte[] bytes) {
+        for (int block = entry.first, offset = 0; block != NONE; block = next[block], offset += blockSize) {
+            final ByteBuffer slab = slab(block);
+            slab.position(block % blocksPerSlab * blockSize);
+            slab.put(bytes, offset, Math.min(blockSize, bytes.length - offset));
+        }
+    }
+
+    private byte[] read(Entry entry) {
+        final byte[] bytes = new byte[entry.length];
+        for (int block = entry.first, offset = 0; block != NONE; block = next[block], offset += blockSize) {
+            final ByteBuffer slab = slab(block);
+            slab.position(block % blocksPerSlab * blockSize);
+            slab.get(bytes, offset, Math.min(blockSize, bytes.length - offset));
+        }
+        return bytes;
+    }
+
+    private ByteBuffer slab(int block) {
+        final int index = block / blocksPerSlab;
+        ByteBuffer slab = slabs[index];
+        if (slab == null) {
+            final int blocks = Math.min(blocksPerSlab, maxBlocks() - index * blocksPerSlab);
+            slabs[index] = slab = ByteBuffer.allocateDirect(blocks * blockSize);
+        }
+        return slab;
+    }
+
+    private static final class Entry {
+
+        private final int first; // => NONE for empty values
+
+        private final int length;
+
+        private Entry(int first, int length) {
+            this.first = first;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package net.appfold.sqlrose.cache;
+
+/**
+ * A minimal, intrusive, doubly-linked list of {@link Node nodes}, ordered from the least to the most recently added
+ * or accessed, used by {@link EvictionPolicy eviction policies} to avoid the per-operation allocations of {@link
+ * java.util.LinkedList} or {@link java.util.ArrayDeque}.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 17, 2026
+ */
+final class PolicyDeque<E> {
+
+    private Node<E> head;
+
+    private Node<E> tail;
+
+    private int size;
+
+    private long weight;
+
+    Node<E> peekFirst() { return head; }
+
+    int size() { return size; }
+
+    long weight() { return weight; }
+
+    boolean isEmpty() { return head == null; }
+
+    void addLast(Node<E> node) {
+        node.prev = tail;
+        node.next = null;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        size++;
+        weight += node.weight;
+    }
+
+    Node<E> pollFirst() {
+        final Node<E> first = head;
+        if (first != null) {
+            remove(first);
+        }
+        return first;
+    }
+
+    void remove(Node<E> node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+        size--;
+        weight -= node.weight;
+    }
+
+    void moveToLast(Node<E> node) {
+        if (node != tail) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    void clear() {
+        for (Node<E> node = head, next; node != null; node = next) {
+            next = node.next;
+            node.prev = node.next = null;
+        }
+        head = tail = null;
+        size = 0;
+        weight = 0;
+    }
+
+    static final class Node<E> {
+
+        final E element;
+
+        byte queue; // => which deque the node belongs to, for policies managing several
+
+        int weight = 1; // => only changed while the node is not linked, to keep the deque's weight consistent
+
+        Node<E> prev;
+
+        Node<E> next;
+
+        Node(E element) { this.element = element; }
+    }
+}
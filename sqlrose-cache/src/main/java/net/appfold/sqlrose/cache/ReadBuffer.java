@@ -0,0 +1,101 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.concurrent.atomic.*;
+import java.util.function.Consumer;
+
+/**
+ * A <em>lossy</em>, striped, multiple-producer / single-consumer buffer used to record cache reads without locking.
+ * Producers {@link #offer(Object) offer} elements to a stripe selected by the current thread and the single consumer
+ * (i.e., whoever holds the owning cache's eviction lock) {@link #drainTo(Consumer) drains} all stripes in a batch.
+ * Elements offered to a full stripe, or while racing with another producer on the same slot, are simply dropped: the
+ * buffer only serves as a hint for the replacement policy, not as a record of every single access.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ * @see <a href="https://github.com/ben-manes/caffeine/wiki/Design#concurrency">Caffeine's concurrency design</a>
+ */
+final class ReadBuffer<E> {
+
+    static final int SUCCESS = 0;
+
+    static final int FULL = 1;
+
+    static final int FAILED = 2;
+
+    private static final int STRIPE_COUNT =
+        ceilingPowerOfTwo(Math.min(64, 2 * Runtime.getRuntime().availableProcessors()));
+
+    private static final int STRIPE_SIZE = 16; // power of 2
+
+    private static final int STRIPE_MASK = STRIPE_SIZE - 1;
+
+    private final Stripe<E>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    ReadBuffer() {
+        stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    /**
+     * @return {@link #SUCCESS} if the element was recorded, {@link #FULL} if the selected stripe is full (hence the
+     *     buffer should be drained) or {@link #FAILED} if the element was dropped due to contention
+     */
+    int offer(E element) { return stripes[probe() & (STRIPE_COUNT - 1)].offer(element); }
+
+    /**
+     * Must only be called by a single thread at a time (e.g., while holding a lock).
+     */
+    void drainTo(Consumer<? super E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            stripe.drainTo(consumer);
+        }
+    }
+
+    private static int probe() {
+        final long id = Thread.currentThread().getId();
+        final int h = (int) (id ^ id >>> 32) * 0x9E3779B9; // Fibonacci hashing spreads sequential thread ids
+        return h ^ h >>> 16;
+    }
+
+    private static int ceilingPowerOfTwo(int n) { return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1; }
+
+    private static final class Stripe<E> {
+
+        private final AtomicReferenceArray<E> slots = new AtomicReferenceArray<>(STRIPE_SIZE);
+
+        private final AtomicLong writeCounter = new AtomicLong();
+
+        private final AtomicLong readCounter = new AtomicLong();
+
+        private int offer(E element) {
+            final long head = readCounter.get();
+            final long tail = writeCounter.get();
+            if (tail - head >= STRIPE_SIZE) {
+                return FULL;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                slots.lazySet((int) (tail & STRIPE_MASK), element);
+                return SUCCESS;
+            }
+            return FAILED;
+        }
+
+        private void drainTo(Consumer<? super E> consumer) {
+            long head = readCounter.get();
+            final long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                final int index = (int) (head & STRIPE_MASK);
+                final E element = slots.get(index);
+                if (element == null) {
+                    break; // claimed but not yet published; picked up during the next drain
+                }
+                slots.lazySet(index, null);
+                consumer.accept(element);
+            }
+            readCounter.lazySet(head);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package net.appfold.sqlrose.cache;
+
+/**
+ * Specifies how a {@link SoftCache} holds on to its data and, as such, how the data gets reclaimed by the garbage
+ * collector under memory pressure.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public enum Retention {
+
+    /**
+     * The whole backing structure is wrapped in a {@link java.lang.ref.SoftReference soft reference}; cheap, but the
+     * cache gets emptied <em>at once</em> when the garbage collector decides to reclaim it (the default).
+     */
+    SOFT_CACHE,
+
+    /**
+     * Each cached value is {@link java.lang.ref.SoftReference softly referenced} on its own; under memory pressure,
+     * values get reclaimed individually (roughly, in least-recently-used order) so the cache shrinks gradually.
+     */
+    SOFT_VALUES,
+
+    /**
+     * Each cached value is {@link java.lang.ref.WeakReference weakly referenced} on its own; values get reclaimed as
+     * soon as they are no longer strongly reachable from outside the cache.
+     */
+    WEAK_VALUES
+}
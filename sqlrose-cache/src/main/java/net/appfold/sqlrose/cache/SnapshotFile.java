@@ -0,0 +1,276 @@
+package net.appfold.sqlrose.cache;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.*;
+import static java.nio.file.StandardCopyOption.*;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.Objects.requireNonNull;
+import static net.appfold.sqlrose.logging.Log.logFor;
+
+/**
+ * An opt-in, persistent snapshot of the contents of a cache, so that a restarted application does not begin with an
+ * empty cache: the entries are {@link #write(SoftCache) written} (e.g., {@link #writeOnShutdown(SoftCache) on
+ * shutdown} or {@link #scheduleWrites(SoftCache, ScheduledExecutorService, Duration) periodically}) to a compact,
+ * memory-mapped file which is {@link #warmUp(SoftCache) read back} lazily upon the next start.
+ * <p/>
+ * The file starts with a versioned header (guarded by a checksum) followed by one record per entry holding the
+ * {@link Codec encoded} key and value along with their checksums and the (wall clock) time the entry had been written
+ * to the cache at. Snapshots written in a different format or for a
+ * different (e.g., application or schema) {@code version} are rejected as a whole, corrupted values are simply
+ * skipped (i.e., computed again). Files are written aside and then moved in place so that readers never see partially
+ * written snapshots.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+public final class SnapshotFile<K, V> {
+
+    public static final int MAGIC = 0x53524353; // => "SRCS"
+
+    public static final short FORMAT_VERSION = 2; // => 1 had no write times
+
+    /**
+     * Magic (4 bytes), format version (2), reserved (2), version (8), entry count (4), data length (8) and header
+     * checksum (4).
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * Key length, value length, key checksum and value checksum (4 bytes each), then write time (8).
+     */
+    static final int RECORD_HEADER_SIZE = 24;
+
+    private final Path file;
+
+    private final long version;
+
+    private final Codec<K> keyCodec;
+
+    private final Codec<V> valueCodec;
+
+    /**
+     * @param version identifies the contents of the snapshot (e.g., the application, database schema or bundle
+     *                version); snapshots written with a different version are not read back
+     */
+    public SnapshotFile(Path file, long version, Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.file = requireNonNull(file, "A snapshot requires a file");
+        this.version = version;
+        this.keyCodec = requireNonNull(keyCodec, "A snapshot requires a key codec");
+        this.valueCodec = requireNonNull(valueCodec, "A snapshot requires a value codec");
+    }
+
+    public Path getFile() { return file; }
+
+    public long getVersion() { return version; }
+
+    /**
+     * Writes the current contents of the given {@code cache} along with their {@link SoftCache#writeTimeOf(Object)
+     * write times}, skipping {@code null} keys and entries that cannot be encoded.
+     *
+     * @return the number of entries written
+     */
+    public int write(SoftCache<K, V> cache) throws IOException {
+        final List<byte[]> encoded = new ArrayList<>(); // => keys and values, alternately
+        final List<Long> writeTimes = new ArrayList<>();
+        cache.forEach((key, value) -> {
+            if (key != null) {
+                try {
+                    final byte[] keyBytes = keyCodec.encode(key), valueBytes = valueCodec.encode(value);
+                    encoded.add(keyBytes);
+                    encoded.add(valueBytes);
+                    writeTimes.add(cache.writeTimeOf(key));
+                } catch (RuntimeException ex) {
+                    // cannot encode the entry, skip it
+                }
+            }
+        });
+
+        long dataLength = 0;
+        for (int i = 0; i < encoded.size(); i += 2) {
+            dataLength += RECORD_HEADER_SIZE + encoded.get(i).length + encoded.get(i + 1).length;
+        }
+        if (HEADER_SIZE + dataLength > Integer.MAX_VALUE) {
+            throw new IOException("Cache snapshot too large (" + (HEADER_SIZE + dataLength) + " bytes): " + file);
+        }
+
+        final Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, READ, WRITE, TRUNCATE_EXISTING)) {
+                final MappedByteBuffer buffer = channel.map(READ_WRITE, 0, HEADER_SIZE + dataLength);
+                writeHeader(buffer, encoded.size() / 2, dataLength);
+                for (int i = 0; i < encoded.size(); i += 2) {
+                    writeRecord(buffer, encoded.get(i), encoded.get(i + 1), writeTimes.get(i / 2));
+                }
+                buffer.force();
+            }
+            move(temp);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        return encoded.size() / 2;
+    }
+
+    /**
+     * Maps the snapshot file and decodes its keys, leaving the values to be decoded lazily.
+     *
+     * @throws IOException if the file cannot be read, is corrupted or has been written in a different format or for
+     *                     a different version
+     */
+    public CacheSnapshot<K, V> open() throws IOException {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a cache snapshot: " + file);
+            }
+            buffer = channel.map(READ_ONLY, 0, size); // => stays valid once the channel is closed
+        }
+
+        final int count = readHeader(buffer);
+        final Map<K, CacheSnapshot.Record> records = new HashMap<>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            final int keyLength = buffer.getInt(), valueLength = buffer.getInt();
+            final int keyChecksum = buffer.getInt(), valueChecksum = buffer.getInt();
+            final long writeTime = buffer.getLong();
+            if (keyLength < 0 || valueLength < 0 || (long) keyLength + valueLength > buffer.remaining()) {
+                throw new IOException("Corrupted cache snapshot (record " + i + "): " + file);
+            }
+
+            final byte[] keyBytes = new byte[keyLength];
+            buffer.get(keyBytes);
+            final int offset = buffer.position();
+            buffer.position(offset + valueLength);
+            if (checksum(keyBytes) != keyChecksum) {
+                continue; // => corrupted key, skip the record
+            }
+            try {
+                final K key = keyCodec.decode(keyBytes);
+                records.put(key, new CacheSnapshot.Record(offset, valueLength, valueChecksum, writeTime));
+            } catch (RuntimeException ex) {
+                // cannot decode the key, skip the record
+            }
+        }
+        return new CacheSnapshot<>(buffer.asReadOnlyBuffer(), valueCodec, records);
+    }
+
+    /**
+     * {@link SoftCache#setWarmStart(CacheSnapshot) Warm-starts} the given {@code cache} from the snapshot file, if
+     * present and valid.
+     *
+     * @return whether the cache has been warm-started
+     */
+    public boolean warmUp(SoftCache<K, V> cache) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try {
+            cache.setWarmStart(open());
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            logFor(this).warn("Cannot warm-start cache from snapshot {}, starting cold", file, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Periodically writes the contents of the given {@code cache}, which must hence be thread-safe (i.e., a {@link
+     * ConcurrentSoftCache}); failures are logged.
+     */
+    public ScheduledFuture<?> scheduleWrites(SoftCache<K, V> cache, ScheduledExecutorService executor,
+                                             Duration period) {
+        if (!(cache instanceof ConcurrentSoftCache)) {
+            throw new IllegalArgumentException("Only thread-safe caches can be written periodically");
+        }
+        final long nanos = requireNonNull(period, "Cannot write snapshots with a null period").toNanos();
+        return executor.scheduleWithFixedDelay(() -> writeQuietly(cache), nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Writes the contents of the given {@code cache} when the JVM shuts down (normally); failures are logged.
+     *
+     * @return the registered shutdown hook
+     */
+    public Thread writeOnShutdown(SoftCache<K, V> cache) {
+        final Thread hook = new Thread(() -> writeQuietly(cache), "cache-snapshot-" + file.getFileName());
+        Runtime.getRuntime().addShutdownHook(hook);
+        return hook;
+    }
+
+    private void writeQuietly(SoftCache<K, V> cache) {
+        try {
+            write(cache);
+        } catch (IOException | RuntimeException ex) {
+            logFor(this).warn("Cannot write cache snapshot {}", file, ex);
+        }
+    }
+
+    private void move(Path temp) throws IOException {
+        try {
+            Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, file, REPLACE_EXISTING);
+        }
+    }
+
+    private void writeHeader(ByteBuffer buffer, int count, long dataLength) {
+        buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) 0).putLong(version).putInt(count)
+              .putLong(dataLength);
+        buffer.putInt(headerChecksum(buffer));
+    }
+
+    private int readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a cache snapshot: " + file);
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported cache snapshot format (" + buffer.getShort(4) + "): " + file);
+        }
+        buffer.position(HEADER_SIZE - 4);
+        if (buffer.getInt(HEADER_SIZE - 4) != headerChecksum(buffer)) {
+            throw new IOException("Corrupted cache snapshot (header): " + file);
+        }
+        if (buffer.getLong(8) != version) {
+            throw new IOException("Cache snapshot of version " + buffer.getLong(8) + " instead of " + version + ": " +
+                                  file);
+        }
+        final int count = buffer.getInt(16);
+        if (count < 0 || buffer.getLong(20) != buffer.capacity() - HEADER_SIZE) {
+            throw new IOException("Corrupted (e.g., truncated) cache snapshot: " + file);
+        }
+        buffer.position(HEADER_SIZE);
+        return count;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, byte[] key, byte[] value, long writeTime) {
+        buffer.putInt(key.length).putInt(value.length).putInt(checksum(key)).putInt(checksum(value)).putLong(writeTime);
+        buffer.put(key).put(value);
+    }
+
+    /**
+     * @return the checksum of the header bytes preceding the current position of the {@code buffer}
+     */
+    private static int headerChecksum(ByteBuffer buffer) {
+        final byte[] header = new byte[buffer.position()];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        view.get(header);
+        return checksum(header);
+    }
+
+    static int checksum(byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+}
@@ -1,8 +1,18 @@
 package net.appfold.sqlrose.cache;
 
-import java.lang.ref.SoftReference;
+import net.appfold.sqlrose.metrics.Histogram;
+import net.appfold.sqlrose.metrics.Metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.*;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.*;
 
 /**
  * A <em>poor man's</em> <strong>bounded</strong> cache with a <em>minimal interface</em> that uses a {@link Map}
@@ -10,11 +20,40 @@ import java.util.function.Function;
  * keys are allowed or not as well as other characteristics of this structure can be customized by overriding
  * {@link #createBoundedCache()}.
  * <p/>
- * By default, a {@link LinkedHashMap} instance is used as the backing structure, which allows {@code null} keys and
- * implements a basic <a href="https://en.wikipedia.org/wiki/Cache_replacement_policies#LRU">LRU replacement policy</a>.
+ * By default, a {@link HashMap} instance is used as the backing structure, which allows {@code null} keys, while the
+ * bound is enforced by a pluggable {@link EvictionPolicy replacement policy}, a basic <a
+ * href="https://en.wikipedia.org/wiki/Cache_replacement_policies#LRU">LRU</a> one unless specified otherwise (e.g.,
+ * {@link EvictionPolicy#W_TINY_LFU W-TinyLFU}, for scan-resistance).
+ * <p/>
+ * The bound is either a maximum number of entries or, when values vary widely in size, a maximum total weight of the
+ * entries as computed by a {@link Weigher weigher} (e.g., {@link Weighers#estimatedBytes() their estimated size in
+ * bytes}). Each entry is weighed once, when cached, and just enough entries are evicted upon each write to get back
+ * under the bound.
+ * <p/>
+ * Entries can also {@link #setExpireAfterWrite(Duration) expire} some time after having been written or {@link
+ * #setExpireAfterAccess(Duration) last accessed}, in which case they are kept in a {@link TimerWheel timer wheel}
+ * (i.e., expired in amortized constant time, upon subsequent cache operations) and, being checked upon reads, are
+ * never returned past their deadline. Since {@code SoftCache} is not thread-safe, entries due for a {@link
+ * #setRefreshAfterWrite(Duration) refresh} are computed again in the calling thread; see {@link ConcurrentSoftCache}
+ * for truly asynchronous refreshes.
+ * <p/>
+ * Wrapping the whole backing structure in a single soft reference means that the garbage collector reclaims
+ * <em>all</em> cached data at once. When that is not desirable, a different {@link Retention retention} can be
+ * specified so that values are referenced (hence reclaimed) individually; reclaimed entries are then expunged, upon
+ * subsequent cache operations, through a {@link ReferenceQueue}. Either way, {@link #getReclaimedCount()} reports how
+ * many entries have been reclaimed by the garbage collector so far.
+ * <p/>
+ * Values can also be {@link #getAll(Collection, Function) loaded in bulk}, only the missing ones being loaded, and
+ * restored {@link #setWarmStart(CacheSnapshot) lazily} from a {@link SnapshotFile snapshot} of a previous run.
+ * Rather than {@link #clear() cleared} altogether, entries can be {@link #setTagger(Function) tagged} (e.g., with the
+ * name of the schema they belong to) and {@link #invalidateTag(String) invalidated by tag}.
+ * <p/>
+ * Every cache keeps {@link #getStats() statistics} (hits, misses, loads and their durations, evictions, etc.) which
+ * can also be published over JMX by {@link #registerMBean(String) registering} the cache. The durations of all loads,
+ * across caches, are also recorded in the {@code cache.load} {@link Metrics#histogram(String) latency histogram}.
  *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 2.2, May 22, 2019
+ * @version 3.12, Oct 18, 2026
  * @see <a href="https://www.ibm.com/developerworks/library/j-jtp01246/">Plugging memory leaks with soft references</a>
  * @see <a href="https://dzone.com/articles/weak-soft-and-phantom-references-in-java-and-why-they-matter">Weak, Soft,
  *     and Phantom References in Java (and Why They Matter)</a>
@@ -23,53 +62,311 @@ public class SoftCache<K, V> {
 
     protected static final int DEFAULT_MAX_SIZE = 1024;
 
-    protected int maxSize;
+    protected static final long NEVER = -1L;
+
+    private static final Duration MAX_DURATION = Duration.ofNanos(Long.MAX_VALUE >> 1);
+
+    private static final Histogram LOADS = Metrics.histogram("cache.load"); // => across all caches
+
+    protected volatile int maxSize;
+
+    protected volatile long maxWeight = Long.MAX_VALUE; // => unbounded unless the cache is bounded by weight
+
+    protected final Weigher<? super K, ? super V> weigher;
+
+    protected final Retention retention;
+
+    protected final EvictionPolicy.Factory policyFactory;
+
+    protected transient EvictionPolicy<K> policy; // => created along with the backing structure
+
+    /**
+     * Values are stored as such or, depending on the {@link #retention}, as {@link ValueReference}s to them.
+     */
+    protected transient SoftReference<Map<K, Object>> cacheRef; // => Retention.SOFT_CACHE
+
+    protected transient Map<K, Object> refCache; // => Retention.SOFT_VALUES or Retention.WEAK_VALUES
+
+    protected final transient ReferenceQueue<V> referenceQueue = new ReferenceQueue<>();
+
+    protected volatile long expireAfterWriteNanos = NEVER;
+
+    protected volatile long expireAfterAccessNanos = NEVER;
 
-    protected transient SoftReference<Map<K, V>> cacheRef;
+    protected volatile long refreshAfterWriteNanos = NEVER;
+
+    protected volatile LongSupplier ticker = System::nanoTime;
+
+    protected transient TimerWheel<K> timerWheel; // => created upon the first entry to expire
+
+    protected transient Map<K, Stamp<K>> stamps; // => only for entries written while expiry or refresh was enabled
+
+    protected int lastKnownSize;
+
+    protected final StatsCounter stats = new StatsCounter();
+
+    protected volatile CacheSnapshot<K, V> warmStart; // => consulted upon misses, until exhausted
+
+    /**
+     * The (backdated) write times of the values just {@link #restore(Object) restored}, until these get cached.
+     */
+    protected final transient Map<K, Long> restoredWriteTimes = new ConcurrentHashMap<>(4);
+
+    protected volatile Function<? super K, ? extends Collection<String>> tagger;
+
+    protected final TagIndex<K> tagIndex = new TagIndex<>();
 
     /**
      * Equivalent to calling <code>new SoftCache({@link #DEFAULT_MAX_SIZE})</code>.
      */
     public SoftCache() { this(DEFAULT_MAX_SIZE); }
 
-    public SoftCache(int maxSize) {
+    /**
+     * Equivalent to calling <code>new SoftCache(maxSize, {@link Retention#SOFT_CACHE})</code>.
+     */
+    public SoftCache(int maxSize) { this(maxSize, Retention.SOFT_CACHE); }
+
+    /**
+     * Equivalent to calling <code>new SoftCache(maxSize, retention, {@link EvictionPolicy#LRU})</code>.
+     */
+    public SoftCache(int maxSize, Retention retention) { this(maxSize, retention, EvictionPolicy.LRU); }
+
+    public SoftCache(int maxSize, Retention retention, EvictionPolicy.Factory policyFactory) {
         if (maxSize <= 0) {
             throw new IllegalArgumentException("Maximum cache size must be greater than 0");
         }
-        this.maxSize = maxSize;
-        this.cacheRef = new SoftReference<>(createBoundedCache());
+        this.maxSize = maxSize; // the backing structure is created lazily, upon first use
+        this.weigher = Weighers.singleton();
+        this.retention = requireNonNull(retention, "A cache requires a retention");
+        this.policyFactory = requireNonNull(policyFactory, "A cache requires an eviction policy");
+    }
+
+    /**
+     * Creates a cache bounded by the total weight of its entries rather than by their number.
+     *
+     * @param maxWeight the maximum total weight of the entries, as computed by the {@code weigher}
+     */
+    public SoftCache(long maxWeight, Weigher<? super K, ? super V> weigher, Retention retention,
+                     EvictionPolicy.Factory policyFactory) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Maximum cache weight must be greater than 0");
+        }
+        this.maxSize = Integer.MAX_VALUE;
+        this.maxWeight = maxWeight;
+        this.weigher = requireNonNull(weigher, "A cache bounded by weight requires a weigher");
+        this.retention = requireNonNull(retention, "A cache requires a retention");
+        this.policyFactory = requireNonNull(policyFactory, "A cache requires an eviction policy");
     }
 
     public V getOrCompute(K key, Function<? super K, ? extends V> computation) {
-        Map<K, V> cache = cacheRef == null ? null : cacheRef.get();
-        if (cache == null) {
-            cacheRef = new SoftReference<>(cache = createBoundedCache());
+        return getOrCompute(key, UnaryOperator.identity(), computation);
+    }
+
+    /**
+     * Similar to {@link #getOrCompute(Object, Function)} but looks the key up by means of a {@code probe}, i.e., an
+     * object equal to the key that is not cached itself, hence can be mutable and reused (e.g., a composite key
+     * holding the arguments of the current call) so that cache hits allocate nothing. Upon misses (and refreshes), the
+     * actual key to cache and to compute the value for is obtained by applying the {@code keyOf} function to the probe.
+     */
+    public V getOrCompute(K probe, UnaryOperator<K> keyOf, Function<? super K, ? extends V> computation) {
+        final Map<K, Object> cache = cache(true);
+        final long now = isTimed() ? ticker.getAsLong() : 0L;
+
+        V value = lookup(cache, probe, computation, now);
+        if (value != null) {
+            return value;
+        }
+
+        final K key = keyOf.apply(probe);
+        tag(key);
+        value = load(key, computation);
+        if (value != null) {
+            put(cache, key, value, now);
+        } else if (cache.remove(key) != null) {
+            forget(key);
+        }
+        lastKnownSize = cache.size();
+        return value;
+    }
+
+    /**
+     * Bulk version of {@link #getOrCompute(Object, Function)}: the values of all the given {@code keys} that are not
+     * cached yet are loaded at once, by a single call to the {@code bulkLoader} (e.g., a single database round trip),
+     * given an (unmodifiable) set of just the missing keys. Keys the loader returns no (or a {@code null}) value for
+     * are simply left out of the result, just like entries it returns for keys that have not been asked for are
+     * ignored; entries due for a refresh are refreshed one at a time, through the same loader.
+     *
+     * @return the (non-{@code null}) values of the given {@code keys}, in iteration order
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys,
+                            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        requireNonNull(keys, "Cannot get the values of a null collection of keys");
+        requireNonNull(bulkLoader, "Cannot load values with a null bulk loader");
+
+        final Map<K, Object> cache = cache(true);
+        final long now = isTimed() ? ticker.getAsLong() : 0L;
+        final Function<K, V> computation = computationOf(bulkLoader);
+
+        final Map<K, V> values = new LinkedHashMap<>();
+        final Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (!values.containsKey(key)) {
+                final V value = lookup(cache, key, computation, now);
+                values.put(key, value); // => a placeholder if missing, keeping the iteration order
+                if (value == null) {
+                    missing.add(key);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            missing.forEach(this::tag);
+            final Map<? extends K, ? extends V> loaded = loadAll(missing, bulkLoader);
+            for (K key : missing) {
+                final V value = loaded.get(key);
+                if (value != null) {
+                    put(cache, key, value, now);
+                    values.put(key, value);
+                } else if (cache.remove(key) != null) {
+                    forget(key);
+                }
+            }
+            lastKnownSize = cache.size();
         }
-        return cache.computeIfAbsent(key, computation);
+
+        values.values().removeIf(Objects::isNull);
+        return values;
+    }
+
+    /**
+     * Since {@code SoftCache} is not thread-safe, the default implementation runs the {@code computation} (if needed)
+     * in the calling thread and returns an already completed future; see {@link ConcurrentSoftCache} for a truly
+     * asynchronous variant.
+     *
+     * @return a {@link CompletableFuture future} completed with the cached or computed value or, if the {@code
+     *     computation} fails, completed exceptionally
+     */
+    public CompletableFuture<V> getOrComputeAsync(K key, Function<? super K, ? extends V> computation) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        try {
+            future.complete(getOrCompute(key, computation));
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+        }
+        return future;
     }
 
     public V get(K key) {
-        final Map<K, V> cache = cacheRef == null ? null : cacheRef.get();
-        return cache == null ? null : cache.get(key);
+        final Map<K, Object> cache = cache(false);
+        final V value = cache == null ? null : ValueReference.unwrap(cache.get(key));
+        if (value == null) {
+            stats.recordMiss();
+            return null;
+        }
+
+        final Stamp<K> stamp = stamps == null ? null : stamps.get(key);
+        if (stamp != null) {
+            final long now = ticker.getAsLong();
+            if (hasExpired(stamp.writeTime, stamp.accessTime, now)) {
+                stats.recordMiss();
+                return null;
+            }
+            touch(stamp, now);
+        }
+        stats.recordHit();
+        policy.onAccess(key);
+        return value;
     }
 
     public boolean contains(K key) {
-        final Map<K, V> cache = cacheRef == null ? null : cacheRef.get();
-        return cache != null && cache.containsKey(key);
+        final Map<K, Object> cache = cache(false);
+        if (cache == null || ValueReference.unwrap(cache.get(key)) == null) {
+            return false;
+        }
+        final Stamp<K> stamp = stamps == null ? null : stamps.get(key);
+        return stamp == null || !hasExpired(stamp.writeTime, stamp.accessTime, ticker.getAsLong());
     }
 
     public V remove(K key) {
-        final Map<K, V> cache = cacheRef == null ? null : cacheRef.get();
-        return cache == null ? null : cache.remove(key);
+        discardWarmStart(key);
+        final Map<K, Object> cache = cache(false);
+        if (cache == null) {
+            return null;
+        }
+
+        final Object stored = cache.remove(key);
+        if (stored == null) {
+            return null;
+        }
+        forget(key);
+        lastKnownSize = cache.size();
+        return ValueReference.unwrap(stored);
     }
 
-    public void clear() { cacheRef = null; }
+    /**
+     * Removes the entries {@link #setTagger(Function) tagged} with the given {@code tag}, in time proportional to their
+     * number (entries being computed at the same time are not cached).
+     *
+     * @return the number of entries removed
+     */
+    public int invalidateTag(String tag) {
+        final int removed = invalidate(tagIndex.remove(tag));
+        discardWarmStart(tags -> tags.contains(tag));
+        return removed;
+    }
+
+    /**
+     * Removes the entries {@link #setTagger(Function) tagged} with any tag starting with the given {@code prefix}
+     * (e.g., {@code "schema:sales/"} for entries tagged {@code "schema:sales/table:orders"}).
+     *
+     * @return the number of entries removed
+     */
+    public int invalidateTagPrefix(String prefix) {
+        final int removed = invalidate(tagIndex.removePrefix(prefix));
+        if (prefix != null) {
+            discardWarmStart(tags -> tags.stream().anyMatch(tag -> tag != null && tag.startsWith(prefix)));
+        }
+        return removed;
+    }
+
+    public void clear() {
+        warmStart = null; // => no longer restores what was cleared
+        tagIndex.clear();
+        cacheRef = null;
+        refCache = null;
+        lastKnownSize = 0;
+        if (policy != null) {
+            policy.clear();
+        }
+        clearStamps();
+    }
 
     public int size() {
-        final Map<K, V> cache = cacheRef == null ? null : cacheRef.get();
+        final Map<K, Object> cache = cache(false);
         return cache == null ? 0 : cache.size();
     }
 
+    /**
+     * Performs the given {@code action} for each cached entry that has neither expired nor been reclaimed, without
+     * recording any access (e.g., in order to {@link SnapshotFile#write(SoftCache) write a snapshot}).
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        requireNonNull(action, "Cannot perform a null action");
+        final Map<K, Object> cache = cache(false);
+        if (cache == null) {
+            return;
+        }
+
+        final long now = isTimed() ? ticker.getAsLong() : 0L;
+        for (Map.Entry<K, Object> entry : cache.entrySet()) {
+            final V value = ValueReference.unwrap(entry.getValue());
+            final Stamp<K> stamp = stamps == null ? null : stamps.get(entry.getKey());
+            if (value != null && (stamp == null || !hasExpired(stamp.writeTime, stamp.accessTime, now))) {
+                action.accept(entry.getKey(), value);
+            }
+        }
+    }
+
     public int getMaxSize() { return maxSize; }
 
     public void setMaxSize(int maxSize) {
@@ -77,23 +374,668 @@ public class SoftCache<K, V> {
             throw new IllegalArgumentException("Maximum cache size must be greater than 0");
         }
         this.maxSize = maxSize;
+        boundChanged();
+    }
+
+    /**
+     * @return the total weight of the cached entries (i.e., the same as {@link #size()} unless the cache is bounded by
+     *     weight)
+     */
+    public long getWeightedSize() {
+        final Map<K, Object> cache = cache(false);
+        return cache == null ? 0 : policy.weightedSize();
+    }
+
+    /**
+     * @return the maximum total weight of the cached entries or {@link Long#MAX_VALUE} if the cache is not bounded by
+     *     weight
+     */
+    public long getMaxWeight() { return maxWeight; }
+
+    public void setMaxWeight(long maxWeight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Maximum cache weight must be greater than 0");
+        }
+        this.maxWeight = maxWeight;
+        boundChanged();
+    }
+
+    public boolean isWeighted() { return maxWeight != Long.MAX_VALUE; }
+
+    public Duration getExpireAfterWrite() { return toDuration(expireAfterWriteNanos); }
+
+    /**
+     * @param expireAfterWrite how long entries are kept after having been computed (or refreshed); if {@code null},
+     *                         entries do not expire after a fixed time
+     */
+    public void setExpireAfterWrite(Duration expireAfterWrite) { expireAfterWriteNanos = toNanos(expireAfterWrite); }
+
+    public Duration getExpireAfterAccess() { return toDuration(expireAfterAccessNanos); }
+
+    /**
+     * @param expireAfterAccess how long entries are kept after having been last read or written; if {@code null},
+     *                          entries do not expire after a period of inactivity
+     */
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        expireAfterAccessNanos = toNanos(expireAfterAccess);
     }
 
-    public boolean isFull() { return size() == getMaxSize(); }
+    public Duration getRefreshAfterWrite() { return toDuration(refreshAfterWriteNanos); }
+
+    /**
+     * @param refreshAfterWrite how long after having been computed (or refreshed) entries are computed again, upon
+     *                          the next read; until then, and should the refresh fail, the current value keeps being
+     *                          served. If {@code null}, entries are not refreshed.
+     */
+    public void setRefreshAfterWrite(Duration refreshAfterWrite) {
+        refreshAfterWriteNanos = toNanos(refreshAfterWrite);
+    }
+
+    /**
+     * Changes the source of {@link System#nanoTime() nanosecond} time the cache measures expiry and refresh durations
+     * with (e.g., for testing); should be called before any entry is cached.
+     */
+    public void setTicker(LongSupplier ticker) { this.ticker = ticker == null ? System::nanoTime : ticker; }
+
+    public boolean isFull() { return size() >= getMaxSize() || getWeightedSize() >= getMaxWeight(); }
+
+    public Retention getRetention() { return retention; }
+
+    public EvictionPolicy.Factory getPolicyFactory() { return policyFactory; }
+
+    /**
+     * @return the number of entries reclaimed by the garbage collector (as opposed to evicted or removed) so far
+     */
+    public long getReclaimedCount() { return stats.reclaimedCount(); }
+
+    public Function<? super K, ? extends Collection<String>> getTagger() { return tagger; }
+
+    /**
+     * @param tagger tags each entry (based on its key, e.g., with the name of the schema or table it belongs to) when
+     *               cached, so that entries can later be {@link #invalidateTag(String) invalidated by tag}; entries
+     *               cached beforehand remain untagged
+     */
+    public void setTagger(Function<? super K, ? extends Collection<String>> tagger) { this.tagger = tagger; }
+
+    public CacheSnapshot<K, V> getWarmStart() { return warmStart; }
+
+    /**
+     * @param warmStart a {@link SnapshotFile#open() snapshot} of (previous) cache contents which missing entries are
+     *                  lazily taken from, before resorting to computing them; {@code null} to stop using it. Removing
+     *                  an entry (or invalidating its tags) also discards it from the snapshot while clearing the
+     *                  cache drops the snapshot altogether. If entries {@link #setExpireAfterWrite(Duration) expire}
+     *                  or are {@link #setRefreshAfterWrite(Duration) refreshed} after a fixed time, restored entries
+     *                  keep the (wall clock) time they had been written at in the previous run, hence are not
+     *                  restored once expired and expire (or are refreshed) as if they had never left the cache;
+     *                  entries whose write times are unknown (i.e., written while the previous cache was not timed)
+     *                  are not restored either.
+     */
+    public void setWarmStart(CacheSnapshot<K, V> warmStart) { this.warmStart = warmStart; }
+
+    /**
+     * @return a snapshot of the statistics accumulated since the cache has been created
+     */
+    public CacheStats getStats() { return stats.snapshot(); }
+
+    /**
+     * Publishes the cache's size and {@link #getStats() statistics} with the platform MBean server, under the {@code
+     * net.appfold.sqlrose.cache:type=<class simple name>,name=<name>} object name.
+     *
+     * @return the object name the cache has been registered under
+     * @throws IllegalStateException if the cache could not be registered (e.g., the name is already taken)
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            final ObjectName objectName = objectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new CacheStatsMBean(this), objectName);
+            return objectName;
+        } catch (JMException ex) {
+            throw new IllegalStateException("Cannot register cache MBean " + name, ex);
+        }
+    }
+
+    public void unregisterMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name));
+        } catch (InstanceNotFoundException ex) {
+            // already unregistered
+        } catch (JMException ex) {
+            throw new IllegalStateException("Cannot unregister cache MBean " + name, ex);
+        }
+    }
 
     /**
      * Override in order to change the implementation details of the actual storage structure. The default
-     * implementation returns a {@link LinkedHashMap} instance configured to represent a <em>LRU</em> cache.
+     * implementation returns a {@link HashMap} instance, the bound being enforced by the {@link EvictionPolicy
+     * replacement policy}.
      *
      * @return a new instance of the backing {@link Map structure} to hold data
      */
     protected Map<K, V> createBoundedCache() {
-        return new LinkedHashMap<K, V>(16 /* => not too many slots, initially */, .75f, true /* => LRU */) {
+        return new HashMap<>(16); // => not too many slots, initially
+    }
+
+    /**
+     * Depending on the {@link Retention retention}, the backing structure holds either the cached values themselves or
+     * {@link ValueReference references} to them; only this class and its subclasses ever read its values, unwrapping
+     * them as needed.
+     *
+     * @return a new instance of the {@link #createBoundedCache() backing structure}, viewed as holding any values
+     */
+    @SuppressWarnings("unchecked")
+    private Map<K, Object> createStorage() { return (Map<K, Object>) (Map<K, ?>) createBoundedCache(); }
+
+    protected EvictionPolicy<K> createPolicy() {
+        final EvictionPolicy<K> policy = policyFactory.create();
+        policy.setMaximum(policyMaximum());
+        return policy;
+    }
 
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-                return size() > getMaxSize(); // => LRU
+    /**
+     * @return the maximum the {@link EvictionPolicy policy} should size its internal structures after
+     */
+    protected long policyMaximum() { return isWeighted() ? getMaxWeight() : getMaxSize(); }
+
+    /**
+     * Called once the maximum size or weight has been changed.
+     */
+    protected void boundChanged() {
+        if (policy != null) {
+            policy.setMaximum(policyMaximum());
+            final Map<K, Object> cache = cache(false);
+            if (cache != null) {
+                evict(cache);
+                lastKnownSize = cache.size();
             }
+        }
+    }
+
+    /**
+     * @return the weight of the given entry, as computed by the {@link #weigher}
+     * @throws IllegalArgumentException if the weight is negative
+     */
+    protected int weigh(K key, V value) {
+        final int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight (" + weight + ") for cache key: " + key);
+        }
+        return weight;
+    }
+
+    /**
+     * Evicts the entries chosen by the {@link #policy}, one at a time, while the cache is over capacity.
+     */
+    protected void evict(Map<K, Object> cache) {
+        while (policy.size() > getMaxSize() || policy.weightedSize() > getMaxWeight()) {
+            final K victim = policy.evict();
+            final V value = ValueReference.unwrap(cache.remove(victim));
+            forgetStamp(victim);
+            if (value != null) {
+                evicted(victim, value);
+            }
+            stats.recordEviction();
+        }
+    }
+
+    /**
+     * Called right after an entry has been evicted to make room for others (but not when it expires, gets reclaimed
+     * or removed), e.g., in order to move it to a slower {@link TieredCache tier}; does nothing by default. {@link
+     * ConcurrentSoftCache}s call it while holding their eviction lock, so it should be quick.
+     */
+    protected void evicted(K key, V value) {}
+
+    /**
+     * Looks the given {@code probe} up, recording either a hit (and refreshing the entry if due) or a miss.
+     *
+     * @return the cached value or {@code null} if missing, expired or reclaimed
+     */
+    protected V lookup(Map<K, Object> cache, K probe, Function<? super K, ? extends V> computation, long now) {
+        final Object stored = cache.get(probe);
+        final V value = ValueReference.unwrap(stored);
+        if (value != null) {
+            final Stamp<K> stamp = stamps == null ? null : stamps.get(probe);
+            if (stamp == null || !hasExpired(stamp.writeTime, stamp.accessTime, now)) {
+                stats.recordHit();
+                policy.onAccess(probe);
+                if (stamp != null) {
+                    touch(stamp, now);
+                    if (isRefreshDue(stamp.writeTime, now)) {
+                        return refresh(cache, stamp.element, value, computation, now);
+                    }
+                }
+                return value;
+            }
+            stats.recordExpiration();
+        } else if (stored != null) { // => reclaimed but not expunged yet
+            stats.recordReclaimed(1);
+        }
+        stats.recordMiss();
+        return null;
+    }
+
+    /**
+     * Runs the {@code computation}, recording its outcome and duration.
+     */
+    protected V load(K key, Function<? super K, ? extends V> computation) {
+        final V restored = restore(key);
+        if (restored != null) {
+            return restored;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            final V value = computation.apply(key);
+            recordLoad(true, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            recordLoad(false, System.nanoTime() - start);
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs the {@code bulkLoader} for the given {@code keys} (except for those {@link #restore(Object) restored from
+     * a snapshot}), recording its outcome and duration as a single load.
+     *
+     * @return never {@code null}
+     */
+    protected Map<? extends K, ? extends V> loadAll(Set<K> keys,
+                                                    Function<? super Set<K>, ? extends Map<? extends K, ? extends V>>
+                                                        bulkLoader) {
+        final Map<K, V> restored = new HashMap<>();
+        if (warmStart != null) {
+            for (K key : keys) {
+                final V value = restore(key);
+                if (value != null) {
+                    restored.put(key, value);
+                }
+            }
+            if (restored.size() == keys.size()) {
+                return restored;
+            }
+            if (!restored.isEmpty()) {
+                keys = new LinkedHashSet<>(keys);
+                keys.removeAll(restored.keySet());
+            }
+        }
+
+        final long start = System.nanoTime();
+        try {
+            final Map<? extends K, ? extends V> values = bulkLoader.apply(Collections.unmodifiableSet(keys));
+            recordLoad(true, System.nanoTime() - start);
+            if (restored.isEmpty()) {
+                return values == null ? Collections.emptyMap() : values;
+            }
+            if (values != null) {
+                restored.putAll(values);
+            }
+            return restored;
+        } catch (RuntimeException | Error ex) {
+            recordLoad(false, System.nanoTime() - start);
+            throw ex;
+        }
+    }
+
+    private void recordLoad(boolean success, long nanos) {
+        if (success) {
+            stats.recordLoadSuccess(nanos);
+        } else {
+            stats.recordLoadFailure(nanos);
+        }
+        LOADS.record(nanos);
+    }
+
+    /**
+     * {@link TagIndex#add(Object, Collection) Indexes} the tags of the given {@code key}, if any; called right before
+     * computing (or loading) its value.
+     */
+    protected void tag(K key) {
+        final Function<? super K, ? extends Collection<String>> tagger = this.tagger;
+        if (tagger == null) {
+            return;
+        }
+        final Collection<String> tags = tagger.apply(key);
+        if (tags != null && !tags.isEmpty() && tagIndex.add(key, tags)) {
+            tagIndex.prune(this::isPresent);
+        }
+    }
+
+    /**
+     * @return whether an entry (even if expired, reclaimed or still being computed) exists for the given {@code key}
+     */
+    protected boolean isPresent(K key) {
+        final Map<K, Object> cache = retention == Retention.SOFT_CACHE ? cacheRef == null ? null : cacheRef.get() :
+                                     refCache;
+        return cache != null && cache.containsKey(key);
+    }
+
+    protected int invalidate(Collection<K> keys) {
+        int removed = 0;
+        for (K key : keys) {
+            if (remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Discards the entries of the {@link #setWarmStart(CacheSnapshot) warm start snapshot} (if any) whose tags match
+     * the given predicate since these are not indexed.
+     */
+    protected void discardWarmStart(Predicate<Collection<String>> tagsMatch) {
+        final CacheSnapshot<K, V> snapshot = warmStart;
+        final Function<? super K, ? extends Collection<String>> tagger = this.tagger;
+        if (snapshot != null && tagger != null) {
+            snapshot.discardIf(key -> {
+                final Collection<String> tags = tagger.apply(key);
+                return tags != null && tagsMatch.test(tags);
+            });
+        }
+    }
+
+    /**
+     * Discards the entry of the {@link #setWarmStart(CacheSnapshot) warm start snapshot} (if any) for the given {@code
+     * key}, so that it does not get restored once removed.
+     */
+    protected void discardWarmStart(K key) {
+        final CacheSnapshot<K, V> snapshot = warmStart;
+        if (snapshot != null) {
+            snapshot.discard(key);
+            if (snapshot.isExhausted()) {
+                warmStart = null;
+            }
+        }
+    }
+
+    /**
+     * @return the value {@link #setWarmStart(CacheSnapshot) restored from a snapshot} for the given {@code key}, if any
+     *     and unless expired in the meantime
+     */
+    protected V restore(K key) {
+        final CacheSnapshot<K, V> snapshot = warmStart;
+        if (snapshot == null) {
+            return null;
+        }
+        final boolean writeTimed = expireAfterWriteNanos != NEVER || refreshAfterWriteNanos != NEVER;
+        final long writeTime = writeTimed ? snapshot.writeTimeOf(key) : CacheSnapshot.UNKNOWN_WRITE_TIME;
+        final V value = snapshot.take(key);
+        if (snapshot.isExhausted()) {
+            warmStart = null; // => the snapshot (and the file mapped by it) can be garbage collected
+        }
+        if (value == null || !writeTimed) {
+            return value;
+        }
+
+        if (writeTime == CacheSnapshot.UNKNOWN_WRITE_TIME) {
+            return null; // => might be stale, compute it again
+        }
+        final long age = MILLISECONDS.toNanos(Math.max(0L, System.currentTimeMillis() - writeTime));
+        final long afterWrite = expireAfterWriteNanos;
+        if (afterWrite != NEVER && age >= afterWrite) {
+            return null;
+        }
+        restoredWriteTimes.put(key, ticker.getAsLong() - age);
+        return value;
+    }
+
+    /**
+     * @return the time (as measured by the {@link #setTicker(LongSupplier) ticker}) to stamp the value of the given
+     *     {@code key} with: {@code now} unless the value has just been {@link #restore(Object) restored}, in which case
+     *     the time it had been written at in the previous run
+     */
+    protected long writeTime(K key, long now) {
+        final Long restored = restoredWriteTimes.isEmpty() ? null : restoredWriteTimes.remove(key);
+        return restored == null ? now : restored;
+    }
+
+    /**
+     * @return the (wall clock) time in milliseconds the cached value of the given {@code key} has been written at
+     *     (e.g., in order to {@link SnapshotFile#write(SoftCache) write a snapshot}) or {@link
+     *     CacheSnapshot#UNKNOWN_WRITE_TIME} if not tracked (e.g., unless the cache is {@link #isTimed() timed})
+     */
+    protected long writeTimeOf(K key) {
+        final Stamp<K> stamp = stamps == null ? null : stamps.get(key);
+        return stamp == null ? CacheSnapshot.UNKNOWN_WRITE_TIME : toEpochMillis(stamp.writeTime);
+    }
+
+    /**
+     * @return the (wall clock) time in milliseconds corresponding to the given {@link #setTicker(LongSupplier) ticker}
+     *     time
+     */
+    protected long toEpochMillis(long time) {
+        return System.currentTimeMillis() - NANOSECONDS.toMillis(ticker.getAsLong() - time);
+    }
+
+    /**
+     * @return a computation loading a single key through the given {@code bulkLoader} (e.g., to refresh an entry)
+     */
+    protected static <K, V> Function<K, V> computationOf(
+        Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        return key -> {
+            final Map<? extends K, ? extends V> values = bulkLoader.apply(Collections.singleton(key));
+            return values == null ? null : values.get(key);
         };
     }
+
+    /**
+     * @return whether entries might expire or be refreshed, i.e., whether their write and access times matter
+     */
+    protected boolean isTimed() {
+        return expireAfterWriteNanos != NEVER || expireAfterAccessNanos != NEVER || refreshAfterWriteNanos != NEVER;
+    }
+
+    protected boolean hasExpired(long writeTime, long accessTime, long now) {
+        final long afterWrite = expireAfterWriteNanos, afterAccess = expireAfterAccessNanos;
+        return afterWrite != NEVER && now - writeTime >= afterWrite ||
+               afterAccess != NEVER && now - accessTime >= afterAccess;
+    }
+
+    protected boolean isRefreshDue(long writeTime, long now) {
+        final long afterWrite = refreshAfterWriteNanos;
+        return afterWrite != NEVER && now - writeTime >= afterWrite;
+    }
+
+    /**
+     * @return the time an entry written and accessed at the given times expires at or {@link #NEVER} if entries do not
+     *     expire
+     */
+    protected long expiresAt(long writeTime, long accessTime) {
+        final long afterWrite = expireAfterWriteNanos, afterAccess = expireAfterAccessNanos;
+        if (afterWrite == NEVER) {
+            return afterAccess == NEVER ? NEVER : accessTime + afterAccess;
+        }
+        return afterAccess == NEVER ? writeTime + afterWrite :
+               Math.min(writeTime + afterWrite, accessTime + afterAccess);
+    }
+
+    /**
+     * Caches the {@code value}, stamps it with the current time (if needed) and evicts entries if over capacity.
+     */
+    protected void put(Map<K, Object> cache, K key, V value, long now) {
+        final long writeTime = writeTime(key, now);
+        final int weight = weigh(key, value);
+        cache.put(key, ValueReference.wrap(retention, value, key, referenceQueue));
+        policy.onInsert(key, weight);
+
+        if (isTimed()) {
+            if (stamps == null) {
+                stamps = new HashMap<>();
+            }
+            final Stamp<K> stamp = stamps.computeIfAbsent(key, Stamp::new);
+            stamp.writeTime = writeTime;
+            touch(stamp, now);
+        } else {
+            forgetStamp(key);
+        }
+        evict(cache);
+    }
+
+    /**
+     * Computes the value of a cached entry again, keeping the current one should the computation fail.
+     */
+    protected V refresh(Map<K, Object> cache, K key, V current, Function<? super K, ? extends V> computation,
+                        long now) {
+        final V value;
+        try {
+            value = load(key, computation);
+        } catch (RuntimeException ex) {
+            return current;
+        }
+
+        if (value != null) {
+            put(cache, key, value, now);
+        } else if (cache.remove(key) != null) {
+            forget(key);
+        }
+        lastKnownSize = cache.size();
+        return value;
+    }
+
+    /**
+     * Records an access to a stamped entry and (re-)schedules its expiry, if any.
+     */
+    protected void touch(Stamp<K> stamp, long now) {
+        stamp.accessTime = now;
+        final long expiresAt = expiresAt(stamp.writeTime, now);
+        if (expiresAt == NEVER) {
+            if (timerWheel != null) {
+                timerWheel.cancel(stamp);
+            }
+            return;
+        }
+        if (timerWheel == null) {
+            timerWheel = new TimerWheel<>(now);
+        }
+        timerWheel.schedule(stamp, expiresAt);
+    }
+
+    /**
+     * Removes the entries whose timers are due; their deadlines are checked again since these might have been changed
+     * in the meantime.
+     */
+    protected void expire(Map<K, Object> cache) {
+        if (timerWheel == null) {
+            return;
+        }
+        final long now = ticker.getAsLong();
+        timerWheel.advance(now, timer -> {
+            final Stamp<K> stamp = (Stamp<K>) timer;
+            if (hasExpired(stamp.writeTime, stamp.accessTime, now)) {
+                cache.remove(stamp.element);
+                policy.onRemove(stamp.element);
+                stamps.remove(stamp.element);
+                stats.recordExpiration();
+            } else {
+                touch(stamp, stamp.accessTime);
+            }
+        });
+    }
+
+    /**
+     * Stops tracking a removed (or reclaimed) entry.
+     */
+    protected void forget(K key) {
+        policy.onRemove(key);
+        forgetStamp(key);
+    }
+
+    protected void forgetStamp(K key) {
+        final Stamp<K> stamp = stamps == null ? null : stamps.remove(key);
+        if (stamp != null && timerWheel != null) {
+            timerWheel.cancel(stamp);
+        }
+    }
+
+    protected void clearStamps() {
+        stamps = null;
+        if (timerWheel != null) {
+            timerWheel.clear();
+        }
+    }
+
+    /**
+     * @return the duration in nanoseconds, saturated so that adding it to a {@link System#nanoTime() time} does not
+     *     overflow, or {@link #NEVER} if {@code null}
+     */
+    protected static long toNanos(Duration duration) {
+        if (duration == null) {
+            return NEVER;
+        }
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must not be negative: " + duration);
+        }
+        return duration.compareTo(MAX_DURATION) > 0 ? MAX_DURATION.toNanos() : duration.toNanos();
+    }
+
+    protected static Duration toDuration(long nanos) { return nanos == NEVER ? null : Duration.ofNanos(nanos); }
+
+    private ObjectName objectName(String name) throws MalformedObjectNameException {
+        return new ObjectName(
+            "net.appfold.sqlrose.cache:type=" + getClass().getSimpleName() + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * @param create whether to (re-)create the backing structure if not available
+     * @return the backing structure, after expunging the entries reclaimed by the garbage collector, or {@code null}
+     *     if not available and {@code create} is {@code false}
+     */
+    protected Map<K, Object> cache(boolean create) {
+        if (retention != Retention.SOFT_CACHE) {
+            if (refCache == null && create) {
+                refCache = createStorage();
+                if (policy == null) {
+                    policy = createPolicy();
+                }
+            }
+            if (refCache != null) {
+                expungeReclaimed(refCache);
+                expire(refCache);
+            }
+            return refCache;
+        }
+
+        Map<K, Object> cache = cacheRef == null ? null : cacheRef.get();
+        if (cache == null) {
+            if (cacheRef != null) { // => reclaimed as a whole
+                stats.recordReclaimed(lastKnownSize);
+                cacheRef = null;
+                policy.clear();
+                clearStamps();
+            }
+            lastKnownSize = 0;
+            if (create) {
+                cacheRef = new SoftReference<>(cache = createStorage());
+                if (policy == null) {
+                    policy = createPolicy();
+                }
+            }
+        } else {
+            expire(cache);
+        }
+        return cache;
+    }
+
+    protected void expungeReclaimed(Map<K, Object> cache) {
+        for (Reference<? extends V> reference; (reference = referenceQueue.poll()) != null; ) {
+            @SuppressWarnings("unchecked") final K key = (K) ((ValueReference<?>) reference).owner();
+            if (cache.remove(key, reference)) {
+                forget(key);
+                stats.recordReclaimed(1);
+            }
+        }
+        lastKnownSize = cache.size();
+    }
+
+    /**
+     * Keeps track of when an entry has been last written and accessed, for entries that might expire or be refreshed.
+     */
+    protected static final class Stamp<K> extends TimerWheel.Timer<K> {
+
+        protected long writeTime;
+
+        protected long accessTime;
+
+        protected Stamp(K key) { super(key); }
+    }
 }
@@ -0,0 +1,77 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Accumulates the statistics of a cache; cheap enough to be always on, since the counters updated on the (hot) read
+ * path are striped {@link LongAdder}s while load times are recorded in a coarse, logarithmic histogram (loads being
+ * slow and rare enough not to contend). Use {@link #snapshot()} to read the statistics.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class StatsCounter {
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder loadSuccessCount = new LongAdder();
+
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder expirationCount = new LongAdder();
+
+    private final LongAdder reclaimedCount = new LongAdder();
+
+    private final AtomicLongArray loadTimes = new AtomicLongArray(CacheStats.HISTOGRAM_BUCKETS);
+
+    public void recordHit() { hitCount.increment(); }
+
+    public void recordMiss() { missCount.increment(); }
+
+    public void recordLoadSuccess(long loadTimeNanos) {
+        loadSuccessCount.increment();
+        recordLoadTime(loadTimeNanos);
+    }
+
+    public void recordLoadFailure(long loadTimeNanos) {
+        loadFailureCount.increment();
+        recordLoadTime(loadTimeNanos);
+    }
+
+    public void recordEviction() { evictionCount.increment(); }
+
+    public void recordExpiration() { expirationCount.increment(); }
+
+    /**
+     * @param count the number of entries reclaimed by the garbage collector
+     */
+    public void recordReclaimed(long count) { reclaimedCount.add(count); }
+
+    public long reclaimedCount() { return reclaimedCount.sum(); }
+
+    /**
+     * @return the statistics accumulated so far; since counters are updated concurrently, the snapshot is not
+     *     necessarily consistent across counters (e.g., a load might be counted before its miss)
+     */
+    public CacheStats snapshot() {
+        final long[] histogram = new long[loadTimes.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = loadTimes.get(i);
+        }
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(),
+                              totalLoadTime.sum(), evictionCount.sum(), expirationCount.sum(), reclaimedCount.sum(),
+                              histogram);
+    }
+
+    private void recordLoadTime(long loadTimeNanos) {
+        final long nanos = Math.max(0, loadTimeNanos);
+        totalLoadTime.add(nanos);
+        loadTimes.incrementAndGet(CacheStats.bucketOf(nanos));
+    }
+}
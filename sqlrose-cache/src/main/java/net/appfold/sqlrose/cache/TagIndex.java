@@ -0,0 +1,151 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Predicate;
+
+/**
+ * Maps tags to the keys of the cache entries tagged with them, so that entries can be invalidated by tag (or by tag
+ * prefix, tags being kept sorted) in time proportional to the number of entries tagged. Thread-safe.
+ * <p/>
+ * Keys are added <em>before</em> their values get computed and are not removed along with their entries (e.g., upon
+ * eviction) but {@link #prune(Predicate) pruned} in batches once the index has grown twice as large as needed;
+ * invalidating a tag might thus remove an entry re-cached in the meantime (under different tags), which is harmless.
+ * Adding keys never blocks and retries should their tag be removed concurrently, so that no key is ever lost.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+final class TagIndex<K> {
+
+    private static final int MIN_PRUNE_THRESHOLD = 1024;
+
+    /**
+     * Stands in for {@code null} keys, not supported by concurrent sets.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentSkipListMap<String, Set<Object>> index = new ConcurrentSkipListMap<>();
+
+    private final AtomicInteger size = new AtomicInteger(); // => (roughly) the number of tag-key pairs
+
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    private volatile int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    /**
+     * @return whether the index should be {@link #prune(Predicate) pruned}
+     */
+    boolean add(K key, Collection<String> tags) {
+        final Object maskedKey = mask(key);
+        for (String tag : tags) {
+            if (tag != null) {
+                add(tag, maskedKey);
+            }
+        }
+        return size.get() > pruneThreshold;
+    }
+
+    /**
+     * Retries should the set of keys be removed (i.e., invalidated or pruned) concurrently, not to add the key to a set
+     * that is no longer indexed.
+     */
+    private void add(String tag, Object maskedKey) {
+        for (; ; ) {
+            final Set<Object> keys = index.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet());
+            if (keys.add(maskedKey)) {
+                size.incrementAndGet();
+            }
+            if (index.get(tag) == keys) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the given {@code tag}.
+     *
+     * @return the keys tagged with it
+     */
+    Collection<K> remove(String tag) {
+        return tag == null ? Collections.emptySet() : unmask(Collections.singleton(index.remove(tag)));
+    }
+
+    /**
+     * Removes all tags starting with the given {@code prefix}.
+     *
+     * @return the keys tagged with any of them
+     */
+    Collection<K> removePrefix(String prefix) {
+        if (prefix == null) {
+            return Collections.emptySet();
+        }
+        final List<Set<Object>> removed = new ArrayList<>();
+        final Iterator<Set<Object>> tagged =
+            index.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values().iterator();
+        while (tagged.hasNext()) {
+            removed.add(tagged.next());
+            tagged.remove();
+        }
+        return unmask(removed);
+    }
+
+    /**
+     * Removes the keys of the entries that are no longer {@code present} (a key being re-checked after having been
+     * removed so that concurrently added keys are never lost); only one thread prunes at a time.
+     */
+    void prune(Predicate<? super K> present) {
+        if (!pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int remaining = 0;
+            for (Map.Entry<String, Set<Object>> tagged : index.entrySet()) {
+                final Set<Object> keys = tagged.getValue();
+                for (Object maskedKey : keys) {
+                    @SuppressWarnings("unchecked") final K key = (K) (maskedKey == NULL_KEY ? null : maskedKey);
+                    if (present.test(key)) {
+                        remaining++;
+                    } else if (keys.remove(maskedKey)) {
+                        size.decrementAndGet();
+                        if (present.test(key) && keys.add(maskedKey)) { // => added back concurrently
+                            size.incrementAndGet();
+                            remaining++;
+                        }
+                    }
+                }
+                if (keys.isEmpty() && index.remove(tagged.getKey(), keys)) {
+                    size.addAndGet(-keys.size());
+                    for (Object maskedKey : keys) { // => added concurrently, before the removal
+                        add(tagged.getKey(), maskedKey);
+                    }
+                }
+            }
+            pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, 2 * remaining);
+        } finally {
+            pruning.set(false);
+        }
+    }
+
+    void clear() {
+        index.clear();
+        size.set(0);
+    }
+
+    private Collection<K> unmask(Collection<Set<Object>> tagged) {
+        final Set<K> keys = new HashSet<>();
+        for (Set<Object> maskedKeys : tagged) {
+            if (maskedKeys != null) {
+                size.addAndGet(-maskedKeys.size());
+                for (Object maskedKey : maskedKeys) {
+                    @SuppressWarnings("unchecked") final K key = (K) (maskedKey == NULL_KEY ? null : maskedKey);
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static Object mask(Object key) { return key == null ? NULL_KEY : key; }
+}
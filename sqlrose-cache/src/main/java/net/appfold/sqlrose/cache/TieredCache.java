@@ -0,0 +1,138 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ConcurrentSoftCache} keeping its hot entries on heap, as usual, while the entries it evicts are demoted to
+ * a slower, {@link OffHeapStore off-heap} tier (which is bounded by a fixed memory budget and evicts on its own) rather
+ * than dropped. Entries missing on heap are looked up off-heap first and, if found, promoted back (i.e., decoded and
+ * moved on heap) instead of being computed again. Large values (e.g., result pages, DDL text) can thus stay cached
+ * without lengthening garbage collection pauses nor being all reclaimed at once when memory gets tight.
+ * <p/>
+ * Demotions happen while holding the eviction lock, hence {@link Codec codecs} should be reasonably fast. Entries of
+ * caches whose entries {@link #setExpireAfterWrite expire} or {@link #setRefreshAfterWrite get refreshed} are not
+ * demoted since the off-heap tier keeps no timestamps. Promotions are not counted as loads in the {@link #getStats()
+ * statistics} (only as misses); see the off-heap store for its own counters.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.2, Oct 18, 2026
+ */
+public class TieredCache<K, V> extends ConcurrentSoftCache<K, V> {
+
+    protected final OffHeapStore<K, V> offHeap;
+
+    /**
+     * @param maxSize       the maximum number of entries to keep on heap
+     * @param offHeapBudget the maximum number of bytes to allocate off-heap
+     */
+    public TieredCache(int maxSize, long offHeapBudget, Codec<V> codec) {
+        this(maxSize, Retention.SOFT_CACHE, EvictionPolicy.LRU, new OffHeapStore<>(offHeapBudget, codec));
+    }
+
+    public TieredCache(int maxSize, Retention retention, EvictionPolicy.Factory policyFactory,
+                       OffHeapStore<K, V> offHeap) {
+        super(maxSize, retention, policyFactory);
+        this.offHeap = requireNonNull(offHeap, "A tiered cache requires an off-heap store");
+    }
+
+    /**
+     * Never promotes entries (but returns their value if stored off-heap).
+     */
+    @Override
+    public V get(K key) {
+        final V value = super.get(key);
+        return value != null ? value : offHeap.get(key);
+    }
+
+    @Override
+    public boolean contains(K key) { return super.contains(key) || offHeap.contains(key); }
+
+    /**
+     * Holds the eviction lock throughout, so that an entry being evicted meanwhile cannot get demoted once removed
+     * (hence promoted back later on); {@link #invalidateTag(String) invalidating tags} removes entries likewise.
+     */
+    @Override
+    public V remove(K key) {
+        evictionLock.lock();
+        try {
+            final V value = super.remove(key), demoted = offHeap.remove(key);
+            return value != null ? value : demoted;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            super.clear();
+            offHeap.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public OffHeapStore<K, V> getOffHeap() { return offHeap; }
+
+    /**
+     * Demoted entries keep their tags.
+     */
+    @Override
+    protected boolean isPresent(K key) { return super.isPresent(key) || offHeap.contains(key); }
+
+    /**
+     * Promotes the entry stored off-heap for the given {@code key}, if any, rather than running the {@code
+     * computation}.
+     */
+    @Override
+    protected V load(K key, Function<? super K, ? extends V> computation) {
+        final V promoted = promote(key);
+        return promoted != null ? promoted : super.load(key, computation);
+    }
+
+    /**
+     * Promotes the entries stored off-heap for the given {@code keys}, if any, and only loads the others.
+     */
+    @Override
+    protected Map<? extends K, ? extends V> loadAll(Set<K> keys,
+                                                    Function<? super Set<K>, ? extends Map<? extends K, ? extends V>>
+                                                        bulkLoader) {
+        final Map<K, V> values = new HashMap<>();
+        final Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            final V promoted = promote(key);
+            if (promoted != null) {
+                values.put(key, promoted);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            values.putAll(super.loadAll(missing, bulkLoader));
+        }
+        return values;
+    }
+
+    @Override
+    protected void evicted(K key, V value) {
+        if (!isTimed()) {
+            try {
+                offHeap.put(key, value);
+            } catch (RuntimeException ex) {
+                // cannot encode the value, simply drop it
+            }
+        }
+    }
+
+    protected V promote(K key) {
+        try {
+            return offHeap.remove(key);
+        } catch (RuntimeException ex) { // => cannot decode the value, compute it again
+            return null;
+        }
+    }
+}
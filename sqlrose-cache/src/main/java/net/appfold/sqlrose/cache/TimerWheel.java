@@ -0,0 +1,154 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * A minimal, intrusive, <a href="http://www.cs.columbia.edu/~nahum/w6998/papers/sosp87-timing-wheels.pdf">hierarchical
+ * timer wheel</a> used by caches to expire entries in amortized {@code O(1)} time (rather than by scanning them):
+ * each {@link Timer timer} is linked into a bucket of the coarsest wheel whose span covers its deadline and cascades
+ * down to finer wheels as time {@link #advance(long, Consumer) advances}. Deadlines are expressed in nanoseconds, as
+ * returned by {@link System#nanoTime()}, and timers fire with a resolution of roughly one second; owners should
+ * therefore double check deadlines upon reads. Not thread-safe, the owning cache being responsible for serializing
+ * calls.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ * @see <a href="https://github.com/ben-manes/caffeine/wiki/Design#expiration">Caffeine's expiration design</a>
+ */
+final class TimerWheel<E> {
+
+    /**
+     * Roughly, 1.07 seconds, 1.14 minutes, 1.22 hours, 1.63 days and 6.5 days per bucket.
+     */
+    private static final int[] SHIFTS = {30, 36, 42, 47, 49};
+
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+
+    private final Timer<E>[][] wheels;
+
+    private long nanos; // => the time the wheel has last been advanced to
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long now) {
+        nanos = now;
+        wheels = new Timer[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheels[i] = new Timer[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                wheels[i][j] = Timer.sentinel();
+            }
+        }
+    }
+
+    /**
+     * (Re-)schedules the {@code timer} to fire at the given time.
+     */
+    void schedule(Timer<E> timer, long time) {
+        unlink(timer);
+        timer.time = time;
+        link(timer);
+    }
+
+    void cancel(Timer<E> timer) { unlink(timer); }
+
+    /**
+     * Advances the wheel to the given time, unlinking the timers that are due and handing them over to the {@code
+     * expired} consumer, which may {@link #schedule(Timer, long) schedule} them again (e.g., if their deadline has
+     * been pushed back in the meantime).
+     */
+    void advance(long now, Consumer<? super Timer<E>> expired) {
+        final long previous = nanos;
+        nanos = now;
+        for (int i = 0; i < SHIFTS.length; i++) {
+            final long previousTicks = previous >>> SHIFTS[i];
+            final long currentTicks = now >>> SHIFTS[i];
+            if (currentTicks - previousTicks <= 0) {
+                break; // => coarser wheels could not have ticked either
+            }
+            expire(i, previousTicks, currentTicks - previousTicks, expired);
+        }
+    }
+
+    void clear() {
+        for (Timer<E>[] buckets : wheels) {
+            for (Timer<E> sentinel : buckets) {
+                for (Timer<E> timer = sentinel.next; timer != null && timer != sentinel; ) {
+                    final Timer<E> next = timer.next;
+                    timer.prev = timer.next = null;
+                    timer = next;
+                }
+                sentinel.prev = sentinel.next = sentinel;
+            }
+        }
+    }
+
+    private void expire(int wheel, long previousTicks, long delta, Consumer<? super Timer<E>> expired) {
+        final Timer<E>[] buckets = wheels[wheel];
+        final int mask = buckets.length - 1;
+        final int steps = (int) Math.min(delta + 1, buckets.length);
+        for (int i = 0; i < steps; i++) {
+            final Timer<E> sentinel = buckets[(int) ((previousTicks + i) & mask)];
+            Timer<E> timer = sentinel.next;
+            sentinel.prev = sentinel.next = sentinel; // => detached, so that the consumer may reschedule timers safely
+
+            while (timer != sentinel) {
+                final Timer<E> next = timer.next;
+                timer.prev = timer.next = null;
+                if (timer.time - nanos <= 0) {
+                    expired.accept(timer);
+                } else {
+                    link(timer); // => cascades down to a finer wheel (or stays, if not due yet)
+                }
+                timer = next;
+            }
+        }
+    }
+
+    private void link(Timer<E> timer) {
+        final long duration = timer.time - nanos;
+        int wheel = 0;
+        while (wheel < SHIFTS.length - 1 && duration >= 1L << SHIFTS[wheel + 1]) {
+            wheel++;
+        }
+        final Timer<E>[] buckets = wheels[wheel];
+        final Timer<E> sentinel = buckets[(int) ((timer.time >>> SHIFTS[wheel]) & (buckets.length - 1))];
+
+        timer.next = sentinel;
+        timer.prev = sentinel.prev;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    private static <E> void unlink(Timer<E> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+            timer.next.prev = timer.prev;
+            timer.prev = timer.next = null;
+        }
+    }
+
+    /**
+     * Owners may extend timers in order to keep track of their own bookkeeping (e.g., last write and access times).
+     */
+    static class Timer<E> {
+
+        final E element;
+
+        long time;
+
+        Timer<E> prev;
+
+        Timer<E> next;
+
+        Timer(E element) { this.element = element; }
+
+        boolean isScheduled() { return prev != null; }
+
+        private static <E> Timer<E> sentinel() {
+            final Timer<E> sentinel = new Timer<>(null);
+            sentinel.prev = sentinel.next = sentinel;
+            return sentinel;
+        }
+    }
+}
+
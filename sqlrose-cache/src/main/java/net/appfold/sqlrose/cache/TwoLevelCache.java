@@ -0,0 +1,158 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.*;
+
+/**
+ * A {@link ConcurrentSoftCache} (the shared, second level or <em>L2</em>) fronted by a small, per-thread, first level
+ * cache (<em>L1</em>) so that looking up very hot keys (e.g., the message formats of the most used messages) involves
+ * no shared, mutable state at all: no reads get recorded (hence no cross-core cache line traffic) and the only shared
+ * field read is an invalidation <em>epoch</em>, which changes too rarely to contend.
+ * <p/>
+ * Each L1 is a direct-mapped table (i.e., a key simply replaces whatever entry its hash maps to) filled upon L2 hits
+ * and loads, and tagged with the epoch it was filled at. Upon L1 misses, the actual key is obtained from the probe
+ * (hence allocated) right away, so that computations reusing the same probe (e.g., nested memoized calls) cannot
+ * change the key the value gets filed under. {@link #remove(Object) Removing} entries (hence {@link
+ * #invalidateTag(String) invalidating tags} as well) and {@link #clear() clearing} the cache advance the epoch, which
+ * discards every L1 in {@code O(1)}, lazily, upon its next lookup. Entries evicted from L2 can still be served by L1s
+ * for a while since they are not invalidated, only no longer cached.
+ * <p/>
+ * L1s are bypassed altogether while entries {@link #setExpireAfterWrite expire} or {@link #setRefreshAfterWrite get
+ * refreshed} (they keep no timestamps) and hold their values strongly, whatever the {@link Retention retention}; keep
+ * them small. L1 hits are counted as hits in the {@link #getStats() statistics}.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+public class TwoLevelCache<K, V> extends ConcurrentSoftCache<K, V> {
+
+    public static final int DEFAULT_L1_SIZE = 32;
+
+    protected final AtomicLong epoch = new AtomicLong();
+
+    protected final ThreadLocal<L1<K, V>> l1;
+
+    public TwoLevelCache() { this(DEFAULT_MAX_SIZE); }
+
+    public TwoLevelCache(int maxSize) { this(maxSize, DEFAULT_L1_SIZE); }
+
+    /**
+     * @param l1Size the number of entries each thread keeps (rounded up to a power of 2)
+     */
+    public TwoLevelCache(int maxSize, int l1Size) { this(maxSize, Retention.SOFT_CACHE, EvictionPolicy.LRU, l1Size); }
+
+    public TwoLevelCache(int maxSize, Retention retention, EvictionPolicy.Factory policyFactory, int l1Size) {
+        super(maxSize, retention, policyFactory);
+        if (l1Size <= 0) {
+            throw new IllegalArgumentException("L1 cache size must be greater than 0");
+        }
+        final int length = Integer.highestOneBit(Math.min(l1Size, 1 << 16) * 2 - 1);
+        l1 = ThreadLocal.withInitial(() -> new L1<>(length));
+    }
+
+    @Override
+    public V getOrCompute(K probe, UnaryOperator<K> keyOf, Function<? super K, ? extends V> computation) {
+        if (isTimed()) {
+            return super.getOrCompute(probe, keyOf, computation);
+        }
+
+        final long current = epoch.get(); // => read before L2, so that entries invalidated meanwhile are not kept
+        final L1<K, V> local = l1.get();
+        final int hash = spread(probe);
+        final V cached = local.get(probe, hash, current);
+        if (cached != null) {
+            stats.recordHit();
+            return cached;
+        }
+
+        final K key = keyOf.apply(probe); // => before computing, which might reuse (i.e., mutate) the probe
+        final V value = super.getOrCompute(key, UnaryOperator.identity(), computation);
+        if (value != null) {
+            local.put(key, hash, value, current);
+        }
+        return value;
+    }
+
+    /**
+     * Consults the L1 of the calling thread first but never fills it.
+     */
+    @Override
+    public V get(K key) {
+        if (!isTimed()) {
+            final V cached = l1.get().get(key, spread(key), epoch.get());
+            if (cached != null) {
+                stats.recordHit();
+                return cached;
+            }
+        }
+        return super.get(key);
+    }
+
+    @Override
+    public V remove(K key) {
+        final V removed = super.remove(key);
+        epoch.incrementAndGet(); // => even if nothing got removed (e.g., the value was still being computed)
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * @return the number of times the L1s have been invalidated so far
+     */
+    public long getEpoch() { return epoch.get(); }
+
+    private static int spread(Object key) {
+        final int h = Objects.hashCode(key);
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Only ever accessed by its owner thread.
+     */
+    protected static final class L1<K, V> {
+
+        private final Object[] keys;
+
+        private final Object[] values; // => null for empty slots
+
+        private final int mask;
+
+        private long epoch;
+
+        private L1(int length) {
+            keys = new Object[length];
+            values = new Object[length];
+            mask = length - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V get(Object probe, int hash, long current) {
+            if (epoch != current) {
+                return null; // => stale, cleared upon the next put
+            }
+            final int i = hash & mask;
+            final Object value = values[i];
+            return value != null && Objects.equals(keys[i], probe) ? (V) value : null;
+        }
+
+        private void put(K key, int hash, V value, long current) {
+            if (epoch != current) {
+                if (current - epoch < 0) {
+                    return; // => read before an invalidation this thread has already seen
+                }
+                Arrays.fill(keys, null);
+                Arrays.fill(values, null);
+                epoch = current;
+            }
+            final int i = hash & mask;
+            keys[i] = key;
+            values[i] = value;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package net.appfold.sqlrose.cache;
+
+import java.lang.ref.*;
+
+/**
+ * A {@link Reference reference} to a cached value that also remembers its <em>owner</em> (i.e., the key or the entry
+ * it has been cached under) so that, once the value is reclaimed and the reference is polled from a {@link
+ * ReferenceQueue}, the corresponding entry can be removed as well.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+interface ValueReference<V> {
+
+    V get();
+
+    Object owner();
+
+    /**
+     * @return either the {@code value} itself if the {@code retention} requires no per-value reference or a {@link
+     *     ValueReference} to it, registered with the given {@code queue}
+     */
+    static <V> Object wrap(Retention retention, V value, Object owner, ReferenceQueue<? super V> queue) {
+        switch (retention) {
+        case SOFT_VALUES:
+            return new Soft<>(value, owner, queue);
+        case WEAK_VALUES:
+            return new Weak<>(value, owner, queue);
+        default:
+            return value;
+        }
+    }
+
+    /**
+     * @return the value held by {@code stored}, be it the value itself or a {@link ValueReference} to it; {@code null}
+     *     if already reclaimed
+     */
+    @SuppressWarnings("unchecked")
+    static <V> V unwrap(Object stored) {
+        return stored instanceof ValueReference ? ((ValueReference<V>) stored).get() : (V) stored;
+    }
+
+    final class Soft<V> extends SoftReference<V> implements ValueReference<V> {
+
+        private final Object owner;
+
+        Soft(V value, Object owner, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.owner = owner;
+        }
+
+        @Override
+        public Object owner() { return owner; }
+    }
+
+    final class Weak<V> extends WeakReference<V> implements ValueReference<V> {
+
+        private final Object owner;
+
+        Weak(V value, Object owner, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.owner = owner;
+        }
+
+        @Override
+        public Object owner() { return owner; }
+    }
+}
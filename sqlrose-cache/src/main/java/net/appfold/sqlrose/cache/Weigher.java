@@ -0,0 +1,19 @@
+package net.appfold.sqlrose.cache;
+
+/**
+ * Computes the <em>weight</em> of a cache entry (e.g., its estimated size in bytes) so that a cache can be bounded by
+ * the total weight of its entries rather than by their number; see {@link Weighers} for a few built-in estimators.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Called once, when the entry is cached; the weight is not recomputed afterwards.
+     *
+     * @return the weight of the entry, never negative
+     */
+    int weigh(K key, V value);
+}
@@ -0,0 +1,147 @@
+package net.appfold.sqlrose.cache;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Built-in {@link Weigher weighers} and <em>rough</em> heap size estimators for commonly cached values (strings,
+ * arrays, collections of those, etc.), assuming a 64-bit JVM with compressed object pointers. The estimates are meant
+ * to keep a byte budget <em>in the right ballpark</em> cheaply; use a profiler or <a
+ * href="https://openjdk.java.net/projects/code-tools/jol/">JOL</a> when precision matters.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class Weighers {
+
+    public static final int OBJECT_HEADER = 12;
+
+    public static final int ARRAY_HEADER = 16;
+
+    public static final int REFERENCE = 4;
+
+    /**
+     * Roughly, the footprint of a cache entry (map node, policy node, etc.) regardless of its key and value.
+     */
+    public static final int ENTRY_OVERHEAD = 64;
+
+    private static final int MAX_DEPTH = 4; // => how deep to estimate nested arrays / collections (and avoid cycles)
+
+    private static final Weigher<Object, Object> SINGLETON = (key, value) -> 1;
+
+    private Weighers() {}
+
+    /**
+     * @return a weigher that weighs every entry as {@code 1}, i.e., bounds a cache by its number of entries
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> Weigher<K, V> singleton() { return (Weigher<K, V>) SINGLETON; }
+
+    /**
+     * @return a weigher that {@link #estimate(Object) estimates} the size in bytes of an entry, key and value included
+     */
+    public static <K, V> Weigher<K, V> estimatedBytes() {
+        return (key, value) -> saturatedCast(ENTRY_OVERHEAD + estimate(key) + estimate(value));
+    }
+
+    /**
+     * @return the estimated size in bytes of a {@link String} (or of any other character sequence, as if it were a
+     *     string) with the given number of characters
+     */
+    public static long sizeOf(CharSequence chars) {
+        return chars == null ? 0 : align(OBJECT_HEADER + REFERENCE + 4 /* hash */) + sizeOfArray(chars.length(), 2);
+    }
+
+    /**
+     * @return the estimated (shallow) size in bytes of an array, i.e., not including the objects it refers to
+     */
+    public static long sizeOfArray(Object array) {
+        if (array == null) {
+            return 0;
+        }
+        final Class<?> componentType = array.getClass().getComponentType();
+        if (componentType == null) {
+            throw new IllegalArgumentException("Not an array: " + array.getClass().getName());
+        }
+        return sizeOfArray(Array.getLength(array), elementSize(componentType));
+    }
+
+    /**
+     * @return the estimated (deep, up to a few levels) size in bytes of the given object if a string, an array, a
+     *     boxed primitive, a collection or a map (of such objects); any other object is weighed as an empty one
+     */
+    public static long estimate(Object object) { return estimate(object, 0); }
+
+    private static long estimate(Object object, int depth) {
+        if (object == null) {
+            return 0;
+        }
+        if (object instanceof CharSequence) {
+            return sizeOf((CharSequence) object);
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+            return align(OBJECT_HEADER + 8);
+        }
+
+        final Class<?> type = object.getClass();
+        if (type.isArray()) {
+            long size = sizeOfArray(object);
+            if (!type.getComponentType().isPrimitive() && depth < MAX_DEPTH) {
+                for (Object element : (Object[]) object) {
+                    size += estimate(element, depth + 1);
+                }
+            }
+            return size;
+        }
+
+        if (object instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) object;
+            long size = align(OBJECT_HEADER + 4 * REFERENCE) + sizeOfArray(collection.size(), REFERENCE);
+            if (!(object instanceof RandomAccess)) {
+                size += (long) collection.size() * align(OBJECT_HEADER + 3 * REFERENCE); // => linked / hashed nodes
+            }
+            if (depth < MAX_DEPTH) {
+                for (Object element : collection) {
+                    size += estimate(element, depth + 1);
+                }
+            }
+            return size;
+        }
+
+        if (object instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) object;
+            long size = align(OBJECT_HEADER + 6 * REFERENCE) + sizeOfArray(map.size(), REFERENCE) +
+                        (long) map.size() * align(OBJECT_HEADER + 4 * REFERENCE);
+            if (depth < MAX_DEPTH) {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    size += estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+                }
+            }
+            return size;
+        }
+
+        return align(OBJECT_HEADER);
+    }
+
+    private static long sizeOfArray(long length, int elementSize) { return align(ARRAY_HEADER + length * elementSize); }
+
+    private static int elementSize(Class<?> componentType) {
+        if (componentType == long.class || componentType == double.class) {
+            return 8;
+        }
+        if (componentType == int.class || componentType == float.class) {
+            return 4;
+        }
+        if (componentType == char.class || componentType == short.class) {
+            return 2;
+        }
+        if (componentType == byte.class || componentType == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+
+    private static long align(long size) { return (size + 7) & ~7L; }
+
+    private static int saturatedCast(long weight) { return (int) Math.min(weight, Integer.MAX_VALUE); }
+}
@@ -0,0 +1,166 @@
+package net.appfold.sqlrose.cache;
+
+import java.util.*;
+
+/**
+ * The <a href="https://arxiv.org/abs/1512.00727">W-TinyLFU</a> {@link EvictionPolicy replacement policy}: new elements
+ * enter a small <em>window</em> (1% of the maximum size) managed as LRU; elements leaving the window become candidates
+ * for the <em>main</em> space (a segmented LRU, 80% of which is the <em>protected</em> segment, the rest being the
+ * <em>probation</em> segment) and are admitted only if a {@link FrequencySketch frequency sketch} estimates they are
+ * accessed more often than the main space's victim. As such, scans and one-hit wonders mostly churn the window and
+ * leave frequently accessed elements in place.
+ * <p/>
+ * When the owning cache is bounded by weight, the segments are sized by weight as well and a candidate is admitted
+ * into the main space without a duel as long as its weight fits in there.
+ * <p/>
+ * Unlike <a href="https://github.com/ben-manes/caffeine">Caffeine</a>, the window is not adaptively resized.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 17, 2026
+ * @see <a href="https://highscalability.com/design-of-a-modern-cache/">Design Of A Modern Cache</a>
+ */
+public final class WindowTinyLfuPolicy<E> implements EvictionPolicy<E> {
+
+    private static final byte WINDOW = 0;
+
+    private static final byte PROBATION = 1;
+
+    private static final byte PROTECTED = 2;
+
+    private final Map<E, PolicyDeque.Node<E>> nodes = new HashMap<>();
+
+    private final PolicyDeque<E> window = new PolicyDeque<>();
+
+    private final PolicyDeque<E> probation = new PolicyDeque<>();
+
+    private final PolicyDeque<E> protectedDeque = new PolicyDeque<>();
+
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    private long maxWindow = 1;
+
+    private long maxMain;
+
+    private long maxProtected;
+
+    @Override
+    public void setMaximum(long maximum) {
+        maxWindow = Math.max(1, maximum / 100);
+        maxMain = Math.max(0, maximum - maxWindow);
+        maxProtected = maxMain * 8 / 10;
+    }
+
+    @Override
+    public void onInsert(E element, int weight) {
+        final PolicyDeque.Node<E> node = nodes.get(element);
+        if (node != null) {
+            deque(node).remove(node);
+            node.weight = weight;
+            deque(node).addLast(node);
+            onAccess(node);
+            return;
+        }
+
+        if (nodes.size() >= sketch.capacity()) {
+            sketch.ensureCapacity(nodes.size() + 1L);
+        }
+        sketch.increment(element);
+        final PolicyDeque.Node<E> added = new PolicyDeque.Node<>(element);
+        added.queue = WINDOW;
+        added.weight = weight;
+        nodes.put(element, added);
+        window.addLast(added);
+    }
+
+    @Override
+    public void onAccess(E element) {
+        final PolicyDeque.Node<E> node = nodes.get(element);
+        if (node != null) {
+            onAccess(node);
+        }
+    }
+
+    @Override
+    public void onRemove(E element) {
+        final PolicyDeque.Node<E> node = nodes.remove(element);
+        if (node != null) {
+            deque(node).remove(node);
+        }
+    }
+
+    @Override
+    public E evict() {
+        while (window.weight() > maxWindow) {
+            final PolicyDeque.Node<E> candidate = window.pollFirst();
+            final PolicyDeque.Node<E> victim = probation.isEmpty() ? protectedDeque.peekFirst() : probation.peekFirst();
+
+            if (victim == null || mainWeight() + candidate.weight <= maxMain) { // => room in the main space
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                continue;
+            }
+
+            if (sketch.frequency(candidate.element) > sketch.frequency(victim.element)) { // => admit the candidate
+                deque(victim).remove(victim);
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                return forget(victim);
+            }
+            return forget(candidate);
+        }
+
+        PolicyDeque.Node<E> victim = probation.peekFirst();
+        if (victim == null && (victim = protectedDeque.peekFirst()) == null && (victim = window.peekFirst()) == null) {
+            return null;
+        }
+        deque(victim).remove(victim);
+        return forget(victim);
+    }
+
+    @Override
+    public int size() { return nodes.size(); }
+
+    @Override
+    public long weightedSize() { return window.weight() + mainWeight(); }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+        window.clear();
+        probation.clear();
+        protectedDeque.clear();
+        sketch.clear();
+    }
+
+    private void onAccess(PolicyDeque.Node<E> node) {
+        sketch.increment(node.element);
+        switch (node.queue) {
+        case WINDOW:
+            window.moveToLast(node);
+            break;
+        case PROBATION: // => promote
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedDeque.addLast(node);
+            while (protectedDeque.weight() > maxProtected) { // => demote the least recently used protected elements
+                final PolicyDeque.Node<E> demoted = protectedDeque.pollFirst();
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+            break;
+        default:
+            protectedDeque.moveToLast(node);
+        }
+    }
+
+    private long mainWeight() { return probation.weight() + protectedDeque.weight(); }
+
+    private PolicyDeque<E> deque(PolicyDeque.Node<E> node) {
+        return node.queue == WINDOW ? window : node.queue == PROBATION ? probation : protectedDeque;
+    }
+
+    private E forget(PolicyDeque.Node<E> node) {
+        nodes.remove(node.element);
+        return node.element;
+    }
+}
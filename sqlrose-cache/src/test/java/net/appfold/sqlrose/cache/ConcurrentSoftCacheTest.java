@@ -0,0 +1,358 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.7, Oct 18, 2026
+ */
+class ConcurrentSoftCacheTest extends SoftCacheTest {
+
+    @Override
+    protected <K, V> SoftCache<K, V> newCache(int maxSize, Retention retention) {
+        return new ConcurrentSoftCache<>(maxSize, retention);
+    }
+
+    @Override
+    protected <K, V> SoftCache<K, V> newCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+        return new ConcurrentSoftCache<>(maxWeight, weigher, Retention.SOFT_VALUES, EvictionPolicy.LRU);
+    }
+
+    @Override
+    protected void clearSoftReference(SoftCache<?, ?> cache) { ((ConcurrentSoftCache<?, ?>) cache).storeRef.clear(); }
+
+    @Test
+    @Override
+    public void createBoundedCache_Overridden_ShouldBackCacheWhateverTheRetention() {
+        for (Retention retention : Retention.values()) {
+            final List<Map<String, String>> created = new ArrayList<>();
+            final SoftCache<String, String> cache = new ConcurrentSoftCache<String, String>(10, retention) {
+
+                @Override
+                protected Map<String, String> createBoundedCache() {
+                    final Map<String, String> map = new ConcurrentSkipListMap<>();
+                    created.add(map);
+                    return map;
+                }
+            };
+
+            assertEquals("res-a", cache.getOrCompute("a", key -> "res-" + key));
+            assertEquals("res-a", cache.get("a"), retention + " cache should hit its own storage");
+            assertEquals("res-b", cache.getOrCompute("b", key -> "res-" + key));
+            assertEquals(1, created.size(), retention + " cache should be backed by the overriding structure");
+            assertEquals(Arrays.asList("a", "b"), new ArrayList<>(created.get(0).keySet()),
+                         retention + " cache should honour the overriding structure's characteristics");
+        }
+    }
+
+    @Test
+    public void createBoundedCache_NonConcurrentMapGiven_ShouldFail() {
+        final SoftCache<String, String> cache = new ConcurrentSoftCache<String, String>(10) {
+
+            @Override
+            protected Map<String, String> createBoundedCache() { return new TreeMap<>(); }
+        };
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrCompute("a", key -> "res-" + key),
+                     "Cache should not be backed by a structure that cannot be read without locking");
+    }
+
+    @Test
+    public void get_KeyReadBeforeNewKeyGivenWhenFull_ShouldRemoveOtherEntry() {
+        when(computation.apply(anyString())).then(invocation -> "res-" + invocation.getArgument(0));
+
+        cacheUnderTest.getOrCompute("a", computation);
+        cacheUnderTest.getOrCompute("b", computation);
+        cacheUnderTest.get("a"); // => "b" becomes the least recently used entry
+        cacheUnderTest.getOrCompute("c", computation);
+
+        assertTrue(cacheUnderTest.contains("a"), "Cache should contain the recently read key");
+        assertFalse(cacheUnderTest.contains("b"), "Cache should NOT contain the least recently used key");
+        assertTrue(cacheUnderTest.contains("c"), "Cache should contain last key given");
+    }
+
+    @Test
+    public void getOrCompute_NullKeyGiven_ShouldComputeAndStoreValue() {
+        when(computation.apply(null)).thenReturn("res");
+
+        assertEquals("res", cacheUnderTest.getOrCompute(null, computation), "Cache should compute null keys");
+        assertTrue(cacheUnderTest.contains(null), "Cache should contain the null key");
+        assertEquals("res", cacheUnderTest.remove(null), "Cache should remove the null key");
+        assertEquals(0, cacheUnderTest.size(), "Cache should store 0 entries");
+    }
+
+    @Test
+    public void getOrCompute_ManyThreads_ShouldRemainBoundedAndConsistent() throws Exception {
+        final int threads = 8, keys = 64, rounds = 20_000, bound = 16;
+        final ConcurrentSoftCache<Integer, String> cache = new ConcurrentSoftCache<>(bound);
+        final AtomicInteger computations = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    final Random random = new Random(seed);
+                    for (int i = 0; i < rounds; i++) {
+                        final int key = random.nextInt(keys);
+                        final String value = cache.getOrCompute(key, k -> {
+                            computations.incrementAndGet();
+                            return "v" + k;
+                        });
+                        assertEquals("v" + key, value, "Cache should return the value computed for the given key");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(bound, cache.size(), "Cache should be full");
+        assertTrue(computations.get() < threads * rounds, "Cache should have been hit at least once");
+    }
+
+    @Test
+    public void getOrCompute_SameKeyGivenConcurrently_ShouldComputeOnlyOnce() throws Exception {
+        final ConcurrentSoftCache<String, String> cache = new ConcurrentSoftCache<>(setUpBound);
+        final CountDownLatch computing = new CountDownLatch(1), release = new CountDownLatch(1);
+        final AtomicInteger computations = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(() -> cache.getOrCompute("key", k -> {
+                computations.incrementAndGet();
+                computing.countDown();
+                await(release);
+                return "res";
+            }));
+            computing.await();
+
+            final Future<String> second = executor.submit(() -> cache.getOrCompute("key", k -> {
+                computations.incrementAndGet();
+                return "other";
+            }));
+            assertEquals("res-other", cache.getOrCompute("other", k -> "res-" + k),
+                         "Computing other keys should not be blocked by an in-flight computation");
+            assertNull(cache.get("key"), "get() should not wait for an in-flight computation");
+
+            release.countDown();
+            assertEquals("res", first.get(5, TimeUnit.SECONDS), "First caller should get the computed value");
+            assertEquals("res", second.get(5, TimeUnit.SECONDS), "Second caller should share the computed value");
+            assertEquals(1, computations.get(), "getOrCompute() should invoke the computation only once");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getOrCompute_SameKeysGivenUnderContention_ShouldComputeEachKeyOnce() throws Exception {
+        final int threads = 8, keys = 1_000;
+        final ConcurrentSoftCache<Integer, String> cache =
+            new ConcurrentSoftCache<Integer, String>(keys, Retention.SOFT_VALUES) {
+
+                @Override
+                protected String read(Store<Integer, String> store, Node<Integer, String> node,
+                                      Function<? super Integer, ? extends String> computation) {
+                    final String value = super.read(store, node, computation);
+                    final CompletableFuture<String> future = node.future;
+                    if (value == null && future != null) { // => as if descheduled until the value gets published
+                        future.handle((result, failure) -> result).join();
+                    }
+                    return value;
+                }
+            };
+        final AtomicIntegerArray computations = new AtomicIntegerArray(keys);
+        final Function<Integer, String> computation = key -> {
+            computations.incrementAndGet(key);
+            return "v" + key;
+        };
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int api = t % 3;
+                futures.add(executor.submit(() -> {
+                    for (int key = 0; key < keys; key++) {
+                        barrier.await(10, TimeUnit.SECONDS); // => all threads ask for the same key at once
+                        final String value = api == 0 ? cache.getOrCompute(key, computation) :
+                                             api == 1 ? cache.getOrComputeAsync(key, computation).join() :
+                                             cache.getAll(Collections.singleton(key), missing -> {
+                                                 final Map<Integer, String> loaded = new HashMap<>();
+                                                 missing.forEach(k -> loaded.put(k, computation.apply(k)));
+                                                 return loaded;
+                                             }).get(key);
+                        assertEquals("v" + key, value);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int key = 0; key < keys; key++) {
+            assertEquals(1, computations.get(key), "Key " + key + " should be computed only once");
+        }
+        assertEquals(0, cache.getReclaimedCount(), "Values just computed should not be counted as reclaimed");
+    }
+
+    @Test
+    public void getOrCompute_ComputationFails_ShouldPropagateAndNotCache() {
+        final IllegalStateException failure = new IllegalStateException("failure");
+        when(computation.apply("arg")).thenThrow(failure).thenReturn("res");
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                                         () -> cacheUnderTest.getOrCompute("arg", computation)));
+        assertFalse(cacheUnderTest.contains("arg"), "Cache should NOT contain a failed computation");
+        assertEquals("res", cacheUnderTest.getOrCompute("arg", computation), "Cache should compute again");
+    }
+
+    @Test
+    public void getOrCompute_RecursiveComputationOfSameKey_ShouldFail() {
+        final SoftCache<String, String> cache = cacheUnderTest;
+        assertThrows(IllegalStateException.class,
+                     () -> cache.getOrCompute("arg", k -> cache.getOrCompute(k, computation)));
+        assertEquals(0, cache.size(), "Cache should store 0 entries");
+    }
+
+    @Test
+    public void getAll_KeysBeingComputedConcurrently_ShouldShareInFlightLoads() throws Exception {
+        final ConcurrentSoftCache<String, String> cache = new ConcurrentSoftCache<>(10);
+        final CountDownLatch computing = new CountDownLatch(1), release = new CountDownLatch(1);
+        final List<Set<String>> loads = new CopyOnWriteArrayList<>();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(() -> cache.getOrCompute("a", k -> {
+                computing.countDown();
+                await(release);
+                return "res-a";
+            }));
+            computing.await();
+
+            final Function<Set<String>, Map<String, String>> bulkLoader = keys -> {
+                loads.add(new HashSet<>(keys));
+                final Map<String, String> loaded = new HashMap<>();
+                keys.forEach(key -> loaded.put(key, "res-" + key));
+                return loaded;
+            };
+            final Future<Map<String, String>> second =
+                executor.submit(() -> cache.getAll(Arrays.asList("a", "b"), bulkLoader));
+            while (!cache.contains("b")) {
+                Thread.yield(); // => "b" gets loaded before waiting for "a"
+            }
+
+            release.countDown();
+            assertEquals("res-a", first.get(5, TimeUnit.SECONDS));
+            final Map<String, String> values = second.get(5, TimeUnit.SECONDS);
+            assertEquals("res-a", values.get("a"), "getAll() should share the in-flight computation");
+            assertEquals("res-b", values.get("b"), "getAll() should load missing keys");
+            assertEquals(Collections.singletonList(Collections.singleton("b")), loads,
+                         "getAll() should only load keys not being computed already");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void invalidateTag_WhileComputing_ShouldNotCacheComputedValue() throws Exception {
+        final ConcurrentSoftCache<String, String> cache = new ConcurrentSoftCache<>(setUpBound);
+        final CountDownLatch computing = new CountDownLatch(1), release = new CountDownLatch(1);
+        cache.setTagger(key -> Collections.singleton("tag"));
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<String> stale = executor.submit(() -> cache.getOrCompute("key", k -> {
+                computing.countDown();
+                await(release);
+                return "stale";
+            }));
+            computing.await();
+
+            cache.invalidateTag("tag"); // => e.g., the data the value is being computed from has just changed
+            release.countDown();
+
+            assertEquals("stale", stale.get(5, TimeUnit.SECONDS), "Callers should get the value computed for them");
+            assertFalse(cache.contains("key"), "Cache should NOT keep a value computed before invalidation");
+            assertEquals("fresh", cache.getOrCompute("key", k -> "fresh"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getOrComputeAsync_NewKeyGiven_ShouldComputeOnExecutor() throws Exception {
+        final ConcurrentSoftCache<String, String> cache = new ConcurrentSoftCache<>(setUpBound);
+        final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "loader"));
+        cache.setExecutor(executor);
+        try {
+            final CompletableFuture<String> future =
+                cache.getOrComputeAsync("key", k -> Thread.currentThread().getName());
+
+            assertEquals("loader", future.get(5, TimeUnit.SECONDS), "Computation should run on the executor");
+            assertEquals("loader", cache.get("key"), "Cache should store computed value");
+            assertTrue(cache.getOrComputeAsync("key", computation).isDone(), "Cache hits should complete at once");
+            verify(computation, never().description("Cache hits should not compute")).apply(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getOrCompute_RefreshDue_ShouldServeCurrentValueWhileRefreshing() throws Exception {
+        final AtomicLong nanos = new AtomicLong();
+        final ConcurrentSoftCache<String, String> cache = new ConcurrentSoftCache<>(setUpBound);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger computations = new AtomicInteger();
+        cache.setTicker(nanos::get);
+        cache.setExecutor(executor);
+        cache.setRefreshAfterWrite(Duration.ofMinutes(1));
+        try {
+            final Function<String, String> refreshing = key -> {
+                if (computations.getAndIncrement() > 0) {
+                    await(release);
+                }
+                return "res-" + computations.get();
+            };
+            assertEquals("res-1", cache.getOrCompute("key", refreshing));
+
+            nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+            assertEquals("res-1", cache.getOrCompute("key", refreshing), "Cache should serve the current value");
+            assertEquals("res-1", cache.getOrCompute("key", refreshing), "Cache should NOT wait for the refresh");
+
+            release.countDown();
+            executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+            assertEquals("res-2", cache.getOrCompute("key", refreshing), "Cache should serve the refreshed value");
+            assertEquals(2, computations.get(), "Cache should refresh an entry only once at a time");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+class LongKeyedCacheTest {
+
+    @Test
+    public void getOrCompute_SameKeyGivenTwice_ShouldComputeOnce() {
+        final AtomicInteger computations = new AtomicInteger();
+        final LongKeyedCache<String> cache = new LongKeyedCache<>(16);
+
+        final LongFunction<String> computation = key -> {
+            computations.incrementAndGet();
+            return "v" + key;
+        };
+
+        assertEquals("v42", cache.getOrCompute(42L, computation));
+        assertEquals("v42", cache.getOrCompute(42L, computation));
+        assertEquals(1, computations.get(), "Cache should compute a key only once");
+
+        final CacheStats stats = cache.getStats();
+        assertEquals(1, stats.hitCount(), "Cache should count hits");
+        assertEquals(1, stats.missCount(), "Cache should count misses");
+    }
+
+    @Test
+    public void getOrCompute_ManyKeysGiven_ShouldRemainBoundedAndFindRemainingKeys() {
+        final int maxSize = 100;
+        final LongKeyedCache<Long> cache = new LongKeyedCache<>(maxSize);
+        for (long key = 0; key < 10_000; key++) {
+            assertEquals(Long.valueOf(key * 3), cache.getOrCompute(key, k -> k * 3));
+            assertTrue(cache.size() <= maxSize, "Cache should never store more than its maximum size");
+        }
+        assertEquals(maxSize, cache.size(), "Cache should be full");
+
+        // Eviction shifts entries back within their probe runs; remaining ones should still be found:
+        int found = 0;
+        for (long key = 0; key < 10_000; key++) {
+            if (cache.getOrCompute(key, k -> null) != null) { // => null values are not cached
+                found++;
+            }
+        }
+        assertEquals(maxSize, found, "Cache should find every key it stores");
+    }
+
+    @Test
+    public void getOrCompute_KeyReadBeforeEviction_ShouldGetSecondChance() {
+        final LongKeyedCache<String> cache = new LongKeyedCache<>(2);
+        cache.getOrCompute(1L, key -> "a");
+        cache.getOrCompute(2L, key -> "b");
+        cache.getOrCompute(1L, key -> "other"); // => 1 is referenced, hence 2 gets evicted first
+        cache.getOrCompute(3L, key -> "c");
+
+        assertEquals("a", cache.getOrCompute(1L, key -> "other"), "Cache should keep the recently read key");
+        assertEquals("other", cache.getOrCompute(2L, key -> "other"), "Cache should evict the unreferenced key");
+    }
+
+    @Test
+    public void setMaxSize_SmallerSizeGiven_ShouldShrink() {
+        final LongKeyedCache<String> cache = new LongKeyedCache<>(10);
+        for (long key = 0; key < 10; key++) {
+            cache.getOrCompute(key, Long::toString);
+        }
+        cache.setMaxSize(3);
+        assertEquals(3, cache.size(), "Cache should shrink down to its new maximum size");
+        assertThrows(IllegalArgumentException.class, () -> cache.setMaxSize(0));
+    }
+
+    @Test
+    public void getOrCompute_ManyThreads_ShouldRemainBoundedAndConsistent() throws Exception {
+        final int threads = 8, rounds = 50_000, maxSize = 2048;
+        final LongKeyedCache<String> cache = new LongKeyedCache<>(maxSize);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    final Random random = new Random(seed);
+                    for (int i = 0; i < rounds; i++) {
+                        final long key = random.nextInt(4096) - 2048L << 20;
+                        assertEquals(Long.toString(key), cache.getOrCompute(key, Long::toString),
+                                     "Cache should return the value computed for the given key");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= maxSize, "Cache should remain bounded");
+    }
+
+    @Test
+    public void memoizedIntBiFn_ArgumentsGiven_ShouldNotMixThemUp() {
+        final AtomicInteger computations = new AtomicInteger();
+        final MemoizedIntBiFn<String> fn = MemoizedIntBiFn.memoize((t, u) -> {
+            computations.incrementAndGet();
+            return t + ":" + u;
+        });
+
+        assertEquals("1:-1", fn.apply(1, -1));
+        assertEquals("-1:1", fn.apply(-1, 1));
+        assertEquals("1:-1", fn.apply(1, -1));
+        assertEquals(2, computations.get(), "Memoized function should compute each pair of arguments only once");
+    }
+}
@@ -0,0 +1,77 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+class OffHeapStoreTest {
+
+    private static final int BLOCK_SIZE = 16;
+
+    private OffHeapStore<String, String> storeUnderTest;
+
+    @BeforeEach
+    public void setUp() { storeUnderTest = new OffHeapStore<>(8 * BLOCK_SIZE, BLOCK_SIZE, Codecs.utf8()); }
+
+    @Test
+    public void put_ValuesSpanningSeveralBlocksGiven_ShouldStoreThemAsIs() {
+        final String empty = "", small = "small", large = repeat('x', 3 * BLOCK_SIZE + 1);
+
+        assertTrue(storeUnderTest.put("empty", empty));
+        assertTrue(storeUnderTest.put("small", small));
+        assertTrue(storeUnderTest.put("large", large));
+
+        assertEquals(empty, storeUnderTest.get("empty"));
+        assertEquals(small, storeUnderTest.get("small"));
+        assertEquals(large, storeUnderTest.get("large"));
+        assertEquals(5 * BLOCK_SIZE, storeUnderTest.getUsedBytes(), "Store should only use the blocks needed");
+    }
+
+    @Test
+    public void put_OverBudget_ShouldEvictLeastRecentlyUsedValues() {
+        final String value = repeat('v', 2 * BLOCK_SIZE);
+        storeUnderTest.put("a", value);
+        storeUnderTest.put("b", value);
+        storeUnderTest.put("c", value);
+        storeUnderTest.put("d", value);
+        storeUnderTest.get("a"); // => "b" becomes the least recently used value
+
+        storeUnderTest.put("e", value);
+
+        assertTrue(storeUnderTest.contains("a"), "Store should keep the recently read key");
+        assertFalse(storeUnderTest.contains("b"), "Store should evict the least recently used key");
+        assertEquals(4, storeUnderTest.size(), "Store should reuse the freed blocks");
+        assertEquals(1, storeUnderTest.getEvictionCount(), "Store should count evictions");
+        assertEquals(storeUnderTest.getBudget(), storeUnderTest.getUsedBytes(), "Store should be full");
+    }
+
+    @Test
+    public void put_ValueLargerThanBudget_ShouldRejectIt() {
+        storeUnderTest.put("a", "a");
+        assertFalse(storeUnderTest.put("huge", repeat('h', 8 * BLOCK_SIZE + 1)), "Store should reject huge values");
+        assertNull(storeUnderTest.get("huge"));
+        assertEquals("a", storeUnderTest.get("a"), "Store should not evict values for nothing");
+    }
+
+    @Test
+    public void remove_StoredKeyGiven_ShouldReturnValueAndFreeBlocks() {
+        storeUnderTest.put("a", repeat('a', BLOCK_SIZE + 1));
+        storeUnderTest.put("a", "replaced");
+
+        assertEquals("replaced", storeUnderTest.remove("a"));
+        assertNull(storeUnderTest.remove("a"));
+        assertEquals(0, storeUnderTest.getUsedBytes(), "Store should free the blocks of removed values");
+    }
+
+    private static String repeat(char c, int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,198 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Function;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.2, Oct 18, 2026
+ */
+class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private final Function<String, String> computation = key -> {
+        computations.incrementAndGet();
+        return "res-" + key;
+    };
+
+    @Test
+    public void warmUp_SnapshotWritten_ShouldRestoreEntriesLazily() throws IOException {
+        final SnapshotFile<String, String> snapshot = snapshot(1);
+        final ConcurrentSoftCache<String, String> cache = new ConcurrentSoftCache<>(10);
+        cache.getOrCompute("a", computation);
+        cache.getOrCompute("b", computation);
+        cache.getOrCompute(null, computation); // => null keys are not written
+        assertEquals(2, snapshot.write(cache), "Snapshot should hold all non-null keys");
+
+        final ConcurrentSoftCache<String, String> restarted = new ConcurrentSoftCache<>(10);
+        assertTrue(snapshot.warmUp(restarted), "Cache should be warm-started");
+        assertEquals(2, restarted.getWarmStart().size());
+
+        computations.set(0);
+        assertEquals("res-a", restarted.getOrCompute("a", computation));
+        assertEquals("res-c", restarted.getOrCompute("c", computation));
+        assertEquals(1, computations.get(), "Cache should restore entries rather than compute them");
+        assertEquals(1, restarted.getWarmStart().size(), "Snapshot should give each entry away only once");
+
+        assertEquals("res-b", restarted.getOrCompute("b", computation));
+        assertNull(restarted.getWarmStart(), "Cache should let go of exhausted snapshots");
+    }
+
+    @Test
+    public void remove_KeyInWarmStartGiven_ShouldNotRestoreIt() throws IOException {
+        for (SoftCache<String, String> restarted : warmStarted()) {
+            computations.set(0);
+            assertNull(restarted.remove("a"), "Key should not be cached yet, only restorable");
+            assertEquals("res-a", restarted.getOrCompute("a", computation));
+            assertEquals(1, computations.get(), "Removed key should be computed rather than restored");
+            assertEquals(1, restarted.getWarmStart().size(), "Snapshot should keep the other keys");
+        }
+    }
+
+    @Test
+    public void clear_WarmStartedCacheGiven_ShouldDropSnapshot() throws IOException {
+        for (SoftCache<String, String> restarted : warmStarted()) {
+            computations.set(0);
+            restarted.getOrCompute("a", computation);
+            restarted.clear();
+
+            assertNull(restarted.getWarmStart(), "Cleared cache should let go of its snapshot");
+            restarted.getOrCompute("a", computation);
+            restarted.getOrCompute("b", computation);
+            assertEquals(2, computations.get(), "Cleared keys should be computed rather than restored");
+        }
+    }
+
+    @Test
+    public void warmUp_TimedCacheGiven_ShouldRestoreEntriesAsWrittenInThePreviousRun() throws IOException {
+        final AtomicLong ticker = new AtomicLong();
+        final SoftCache<String, String> cache = new SoftCache<>(10);
+        cache.setTicker(ticker::get);
+        cache.setExpireAfterWrite(Duration.ofSeconds(60));
+        cache.getOrCompute("a", computation);
+        ticker.addAndGet(SECONDS.toNanos(30));
+        cache.getOrCompute("b", computation);
+        ticker.addAndGet(SECONDS.toNanos(10)); // => "a" written 40 seconds ago, "b" 10 seconds ago
+        final SnapshotFile<String, String> snapshot = snapshot(1);
+        snapshot.write(cache);
+
+        for (SoftCache<String, String> restarted : Arrays.asList(new SoftCache<String, String>(10),
+                                                                 new ConcurrentSoftCache<String, String>(10))) {
+            ticker.set(0);
+            restarted.setTicker(ticker::get);
+            restarted.setExpireAfterWrite(Duration.ofSeconds(60));
+            assertTrue(snapshot.warmUp(restarted), "Cache should be warm-started");
+
+            computations.set(0);
+            restarted.getOrCompute("a", computation);
+            restarted.getOrCompute("b", computation);
+            assertEquals(0, computations.get(), "Cache should restore entries that have not expired yet");
+
+            ticker.addAndGet(SECONDS.toNanos(25));
+            assertNull(restarted.get("a"), "Restored entries should expire as if written in the previous run");
+            assertEquals("res-b", restarted.get("b"), "Restored entries should not expire before their time");
+
+            ticker.set(0);
+            restarted.clear();
+            restarted.setExpireAfterWrite(Duration.ofSeconds(30));
+            assertTrue(snapshot.warmUp(restarted), "Cache should be warm-started");
+            restarted.getOrCompute("a", computation);
+            restarted.getOrCompute("b", computation);
+            assertEquals(1, computations.get(), "Cache should not restore entries that have expired meanwhile");
+        }
+    }
+
+    @Test
+    public void warmUp_SnapshotOfUntimedCacheGiven_ShouldNotRestoreIntoTimedCache() throws IOException {
+        final SoftCache<String, String> cache = new SoftCache<>(10);
+        cache.getOrCompute("a", computation);
+        final SnapshotFile<String, String> snapshot = snapshot(1);
+        snapshot.write(cache);
+
+        final SoftCache<String, String> restarted = new ConcurrentSoftCache<>(10);
+        restarted.setRefreshAfterWrite(Duration.ofMinutes(1));
+        assertTrue(snapshot.warmUp(restarted), "Cache should be warm-started");
+        computations.set(0);
+        restarted.getOrCompute("a", computation);
+        assertEquals(1, computations.get(), "Entries of unknown age should be computed rather than restored");
+    }
+
+    @Test
+    public void warmUp_DifferentVersionOrMissingFile_ShouldStartCold() throws IOException {
+        final SoftCache<String, String> cache = new SoftCache<>(10);
+        assertFalse(snapshot(1).warmUp(cache), "Missing snapshots should be ignored");
+
+        cache.getOrCompute("a", computation);
+        snapshot(1).write(cache);
+
+        assertThrows(IOException.class, () -> snapshot(2).open(), "Snapshots of other versions should be rejected");
+        assertFalse(snapshot(2).warmUp(cache));
+        assertNull(cache.getWarmStart());
+    }
+
+    @Test
+    public void open_CorruptedFile_ShouldRejectHeaderAndSkipValues() throws IOException {
+        final SoftCache<String, String> cache = new SoftCache<>(10);
+        cache.getOrCompute("a", computation);
+        final SnapshotFile<String, String> snapshot = snapshot(1);
+        snapshot.write(cache);
+
+        final long size = Files.size(snapshot.getFile());
+        corrupt(snapshot.getFile(), size - 1); // => the last byte of the only value
+        final CacheSnapshot<String, String> opened = snapshot.open();
+        assertTrue(opened.contains("a"));
+        assertNull(opened.take("a"), "Corrupted values should be skipped");
+
+        corrupt(snapshot.getFile(), 8); // => the version, guarded by the header checksum
+        assertThrows(IOException.class, snapshot::open, "Corrupted headers should be rejected");
+
+        try (FileChannel channel = FileChannel.open(snapshot.getFile(), WRITE)) {
+            channel.truncate(size - 1);
+        }
+        assertThrows(IOException.class, snapshot::open, "Truncated snapshots should be rejected");
+    }
+
+    /**
+     * @return a {@link SoftCache} and a {@link ConcurrentSoftCache}, both warm-started with keys "a" and "b"
+     */
+    private List<SoftCache<String, String>> warmStarted() throws IOException {
+        final SoftCache<String, String> cache = new SoftCache<>(10);
+        cache.getOrCompute("a", computation);
+        cache.getOrCompute("b", computation);
+        final SnapshotFile<String, String> snapshot = snapshot(1);
+        snapshot.write(cache);
+
+        final List<SoftCache<String, String>> restarted =
+            Arrays.asList(new SoftCache<>(10), new ConcurrentSoftCache<>(10));
+        for (SoftCache<String, String> each : restarted) {
+            assertTrue(snapshot.warmUp(each), "Cache should be warm-started");
+        }
+        return restarted;
+    }
+
+    private SnapshotFile<String, String> snapshot(long version) {
+        return new SnapshotFile<>(directory.resolve("cache.snapshot"), version, Codecs.utf8(), Codecs.utf8());
+    }
+
+    private static void corrupt(Path file, long position) throws IOException {
+        final byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) position] ^= 0x5A;
+        Files.write(file, bytes);
+    }
+}
@@ -2,6 +2,12 @@ package net.appfold.sqlrose.cache;
 
 import org.junit.jupiter.api.*;
 
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -9,7 +15,7 @@ import static org.mockito.Mockito.*;
 
 /**
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.1, May 21, 2019
+ * @version 1.9, Oct 18, 2026
  */
 class SoftCacheTest {
 
@@ -22,10 +28,24 @@ class SoftCacheTest {
     @BeforeEach
     @SuppressWarnings("unchecked")
     public void setUp() {
-        cacheUnderTest = new SoftCache<>(setUpBound);
+        cacheUnderTest = newCache(setUpBound, Retention.SOFT_CACHE);
         computation = mock(Function.class);
     }
 
+    protected <K, V> SoftCache<K, V> newCache(int maxSize, Retention retention) {
+        return new SoftCache<>(maxSize, retention);
+    }
+
+    protected <K, V> SoftCache<K, V> newCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+        return new SoftCache<>(maxWeight, weigher, Retention.SOFT_VALUES, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Does what the garbage collector would do to a {@link Retention#SOFT_CACHE softly held} backing structure under
+     * memory pressure.
+     */
+    protected void clearSoftReference(SoftCache<?, ?> cache) { cache.cacheRef.clear(); }
+
     @AfterEach
     public void tearDown() {
         cacheUnderTest = null;
@@ -111,4 +131,235 @@ class SoftCacheTest {
         assertTrue(cacheUnderTest.contains(argN), "Cache should contain last key given");
         assertEquals(resN, cacheUnderTest.get(argN), "Cache should store last computed value");
     }
+
+    @Test
+    public void getOrCompute_SoftCacheReclaimed_ShouldNotKeepValuesReachable() throws Exception {
+        final SoftCache<Integer, Object> cache = newCache(16, Retention.SOFT_CACHE);
+        final List<WeakReference<Object>> values = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            values.add(new WeakReference<>(cache.getOrCompute(i, key -> new Object())));
+            cache.get(i); // => reads get recorded too
+        }
+
+        clearSoftReference(cache);
+        for (int i = 0; i < 100 && values.stream().anyMatch(value -> value.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(values.stream().allMatch(value -> value.get() == null),
+                   "Values should be collectable once the backing structure is reclaimed");
+        assertEquals(0, cache.size(), "Cache should be empty once the backing structure is reclaimed");
+    }
+
+    @Test
+    public void getOrCompute_WeakValueReclaimed_ShouldComputeAgainAndCountReclaimedEntry() throws Exception {
+        final SoftCache<String, String> cache = newCache(setUpBound, Retention.WEAK_VALUES);
+        cache.getOrCompute("arg", arg -> new String("res")); // => only weakly reachable
+
+        for (int i = 0; i < 100 && cache.get("arg") != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(cache.get("arg"), "Weakly referenced value should have been reclaimed");
+
+        assertEquals("res", cache.getOrCompute("arg", arg -> "res"), "Cache should compute reclaimed value again");
+        assertEquals("res", cache.get("arg"), "Cache should store value computed again");
+        assertEquals(1, cache.getReclaimedCount(), "Cache should count the reclaimed entry only once");
+    }
+
+    @Test
+    public void getOrCompute_WeightedCacheOverMaxWeight_ShouldEvictJustEnoughEntries() {
+        final SoftCache<String, String> cache = newCache(10, (String key, String value) -> value.length());
+        cache.getOrCompute("a", key -> "aaaa");
+        cache.getOrCompute("b", key -> "bbbb");
+        cache.getOrCompute("c", key -> "c");
+
+        assertEquals(9, cache.getWeightedSize(), "Cache should sum up the weights of its entries");
+        assertFalse(cache.isFull(), "Cache should NOT report as being full while under its maximum weight");
+
+        cache.getOrCompute("d", key -> "dddd"); // => 13 > 10, evicting "a" is enough
+        assertFalse(cache.contains("a"), "Cache should NOT contain the least recently used key");
+        assertTrue(cache.contains("b") && cache.contains("c") && cache.contains("d"), "Cache should keep other keys");
+        assertEquals(9, cache.getWeightedSize(), "Cache should update its weighted size upon eviction");
+
+        cache.setMaxWeight(5);
+        assertEquals(5, cache.getWeightedSize(), "Cache should evict entries when its maximum weight shrinks");
+        assertFalse(cache.contains("b"), "Cache should NOT contain the least recently used key");
+    }
+
+    @Test
+    public void getOrCompute_NegativeWeight_ShouldFailAndNotCache() {
+        final SoftCache<String, String> cache = newCache(10, (String key, String value) -> -1);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.getOrCompute("arg", key -> "res"));
+        assertFalse(cache.contains("arg"), "Cache should NOT contain an entry with a negative weight");
+    }
+
+    @Test
+    public void getOrCompute_ExpiredAfterWrite_ShouldComputeAgainAndRemoveExpiredEntries() {
+        final AtomicLong nanos = new AtomicLong();
+        final SoftCache<String, String> cache = newCache(10, Retention.SOFT_VALUES);
+        cache.setTicker(nanos::get);
+        cache.setExpireAfterWrite(Duration.ofMinutes(1));
+        when(computation.apply(anyString())).thenReturn("res", "res-again");
+
+        cache.getOrCompute("a", computation);
+        cache.getOrCompute("b", key -> "b");
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals("res", cache.getOrCompute("a", computation), "Cache should NOT expire entries too early");
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertFalse(cache.contains("b"), "Cache should NOT contain expired entries");
+        assertEquals("res-again", cache.getOrCompute("a", computation), "Cache should compute expired entries again");
+
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos()); // => past a few timer wheel ticks
+        cache.getOrCompute("c", key -> "c");
+        assertEquals(1, cache.size(), "Cache should remove expired entries upon subsequent writes");
+    }
+
+    @Test
+    public void get_ReadBeforeExpiringAfterAccess_ShouldKeepEntry() {
+        final AtomicLong nanos = new AtomicLong();
+        final SoftCache<String, String> cache = newCache(10, Retention.SOFT_VALUES);
+        cache.setTicker(nanos::get);
+        cache.setExpireAfterAccess(Duration.ofMinutes(1));
+
+        cache.getOrCompute("a", key -> "a");
+        cache.getOrCompute("b", key -> "b");
+        for (int i = 0; i < 3; i++) {
+            nanos.addAndGet(Duration.ofSeconds(40).toNanos());
+            assertEquals("a", cache.get("a"), "Cache should keep entries read before expiring");
+        }
+        assertNull(cache.get("b"), "Cache should NOT return entries not read for a while");
+
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertNull(cache.get("a"), "Cache should NOT return entries not read for a while");
+    }
+
+    @Test
+    public void getStats_AfterHitsMissesAndFailures_ShouldCountThem() {
+        final IllegalStateException failure = new IllegalStateException("failure");
+        when(computation.apply(anyString())).then(invocation -> "res-" + invocation.getArgument(0));
+        when(computation.apply("fails")).thenThrow(failure);
+
+        final CacheStats before = cacheUnderTest.getStats();
+        cacheUnderTest.getOrCompute("a", computation);
+        cacheUnderTest.getOrCompute("a", computation);
+        cacheUnderTest.getOrCompute("b", computation);
+        cacheUnderTest.getOrCompute("c", computation); // => evicts "a"
+        cacheUnderTest.get("a");
+        assertThrows(IllegalStateException.class, () -> cacheUnderTest.getOrCompute("fails", computation));
+        final CacheStats stats = cacheUnderTest.getStats().minus(before);
+
+        assertEquals(1, stats.hitCount(), "Cache should count hits");
+        assertEquals(5, stats.missCount(), "Cache should count misses, be these read-only or not");
+        assertEquals(3, stats.loadSuccessCount(), "Cache should count successful loads");
+        assertEquals(1, stats.loadFailureCount(), "Cache should count failed loads");
+        assertEquals(1, stats.evictionCount(), "Cache should count evictions");
+        assertEquals(4, Arrays.stream(stats.loadTimeHistogram()).sum(), "Cache should record all load times");
+        assertTrue(stats.loadTimePercentile(100) >= stats.averageLoadPenalty(), "Load times should be consistent");
+    }
+
+    @Test
+    public void getAll_SomeKeysCached_ShouldLoadOnlyMissingOnesAtOnce() {
+        final SoftCache<String, String> cache = newCache(10, Retention.SOFT_CACHE);
+        cache.getOrCompute("a", key -> "res-a");
+
+        final List<Set<String>> loads = new ArrayList<>();
+        final Map<String, String> values = cache.getAll(Arrays.asList("c", "a", "b", "c", "none"), keys -> {
+            loads.add(new HashSet<>(keys));
+            final Map<String, String> loaded = new HashMap<>();
+            keys.stream().filter(key -> !"none".equals(key)).forEach(key -> loaded.put(key, "res-" + key));
+            loaded.put("other", "res-other"); // => not asked for
+            return loaded;
+        });
+
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(values.keySet()), "Should keep the keys' order");
+        assertEquals(Arrays.asList("res-c", "res-a", "res-b"), new ArrayList<>(values.values()));
+        assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList("c", "b", "none"))), loads,
+                     "Cache should load all the missing keys (and only them) at once");
+        assertTrue(cache.contains("b") && cache.contains("c"), "Cache should store loaded values");
+        assertFalse(cache.contains("other"), "Cache should ignore values of keys not asked for");
+        assertEquals(2, cache.getStats().loadSuccessCount(), "Cache should count a bulk load as a single load");
+    }
+
+    @Test
+    public void getAll_BulkLoaderFails_ShouldPropagateAndNotCache() {
+        final IllegalStateException failure = new IllegalStateException("failure");
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> cacheUnderTest.getAll(
+            Collections.singleton("a"), keys -> { throw failure; })));
+        assertEquals(0, cacheUnderTest.size(), "Cache should store 0 entries");
+        assertEquals(Collections.singletonMap("a", "res-a"),
+                     cacheUnderTest.getAll(Collections.singleton("a"), keys -> Collections.singletonMap("a", "res-a")),
+                     "Cache should load again");
+    }
+
+    @Test
+    public void invalidateTag_TaggedEntriesCached_ShouldOnlyRemoveThem() {
+        final SoftCache<String, String> cache = newCache(10, Retention.SOFT_CACHE);
+        cache.setTagger(key -> Collections.singleton("schema:" + key.substring(0, key.indexOf('.')) + "/"));
+        Arrays.asList("sales.orders", "sales.customers", "hr.people", "hr.payroll")
+              .forEach(key -> cache.getOrCompute(key, k -> "res-" + k));
+
+        assertEquals(2, cache.invalidateTag("schema:sales/"), "Cache should remove the entries tagged");
+        assertFalse(cache.contains("sales.orders") || cache.contains("sales.customers"));
+        assertTrue(cache.contains("hr.people") && cache.contains("hr.payroll"), "Cache should keep other entries");
+        assertEquals(0, cache.invalidateTag("schema:sales/"), "Tags should be removed along with their entries");
+
+        assertEquals(2, cache.invalidateTagPrefix("schema:h"), "Cache should remove the entries tagged by prefix");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void invalidateTag_ManyEntriesEvicted_ShouldKeepIndexingLiveOnes() {
+        cacheUnderTest.setTagger(key -> Arrays.asList("all", "key:" + key));
+        for (int i = 0; i < 5_000; i++) { // => well past the point the index gets pruned
+            cacheUnderTest.getOrCompute(Integer.toString(i), key -> "res-" + key);
+        }
+
+        assertEquals(1, cacheUnderTest.invalidateTag("key:4999"), "Cache should still index live entries");
+        assertEquals(1, cacheUnderTest.invalidateTag("all"));
+        assertEquals(0, cacheUnderTest.size());
+    }
+
+    @Test
+    public void createBoundedCache_Overridden_ShouldBackCacheWhateverTheRetention() {
+        for (Retention retention : Retention.values()) {
+            final List<Map<String, String>> created = new ArrayList<>();
+            final SoftCache<String, String> cache = new SoftCache<String, String>(10, retention) {
+
+                @Override
+                protected Map<String, String> createBoundedCache() {
+                    final Map<String, String> map = new TreeMap<>(); // => no null keys
+                    created.add(map);
+                    return map;
+                }
+            };
+
+            assertEquals("res-a", cache.getOrCompute("a", key -> "res-" + key));
+            assertEquals("res-a", cache.get("a"), retention + " cache should hit its own storage");
+            assertEquals(1, created.size(), retention + " cache should be backed by the overriding structure");
+            assertEquals(1, created.get(0).size());
+            assertThrows(NullPointerException.class, () -> cache.getOrCompute(null, key -> "res"),
+                         retention + " cache should honour the overriding structure's characteristics");
+        }
+    }
+
+    @Test
+    public void registerMBean_AnyName_ShouldPublishStats() throws Exception {
+        cacheUnderTest.getOrCompute("a", key -> "a");
+        cacheUnderTest.getOrCompute("a", key -> "a");
+
+        final String mbeanName = "test-" + getClass().getSimpleName();
+        final ObjectName name = cacheUnderTest.registerMBean(mbeanName);
+        try {
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "HitCount"));
+            assertEquals(1, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Size"));
+            assertThrows(IllegalStateException.class, () -> cacheUnderTest.registerMBean(mbeanName),
+                         "Cache should NOT be registered twice under the same name");
+        } finally {
+            cacheUnderTest.unregisterMBean(mbeanName);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name), "Cache should be unregistered");
+    }
 }
@@ -0,0 +1,107 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+class TieredCacheTest {
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private final Function<String, String> computation = key -> {
+        computations.incrementAndGet();
+        return "res-" + key;
+    };
+
+    @Test
+    public void getOrCompute_EvictedKeyGiven_ShouldPromoteRatherThanCompute() {
+        final TieredCache<String, String> cache = new TieredCache<>(2, 4096, Codecs.utf8());
+        cache.getOrCompute("a", computation);
+        cache.getOrCompute("b", computation);
+        cache.getOrCompute("c", computation); // => "a" gets demoted
+
+        assertEquals(1, cache.getOffHeap().size(), "Cache should demote evicted entries");
+        assertEquals("res-a", cache.get("a"), "Cache should find demoted entries");
+        assertEquals("res-a", cache.getOrCompute("a", computation));
+        assertEquals(3, computations.get(), "Cache should promote demoted entries rather than compute them");
+        assertEquals(1, cache.getOffHeap().size(), "Cache should have demoted another entry to make room");
+        assertFalse(cache.getOffHeap().contains("a"), "Cache should not keep promoted entries off-heap");
+    }
+
+    @Test
+    public void getAll_SomeKeysDemoted_ShouldOnlyLoadOthers() {
+        final TieredCache<String, String> cache = new TieredCache<>(1, 4096, Codecs.utf8());
+        cache.getOrCompute("a", computation);
+        cache.getOrCompute("b", computation); // => "a" gets demoted
+
+        final List<Set<String>> loads = new ArrayList<>();
+        final Map<String, String> values = cache.getAll(Arrays.asList("a", "b", "c"), keys -> {
+            loads.add(new HashSet<>(keys));
+            return Collections.singletonMap("c", "res-c");
+        });
+
+        assertEquals(3, values.size());
+        assertEquals(Collections.singletonList(Collections.singleton("c")), loads,
+                     "Cache should only load keys found in neither tier");
+    }
+
+    @Test
+    public void remove_DemotedKeyGiven_ShouldRemoveFromBothTiers() {
+        final TieredCache<String, String> cache = new TieredCache<>(1, 4096, Codecs.utf8());
+        cache.getOrCompute("a", computation);
+        cache.getOrCompute("b", computation);
+
+        assertEquals("res-a", cache.remove("a"));
+        assertFalse(cache.contains("a"));
+        cache.clear();
+        assertEquals(0, cache.getOffHeap().size());
+    }
+
+    @Test
+    public void remove_KeyBeingDemotedConcurrently_ShouldNotBePromotedBack() throws Exception {
+        final CountDownLatch encoding = new CountDownLatch(1), removing = new CountDownLatch(1);
+        final Codec<String> utf8 = Codecs.utf8();
+        final TieredCache<String, String> cache = new TieredCache<>(1, 4096, new Codec<String>() {
+            @Override
+            public byte[] encode(String value) {
+                encoding.countDown();
+                try {
+                    removing.await(5, TimeUnit.SECONDS); // => demotion in progress, under the eviction lock
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return utf8.encode(value);
+            }
+
+            @Override
+            public String decode(byte[] bytes) { return utf8.decode(bytes); }
+        });
+        cache.getOrCompute("a", computation);
+
+        final ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> evicting = threads.submit(() -> cache.getOrCompute("b", computation)); // => demotes "a"
+            assertTrue(encoding.await(5, TimeUnit.SECONDS), "Cache should demote the evicted entry");
+            final Future<?> removal = threads.submit(() -> cache.remove("a"));
+            Thread.sleep(50); // => gives the removal a chance to overtake the demotion
+            removing.countDown();
+            evicting.get(5, TimeUnit.SECONDS);
+            removal.get(5, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertFalse(cache.contains("a"), "Removed entry should not have been demoted after its removal");
+        assertEquals("res-a", cache.getOrCompute("a", computation));
+        assertEquals(3, computations.get(), "Removed entry should be computed again rather than promoted");
+    }
+}
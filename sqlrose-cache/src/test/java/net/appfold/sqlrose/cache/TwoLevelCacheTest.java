@@ -0,0 +1,115 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+class TwoLevelCacheTest {
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private final Function<String, String> computation = key -> "res-" + key + "-" + computations.incrementAndGet();
+
+    @Test
+    public void getOrCompute_KeyEvictedFromL2_ShouldStillBeServedByL1() {
+        final TwoLevelCache<String, String> cache = new TwoLevelCache<>(1, 8);
+        assertEquals("res-a-1", cache.getOrCompute("a", computation));
+        cache.getOrCompute("b", computation); // => "a" gets evicted from L2
+
+        assertFalse(cache.contains("a"), "L2 should have evicted the least recently used key");
+        assertEquals("res-a-1", cache.getOrCompute("a", computation), "L1 should still serve evicted keys");
+        assertEquals(2, computations.get(), "L1 hits should not compute");
+    }
+
+    @Test
+    public void remove_KeyCachedByOtherThread_ShouldInvalidateItsL1() throws Exception {
+        final TwoLevelCache<String, String> cache = new TwoLevelCache<>(10);
+        final ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals("res-a-1", other.submit(() -> cache.getOrCompute("a", computation)).get(5, TimeUnit.SECONDS));
+
+            final long epoch = cache.getEpoch();
+            cache.remove("a");
+            assertTrue(cache.getEpoch() > epoch, "Removing entries should advance the epoch");
+            assertEquals("res-a-2", other.submit(() -> cache.getOrCompute("a", computation)).get(5, TimeUnit.SECONDS),
+                         "L1s should not serve removed entries");
+
+            cache.clear();
+            assertEquals("res-a-3", other.submit(() -> cache.getOrCompute("a", computation)).get(5, TimeUnit.SECONDS),
+                         "L1s should not serve cleared entries");
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void invalidateTag_TaggedKeyInL1_ShouldComputeAgain() {
+        final TwoLevelCache<String, String> cache = new TwoLevelCache<>(10);
+        cache.setTagger(key -> Collections.singleton("tag"));
+        cache.getOrCompute("a", computation);
+
+        assertEquals(1, cache.invalidateTag("tag"));
+        assertNull(cache.get("a"), "L1 should not serve invalidated entries");
+        assertEquals("res-a-2", cache.getOrCompute("a", computation));
+    }
+
+    @Test
+    public void getOrCompute_EntriesExpiring_ShouldBypassL1() {
+        final AtomicLong nanos = new AtomicLong();
+        final TwoLevelCache<String, String> cache = new TwoLevelCache<>(10);
+        cache.setTicker(nanos::get);
+        cache.setExpireAfterWrite(Duration.ofMinutes(1));
+        cache.getOrCompute("a", computation);
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertEquals("res-a-2", cache.getOrCompute("a", computation), "L1 should not serve expired entries");
+    }
+
+    @Test
+    public void memoizeTwoLevel_SameArgumentsGiven_ShouldComputeOnce() {
+        final MemoizedBiFn<String, Integer, String> fn =
+            MemoizedBiFn.memoizeTwoLevel((s, i) -> computation.apply(s + i), 10);
+
+        assertEquals("res-a1-1", fn.apply("a", 1));
+        assertEquals("res-a1-1", fn.apply("a", 1));
+        assertEquals("res-a2-2", fn.apply("a", 2));
+        assertEquals(1, fn.getStats().hitCount(), "Memoized function should have been hit once");
+    }
+
+    @Test
+    public void memoizeTwoLevel_NestedMemoizedCallsGiven_ShouldCacheUnderCallerArguments() {
+        final MemoizedBiFn<Integer, Integer, String> inner = MemoizedBiFn.memoizeTwoLevel((a, b) -> "inner" + a + b);
+        final MemoizedBiFn<Integer, Integer, String> outer =
+            MemoizedBiFn.memoizeTwoLevel((a, b) -> "outer" + a + b + (a == null ? "" : inner.apply(a + 1, b + 1)));
+
+        assertEquals("outer00inner11", outer.apply(0, 0));
+        assertEquals("outernullnull", outer.apply(null, null), "Nested calls should not change the caller's key");
+        assertEquals("outer00inner11", outer.apply(0, 0), "Value should be cached under the caller's arguments");
+        assertEquals("outernullnull", outer.apply(null, null));
+        assertEquals(2, outer.getStats().hitCount(), "Memoized function should have been hit twice");
+    }
+
+    @Test
+    public void memoize_RecursiveCallsGiven_ShouldComputeEachArgumentPairOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicReference<MemoizedBiFn<Integer, Integer, Long>> binomial = new AtomicReference<>();
+        binomial.set(MemoizedBiFn.memoizeTwoLevel((n, k) -> {
+            calls.incrementAndGet();
+            return k == 0 || k.equals(n) ? 1L : binomial.get().apply(n - 1, k - 1) + binomial.get().apply(n - 1, k);
+        }));
+
+        assertEquals(184_756L, (long) binomial.get().apply(20, 10), "Recursive calls should compute correct values");
+        assertEquals(184_756L, (long) binomial.get().apply(20, 10));
+        assertEquals(120, calls.get(), "Each pair of arguments should be computed once");
+    }
+}
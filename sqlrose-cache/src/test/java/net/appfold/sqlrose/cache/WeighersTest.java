@@ -0,0 +1,47 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+class WeighersTest {
+
+    @Test
+    public void estimate_StringsAndArrays_ShouldGrowWithLengthAndBeAligned() {
+        assertEquals(0, Weighers.estimate(null), "Null should weigh nothing");
+        assertEquals(24 + 16, Weighers.estimate(""), "An empty string should weigh its header and empty array");
+        assertEquals(24 + 16 + 8, Weighers.estimate("abc"), "Chars should weigh 2 bytes each, 8-byte aligned");
+
+        assertEquals(16 + 8 * 10, Weighers.sizeOfArray(new long[10]), "Longs should weigh 8 bytes each");
+        assertEquals(16 + 8, Weighers.sizeOfArray(new byte[5]), "Bytes should weigh 1 byte each, 8-byte aligned");
+        assertEquals(Weighers.sizeOfArray(new String[2]) + 2 * Weighers.estimate("abc"),
+                     Weighers.estimate(new String[]{"abc", "abc"}), "Object arrays should include their elements");
+        assertThrows(IllegalArgumentException.class, () -> Weighers.sizeOfArray("not an array"));
+    }
+
+    @Test
+    public void estimate_CollectionsAndMaps_ShouldIncludeTheirElements() {
+        final List<String> list = asList("a", "bb", "ccc");
+        final long elements = Weighers.estimate("a") + Weighers.estimate("bb") + Weighers.estimate("ccc");
+        assertTrue(Weighers.estimate(list) > elements, "A list should weigh more than its elements");
+
+        final Map<String, Object> map = new HashMap<>();
+        map.put("self", map); // => cycles should not overflow the stack
+        assertTrue(Weighers.estimate(map) > 0, "A map should have a positive weight");
+    }
+
+    @Test
+    public void estimatedBytes_AnyEntry_ShouldIncludeEntryOverhead() {
+        final Weigher<String, byte[]> weigher = Weighers.estimatedBytes();
+        assertEquals(Weighers.ENTRY_OVERHEAD + Weighers.estimate("key") + 16 + 1024,
+                     weigher.weigh("key", new byte[1024]), "An entry should weigh its key, value and overhead");
+        assertEquals(1, Weighers.<String, byte[]>singleton().weigh("key", new byte[1024]), "Singleton weighs 1");
+    }
+}
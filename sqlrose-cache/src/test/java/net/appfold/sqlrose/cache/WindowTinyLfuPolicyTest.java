@@ -0,0 +1,106 @@
+package net.appfold.sqlrose.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Trace-driven comparison of {@link EvictionPolicy#W_TINY_LFU W-TinyLFU} against {@link EvictionPolicy#LRU LRU}.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+class WindowTinyLfuPolicyTest {
+
+    protected static final int MAX_SIZE = 100;
+
+    protected static final int HOT_KEYS = 80;
+
+    @Test
+    public void hotSetInterleavedWithScan_HitRatioShouldBeHigherThanLru() {
+        final Supplier<int[]> trace = () -> {
+            final Random random = new Random(42);
+            final int[] keys = new int[200_000];
+            int scanKey = HOT_KEYS;
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextBoolean() ? random.nextInt(HOT_KEYS) : scanKey++; // => scanned keys never repeat
+            }
+            return keys;
+        };
+
+        final double lru = hitRatio(EvictionPolicy.LRU, trace.get());
+        final double tinyLfu = hitRatio(EvictionPolicy.W_TINY_LFU, trace.get());
+
+        assertTrue(tinyLfu > lru + .2, "W-TinyLFU (" + tinyLfu + ") should beat LRU (" + lru + ") by more than 20%");
+        assertTrue(tinyLfu > .45, "W-TinyLFU (" + tinyLfu + ") should hit almost all hot set accesses");
+    }
+
+    @Test
+    public void hotSetThenLongScanThenHotSet_HotSetShouldSurviveScan() {
+        final IntFunction<int[]> trace = scanLength -> {
+            final Random random = new Random(42);
+            final int[] keys = new int[20_000 + scanLength + 20_000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i >= 20_000 && i < 20_000 + scanLength ? HOT_KEYS + i : random.nextInt(HOT_KEYS);
+            }
+            return keys;
+        };
+
+        final double lru = hitRatio(EvictionPolicy.LRU, trace.apply(10 * MAX_SIZE));
+        final double tinyLfu = hitRatio(EvictionPolicy.W_TINY_LFU, trace.apply(10 * MAX_SIZE));
+
+        assertTrue(tinyLfu > lru, "W-TinyLFU (" + tinyLfu + ") should beat LRU (" + lru + ")");
+    }
+
+    @Test
+    public void recencyBiasedTrace_HitRatioShouldBeCloseToLru() {
+        final Supplier<int[]> trace = () -> { // => a sliding working set, favourable to LRU
+            final Random random = new Random(42);
+            final int[] keys = new int[100_000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i / 100 + random.nextInt(MAX_SIZE / 2);
+            }
+            return keys;
+        };
+
+        final double lru = hitRatio(EvictionPolicy.LRU, trace.get());
+        final double tinyLfu = hitRatio(EvictionPolicy.W_TINY_LFU, trace.get());
+
+        assertTrue(tinyLfu > lru - .1, "W-TinyLFU (" + tinyLfu + ") should not trail LRU (" + lru + ") by much");
+    }
+
+    @Test
+    public void concurrentCache_ShouldHonourPolicy() {
+        final int[] keys = new int[50_000];
+        final Random random = new Random(42);
+        int scanKey = HOT_KEYS;
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextBoolean() ? random.nextInt(HOT_KEYS) : scanKey++;
+        }
+
+        final double lru = hitRatio(new ConcurrentSoftCache<>(MAX_SIZE, Retention.SOFT_CACHE, EvictionPolicy.LRU), keys);
+        final double tinyLfu =
+            hitRatio(new ConcurrentSoftCache<>(MAX_SIZE, Retention.SOFT_CACHE, EvictionPolicy.W_TINY_LFU), keys);
+
+        assertTrue(tinyLfu > lru + .2, "W-TinyLFU (" + tinyLfu + ") should beat LRU (" + lru + ") by more than 20%");
+    }
+
+    protected static double hitRatio(EvictionPolicy.Factory policy, int[] trace) {
+        return hitRatio(new SoftCache<>(MAX_SIZE, Retention.SOFT_CACHE, policy), trace);
+    }
+
+    protected static double hitRatio(SoftCache<Integer, Integer> cache, int[] trace) {
+        final int[] misses = {0};
+        for (int key : trace) {
+            cache.getOrCompute(key, k -> {
+                misses[0]++;
+                return k;
+            });
+            assertTrue(cache.size() <= MAX_SIZE, "Cache should never grow past its bound");
+        }
+        return 1 - (double) misses[0] / trace.length;
+    }
+}
@@ -6,8 +6,12 @@ import java.io.Serializable;
 import java.util.concurrent.*;
 
 /**
+ * Error codes are interned, i.e., there is a single instance per value. Codes of errors which are expected and
+ * frequent (e.g., validation failures, objects missing while browsing) can be marked as {@link #stackless()
+ * stackless} so that the {@link SqlRoseException exceptions} created with them are cheap to throw.
+ *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.0, Jun 12, 2019
+ * @version 1.2, Oct 18, 2026
  */
 @Getter
 @EqualsAndHashCode
@@ -28,6 +32,8 @@ public final class ErrorCode implements Comparable<ErrorCode>, Serializable {
 
     private final String value;
 
+    private transient volatile boolean stackless; // => runtime configuration, not part of the value
+
     private ErrorCode(String value) {
         if (value != null) {
             value = value.trim();
@@ -56,7 +62,27 @@ public final class ErrorCode implements Comparable<ErrorCode>, Serializable {
         return getValue();
     }
 
+    /**
+     * Marks {@code this} code (from then on) as used by errors which are expected and frequent, so that the {@link
+     * SqlRoseException exceptions} created with it neither fill in their stack trace nor eagerly capture their context;
+     * meant to be called once, when the code is declared.
+     *
+     * @return {@code this}
+     */
+    @NonNull
+    public ErrorCode stackless() {
+        stackless = true;
+        return this;
+    }
+
     public boolean is(CharSequence value) {
         return value != null && this.value.equals(value.toString());
     }
+
+    /**
+     * Keeps codes interned (and {@link #stackless() stackless} ones so) across serialization.
+     */
+    private Object readResolve() {
+        return errorCode(value);
+    }
 }
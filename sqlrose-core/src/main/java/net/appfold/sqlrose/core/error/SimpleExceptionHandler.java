@@ -3,6 +3,7 @@ package net.appfold.sqlrose.core.error;
 import lombok.NonNull;
 import net.appfold.sqlrose.i18n.*;
 import net.appfold.sqlrose.logging.Log;
+import net.appfold.sqlrose.metrics.*;
 import org.slf4j.Logger;
 
 import static java.lang.Thread.currentThread;
@@ -10,11 +11,15 @@ import static net.appfold.sqlrose.core.error.ErrorCode.E_NO_DETAILS;
 
 /**
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.0, Jun 19, 2019
+ * @version 1.1, Oct 18, 2026
  */
 public class SimpleExceptionHandler<SELF extends SimpleExceptionHandler<SELF>>
     implements ExceptionHandler<Throwable>, Thread.UncaughtExceptionHandler {
 
+    private static final Counter HANDLED = Metrics.counter("errors.handled");
+
+    private static final Histogram HANDLING = Metrics.histogram("errors.handle");
+
     @NonNull
     protected final Logger log;
 
@@ -57,6 +62,8 @@ public class SimpleExceptionHandler<SELF extends SimpleExceptionHandler<SELF>>
 
     @Override
     public void handle(Throwable exception) {
+        HANDLED.increment();
+        final long start = System.nanoTime();
         try {
 
             if (exception == null) {
@@ -79,6 +86,8 @@ public class SimpleExceptionHandler<SELF extends SimpleExceptionHandler<SELF>>
 
         } catch (Throwable throwable) { // overly cautious?
             log.error("?", throwable);
+        } finally {
+            HANDLING.time(start);
         }
     }
 }
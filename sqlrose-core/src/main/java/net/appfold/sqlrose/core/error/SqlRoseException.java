@@ -2,6 +2,8 @@ package net.appfold.sqlrose.core.error;
 
 import lombok.NonNull;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.time.Instant;
 
 import static java.lang.Thread.currentThread;
@@ -16,80 +18,128 @@ import static java.util.Arrays.copyOf;
  * Exception checked exceptions}, some APIs and (event-based) frameworks might not offer an easy way to propagate them
  * (e.g., out of handlers) and it is usually not appropriate to handle exceptions at the place of their occurrence. As
  * such, one might consider using a hierarchy of unchecked exceptions and relying on a global / default error handler.
+ * <p>
+ * Errors which are expected and frequent (e.g., validation failures, objects missing while browsing) can be created
+ * <em>stackless</em>, either by marking their {@link ErrorCode#stackless() code} or by subclasses (through {@link
+ * #SqlRoseException(String, Throwable, ErrorCode, Object[], boolean) the stackless constructor}): stackless exceptions
+ * do not fill in their stack trace (by far the most expensive part of creating an exception) and only capture their
+ * context (i.e., {@link #getTimestamp() timestamp}, {@link #getThreadName() thread}) cheaply, resolving it upon first
+ * request.
  *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.0, Jun 12, 2019
+ * @version 1.1, Oct 18, 2026
  */
 public class SqlRoseException extends RuntimeException {
 
-    @NonNull
-    private final Instant timestamp;
+    private final boolean stackless;
 
-    private final String threadName;
+    private final long epochMilli;
 
-    private final String threadGroupName;
+    private Instant timestamp; // => resolved lazily, from epochMilli, if stackless
 
-    {
-        timestamp = Instant.now();
+    private transient Thread thread; // => until the thread names get resolved, if stackless
 
-        final Thread currentThread = currentThread();
-        threadName = currentThread.getName();
+    private String threadName;
 
-        final ThreadGroup threadGroup = currentThread.getThreadGroup();
-        threadGroupName = threadGroup == null ? null : threadGroup.getName();
-    }
+    private String threadGroupName;
 
     private final ErrorCode errorCode;
 
     private final Object[] details;
 
-    public SqlRoseException(String message) {
-        super(message);
-        this.errorCode = null;
-        this.details = null;
-    }
+    public SqlRoseException(String message) { this(message, null, null, null, false); }
 
     public SqlRoseException(Throwable cause) {
-        super(cause);
-        this.errorCode = null;
-        this.details = null;
+        this(cause == null ? null : cause.toString(), cause, null, null, false);
     }
 
-    public SqlRoseException(String message, Throwable cause) {
-        super(message, cause);
-        this.errorCode = null;
-        this.details = null;
-    }
+    public SqlRoseException(String message, Throwable cause) { this(message, cause, null, null, false); }
 
     public SqlRoseException(ErrorCode errorCode, Object... details) {
-        this.errorCode = errorCode;
-        this.details = details == null || details.length == 0 ? null : copyOf(details, details.length);
+        this(null, null, errorCode, details, errorCode != null && errorCode.isStackless());
     }
 
     public SqlRoseException(Throwable cause, ErrorCode errorCode, Object... details) {
-        super(cause);
+        this(cause == null ? null : cause.toString(), cause, errorCode, details,
+             errorCode != null && errorCode.isStackless());
+    }
+
+    /**
+     * @param stackless whether to skip filling in the stack trace and to capture the context lazily; subclasses for
+     *                  errors which are expected and frequent might always pass {@code true}
+     */
+    protected SqlRoseException(String message, Throwable cause, ErrorCode errorCode, Object[] details,
+                               boolean stackless) {
+        super(message, cause, true, !stackless);
+        this.stackless = stackless;
         this.errorCode = errorCode;
         this.details = details == null || details.length == 0 ? null : copyOf(details, details.length);
+
+        final Thread currentThread = currentThread();
+        if (stackless) {
+            epochMilli = System.currentTimeMillis();
+            thread = currentThread;
+        } else {
+            timestamp = Instant.now();
+            epochMilli = timestamp.toEpochMilli();
+            threadName = currentThread.getName();
+
+            final ThreadGroup threadGroup = currentThread.getThreadGroup();
+            threadGroupName = threadGroup == null ? null : threadGroup.getName();
+        }
     }
 
     /**
-     * @return the {@link Instant moment} {@code this} exception was created
+     * @return whether {@code this} exception was created without a stack trace
+     */
+    public final boolean isStackless() { return stackless; }
+
+    /**
+     * @return the {@link Instant moment} {@code this} exception was created (to the millisecond, if stackless)
      */
     @NonNull
-    public final Instant getTimestamp() { return timestamp; }
+    public final synchronized Instant getTimestamp() {
+        if (timestamp == null) {
+            timestamp = Instant.ofEpochMilli(epochMilli);
+        }
+        return timestamp;
+    }
 
     /**
-     * @return the name of the {@link Thread thread} which created {@code this} exception
+     * @return the name of the {@link Thread thread} which created {@code this} exception (as of the first request, if
+     *     stackless)
      */
-    public final String getThreadName() { return threadName; }
+    public final String getThreadName() {
+        resolveThread();
+        return threadName;
+    }
 
     /**
      * @return the name of the {@link Thread#getThreadGroup() parent group} of the thread which created {@code this}
-     *     exception
+     *     exception (as of the first request, if stackless; {@code null} if the thread has terminated meanwhile)
      */
-    public final String getThreadGroupName() { return threadGroupName; }
+    public final String getThreadGroupName() {
+        resolveThread();
+        return threadGroupName;
+    }
 
     public final ErrorCode getCode() { return errorCode; }
 
     public Object[] getDetails() { return details == null ? null : copyOf(details, details.length); }
+
+    private synchronized void resolveThread() {
+        if (thread != null) {
+            threadName = thread.getName();
+
+            final ThreadGroup threadGroup = thread.getThreadGroup();
+            threadGroupName = threadGroup == null ? null : threadGroup.getName();
+            thread = null; // => do not keep the thread reachable
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        resolveThread();
+        getTimestamp();
+        out.defaultWriteObject();
+    }
 }
@@ -0,0 +1,113 @@
+package net.appfold.sqlrose.core.error;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.time.Instant;
+
+import static net.appfold.sqlrose.core.error.ErrorCode.errorCode;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class SqlRoseExceptionTest {
+
+    private static final ErrorCode E_EXPECTED = errorCode("E_TEST_EXPECTED").stackless();
+
+    private static final ErrorCode E_UNEXPECTED = errorCode("E_TEST_UNEXPECTED");
+
+    private String threadName;
+
+    @BeforeEach
+    public void setUp() { threadName = Thread.currentThread().getName(); }
+
+    @AfterEach
+    public void tearDown() { Thread.currentThread().setName(threadName); }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Serializable> T roundTrip(T object) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+
+    @Test
+    public void new_StacklessCodeGiven_ShouldNotFillInStackTrace() {
+        final SqlRoseException ex = new SqlRoseException(E_EXPECTED, "detail");
+
+        assertTrue(ex.isStackless(), "Exceptions with stackless codes should be stackless");
+        assertEquals(0, ex.getStackTrace().length, "Stackless exceptions should have no stack trace");
+        assertSame(E_EXPECTED, ex.getCode());
+        assertArrayEquals(new Object[]{"detail"}, ex.getDetails());
+
+        final SqlRoseException caused = new SqlRoseException(new IllegalStateException(), E_EXPECTED);
+        assertTrue(caused.isStackless());
+        assertEquals(0, caused.getStackTrace().length);
+        assertTrue(caused.getCause() instanceof IllegalStateException, "Causes should be kept all the same");
+    }
+
+    @Test
+    public void new_OtherCodesGiven_ShouldKeepStackTraceAndCaptureContextEagerly() {
+        final long before = System.currentTimeMillis();
+        final SqlRoseException[] exceptions = {new SqlRoseException(E_UNEXPECTED),
+                                               new SqlRoseException((ErrorCode) null),
+                                               new SqlRoseException("message")};
+        final long after = System.currentTimeMillis();
+
+        Thread.currentThread().setName("renamed");
+        for (SqlRoseException ex : exceptions) {
+            assertFalse(ex.isStackless());
+            assertTrue(ex.getStackTrace().length > 0, "Exceptions should have a stack trace by default");
+            assertEquals(getClass().getName(), ex.getStackTrace()[0].getClassName());
+            assertEquals(threadName, ex.getThreadName(), "Thread should be captured upon creation");
+            assertNotNull(ex.getThreadGroupName());
+
+            final long epochMilli = ex.getTimestamp().toEpochMilli();
+            assertTrue(before <= epochMilli && epochMilli <= after, "Timestamp should be the moment of creation");
+        }
+    }
+
+    @Test
+    public void getThreadName_StacklessExceptionGiven_ShouldResolveContextUponFirstRequest() {
+        final long before = System.currentTimeMillis();
+        final SqlRoseException ex = new SqlRoseException(E_EXPECTED);
+        final long after = System.currentTimeMillis();
+
+        Thread.currentThread().setName("renamed");
+        assertEquals("renamed", ex.getThreadName(), "Thread name should be resolved upon first request");
+        Thread.currentThread().setName("renamed again");
+        assertEquals("renamed", ex.getThreadName(), "Thread name should be resolved only once");
+        assertEquals(Thread.currentThread().getThreadGroup().getName(), ex.getThreadGroupName());
+
+        final Instant timestamp = ex.getTimestamp();
+        assertTrue(before <= timestamp.toEpochMilli() && timestamp.toEpochMilli() <= after,
+                   "Timestamp should be the moment of creation");
+        assertSame(timestamp, ex.getTimestamp(), "Timestamp should be resolved only once");
+    }
+
+    @Test
+    public void serialization_ExceptionsGiven_ShouldKeepContextAndInternedCodes() throws Exception {
+        for (SqlRoseException ex : new SqlRoseException[]{new SqlRoseException(E_EXPECTED, "detail", 42),
+                                                         new SqlRoseException(E_UNEXPECTED, "detail", 42)}) {
+            final SqlRoseException copy = roundTrip(ex); // => resolves the context of stackless ones first
+
+            assertSame(ex.getCode(), copy.getCode(), "Error codes should stay interned");
+            assertEquals(ex.isStackless(), copy.isStackless());
+            assertEquals(ex.getStackTrace().length, copy.getStackTrace().length);
+            assertEquals(ex.getTimestamp(), copy.getTimestamp());
+            assertEquals(ex.getThreadName(), copy.getThreadName());
+            assertEquals(ex.getThreadGroupName(), copy.getThreadGroupName());
+            assertArrayEquals(ex.getDetails(), copy.getDetails());
+        }
+
+        assertTrue(roundTrip(E_EXPECTED).isStackless(), "Stackless codes should stay stackless");
+        assertSame(E_EXPECTED, roundTrip(E_EXPECTED));
+        assertSame(ErrorCode.E_GENERIC, roundTrip(ErrorCode.E_GENERIC));
+    }
+}
@@ -0,0 +1,179 @@
+package net.appfold.sqlrose.i18n;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.toCollection;
+
+/**
+ * Compiles the {@code .properties} bundles found under a source directory into {@link CompiledBundles binary
+ * catalogs}, one per base name (e.g., {@code errors.properties} and {@code errors_fr.properties} into {@code
+ * errors.catalog}), meant to be run at build time (e.g., by the {@code exec-maven-plugin}):
+ * <pre>
+ * java net.appfold.sqlrose.i18n.BundleCompiler &lt;source directory&gt; &lt;output directory&gt;
+ * </pre>
+ * Compilation fails (hence, so does the build) if any translation lacks a message of the default bundle, defines a
+ * message the default bundle does not or if a translation has no default bundle at all. Files are read the way
+ * {@link PropertyResourceBundle} reads them on Java 8, i.e., as ISO-8859-1 with Unicode escapes.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+public final class BundleCompiler {
+
+    private static final String PROPERTIES = ".properties";
+
+    private static final Set<String> LANGUAGES = new HashSet<>(Arrays.asList(Locale.getISOLanguages()));
+
+    private BundleCompiler() {}
+
+    public static void main(String... args) throws IOException {
+        if (args == null || args.length != 2) {
+            throw new IllegalArgumentException("Usage: BundleCompiler <source directory> <output directory>");
+        }
+        compile(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    /**
+     * @return the catalogs written, relative to the {@code outputDir}
+     * @throws IllegalStateException listing all the missing (or extra) translations found, if any
+     */
+    public static List<Path> compile(Path sourceDir, Path outputDir) throws IOException {
+        final Set<String> names; // => relative to the source directory, without extension
+        try (Stream<Path> paths = Files.walk(sourceDir)) {
+            names = paths.filter(path -> path.toString().endsWith(PROPERTIES) && Files.isRegularFile(path))
+                         .map(path -> sourceDir.relativize(path).toString().replace(File.separatorChar, '/'))
+                         .map(path -> path.substring(0, path.length() - PROPERTIES.length()))
+                         .collect(toCollection(TreeSet::new));
+        }
+
+        final Map<String, Map<Locale, Properties>> bundles = new TreeMap<>();
+        final List<String> problems = new ArrayList<>();
+        for (String name : names) {
+            final String[] baseNameAndLocale = baseNameAndLocale(name, names);
+            if (baseNameAndLocale[1].isEmpty() && isTranslation(name)) {
+                problems.add(name + PROPERTIES + ": translation has no default bundle");
+                continue;
+            }
+
+            final Locale locale = toLocale(baseNameAndLocale[1]);
+            if (!Locale.forLanguageTag(locale.toLanguageTag()).equals(locale)) {
+                problems.add(name + PROPERTIES + ": locale " + locale + " cannot be compiled");
+                continue;
+            }
+
+            final Properties messages = new Properties();
+            try (InputStream in = Files.newInputStream(sourceDir.resolve(name + PROPERTIES))) {
+                messages.load(in);
+            }
+            bundles.computeIfAbsent(baseNameAndLocale[0], baseName -> new LinkedHashMap<>()).put(locale, messages);
+        }
+
+        bundles.forEach((baseName, locales) -> check(baseName, locales, problems));
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Cannot compile bundles:\n - " + String.join("\n - ", problems));
+        }
+
+        final List<Path> catalogs = new ArrayList<>();
+        for (Map.Entry<String, Map<Locale, Properties>> bundle : bundles.entrySet()) {
+            final Path catalog = outputDir.resolve(bundle.getKey() + CompiledBundles.EXTENSION);
+            write(catalog, bundle.getValue());
+            catalogs.add(outputDir.relativize(catalog));
+        }
+        return catalogs;
+    }
+
+    /**
+     * A file is a translation of another if named after it, followed by a locale suffix (e.g., {@code errors_fr} of
+     * {@code errors}); the longest such base name wins.
+     */
+    private static String[] baseNameAndLocale(String name, Set<String> names) {
+        String baseName = name, suffix = "";
+        for (int i = name.indexOf('_'); i > 0; i = name.indexOf('_', i + 1)) {
+            final String candidate = name.substring(0, i);
+            if (names.contains(candidate) && isLocale(name.substring(i + 1))) {
+                baseName = candidate;
+                suffix = name.substring(i + 1);
+            }
+        }
+        return new String[]{baseName, suffix};
+    }
+
+    /**
+     * @return whether the given name ends with a locale suffix (e.g., {@code messages_de} or {@code messages_de_AT})
+     */
+    private static boolean isTranslation(String name) {
+        for (int i = name.indexOf('_'); i > 0; i = name.indexOf('_', i + 1)) {
+            if (isLocale(name.substring(i + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the given suffix looks like a locale (e.g., {@code de} or {@code de_AT}), as opposed to being
+     *     part of a base name (e.g., {@code app} in {@code messages_app})
+     */
+    private static boolean isLocale(String suffix) {
+        final String[] parts = suffix.split("_", 3);
+        return LANGUAGES.contains(parts[0]) && (parts.length < 2 || parts[1].matches("[A-Z]{2}|[0-9]{3}"));
+    }
+
+    private static Locale toLocale(String suffix) {
+        final String[] parts = suffix.split("_", 3);
+        return parts[0].isEmpty() ? Locale.ROOT :
+               new Locale(parts[0], parts.length > 1 ? parts[1] : "", parts.length > 2 ? parts[2] : "");
+    }
+
+    private static void check(String baseName, Map<Locale, Properties> locales, List<String> problems) {
+        final Properties defaults = locales.get(Locale.ROOT);
+        if (defaults == null) {
+            problems.add(baseName + ": translations " + locales.keySet() + " have no default bundle");
+            return;
+        }
+
+        locales.forEach((locale, messages) -> {
+            if (!Locale.ROOT.equals(locale)) {
+                final Set<String> missing = new TreeSet<>(defaults.stringPropertyNames());
+                missing.removeAll(messages.stringPropertyNames());
+                final Set<String> extra = new TreeSet<>(messages.stringPropertyNames());
+                extra.removeAll(defaults.stringPropertyNames());
+
+                if (!missing.isEmpty()) {
+                    problems.add(baseName + "_" + locale + ": missing translations of " + missing);
+                }
+                if (!extra.isEmpty()) {
+                    problems.add(baseName + "_" + locale + ": messages not in the default bundle " + extra);
+                }
+            }
+        });
+    }
+
+    private static void write(Path catalog, Map<Locale, Properties> locales) throws IOException {
+        final List<String> keys = new ArrayList<>(new TreeSet<>(locales.get(Locale.ROOT).stringPropertyNames()));
+
+        Files.createDirectories(catalog.toAbsolutePath().getParent());
+        final Path temp = catalog.resolveSibling(catalog.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(CompiledBundles.MAGIC);
+            out.writeInt(CompiledBundles.FORMAT_VERSION);
+            out.writeInt(keys.size());
+            for (String key : keys) {
+                out.writeUTF(key);
+            }
+            out.writeInt(locales.size());
+            for (Map.Entry<Locale, Properties> locale : locales.entrySet()) {
+                out.writeUTF(locale.getKey().toLanguageTag()); // => "und" for the default bundle
+                for (String key : keys) {
+                    out.writeUTF(locale.getValue().getProperty(key));
+                }
+            }
+        }
+        Files.move(temp, catalog, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,146 @@
+package net.appfold.sqlrose.i18n;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import static java.util.Collections.enumeration;
+import static java.util.Objects.requireNonNull;
+import static java.util.ResourceBundle.Control.FORMAT_DEFAULT;
+
+/**
+ * A {@link SimpleI18n#setResourceBundleSupplier(BiFunction) resource bundle supplier} reading the bundles {@link
+ * BundleCompiler compiled at build time} (i.e., one binary catalog per base name, holding the messages of all its
+ * locales) rather than locating and parsing {@code .properties} files upon first use. Messages of all locales share
+ * the same (interned) keys and every compiled locale is complete, hence compiled bundles have no parents.
+ * <p/>
+ * Base names with no catalog on the class path are simply {@link ResourceBundle#getBundle(String, Locale) looked up}
+ * as usual; compiled or not, bundles are looked up following the same candidate (and default) locales.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class CompiledBundles implements BiFunction<String, Locale, ResourceBundle> {
+
+    public static final String EXTENSION = ".catalog";
+
+    static final int MAGIC = 0x53524D43; // => "SRMC"
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final ResourceBundle.Control CONTROL = ResourceBundle.Control.getNoFallbackControl(FORMAT_DEFAULT);
+
+    private static final CompiledBundles INSTANCE = new CompiledBundles();
+
+    private final Map<String, Optional<Catalog>> catalogs = new ConcurrentHashMap<>();
+
+    private CompiledBundles() {}
+
+    public static CompiledBundles supplier() { return INSTANCE; }
+
+    @Override
+    public ResourceBundle apply(String baseName, Locale locale) {
+        requireNonNull(baseName, "Cannot look up a bundle with a null base name");
+        final Locale requested = locale == null ? Locale.getDefault() : locale;
+
+        final Catalog catalog = catalogs.computeIfAbsent(baseName, CompiledBundles::load).orElse(null);
+        if (catalog == null) {
+            return ResourceBundle.getBundle(baseName, requested);
+        }
+
+        ResourceBundle bundle = catalog.lookup(baseName, requested);
+        if (bundle == null && !requested.equals(Locale.getDefault())) {
+            bundle = catalog.lookup(baseName, Locale.getDefault());
+        }
+        return bundle == null ? catalog.bundles.get(Locale.ROOT) : bundle;
+    }
+
+    private static Optional<Catalog> load(String baseName) {
+        final String resource = baseName.replace('.', '/') + EXTENSION;
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = CompiledBundles.class.getClassLoader();
+        }
+
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            return in == null ? Optional.empty() : Optional.of(read(new DataInputStream(new BufferedInputStream(in))));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read compiled bundle " + resource, ex);
+        }
+    }
+
+    static Catalog read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a compiled bundle (or compiled by another version)");
+        }
+
+        final int keyCount = in.readInt();
+        final Map<String, Integer> index = new HashMap<>(keyCount * 4 / 3 + 1);
+        for (int i = 0; i < keyCount; i++) {
+            index.put(in.readUTF().intern(), i);
+        }
+
+        final int localeCount = in.readInt();
+        final Map<Locale, ResourceBundle> bundles = new HashMap<>(localeCount * 4 / 3 + 1);
+        for (int i = 0; i < localeCount; i++) {
+            final Locale locale = Locale.forLanguageTag(in.readUTF());
+            final String[] messages = new String[keyCount];
+            for (int j = 0; j < keyCount; j++) {
+                messages[j] = in.readUTF();
+            }
+            bundles.put(locale, new CompiledBundle(locale, index, messages));
+        }
+        if (!bundles.containsKey(Locale.ROOT)) {
+            throw new IOException("Compiled bundle has no default (root) messages");
+        }
+        return new Catalog(bundles);
+    }
+
+    static final class Catalog {
+
+        private final Map<Locale, ResourceBundle> bundles;
+
+        private Catalog(Map<Locale, ResourceBundle> bundles) { this.bundles = bundles; }
+
+        private ResourceBundle lookup(String baseName, Locale locale) {
+            for (Locale candidate : CONTROL.getCandidateLocales(baseName, locale)) {
+                final ResourceBundle bundle = Locale.ROOT.equals(candidate) ? null : bundles.get(candidate);
+                if (bundle != null) {
+                    return bundle;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class CompiledBundle extends ResourceBundle {
+
+        private final Locale locale;
+
+        private final Map<String, Integer> index; // => shared by all the bundles of a catalog
+
+        private final String[] messages;
+
+        private CompiledBundle(Locale locale, Map<String, Integer> index, String[] messages) {
+            this.locale = locale;
+            this.index = index;
+            this.messages = messages;
+        }
+
+        @Override
+        public Locale getLocale() { return locale; }
+
+        @Override
+        protected Object handleGetObject(String key) {
+            final Integer i = index.get(requireNonNull(key));
+            return i == null ? null : messages[i];
+        }
+
+        @Override
+        protected Set<String> handleKeySet() { return index.keySet(); }
+
+        @Override
+        public Enumeration<String> getKeys() { return enumeration(index.keySet()); }
+    }
+}
@@ -20,10 +20,11 @@ import java.util.Locale;
  * etc.</li>
  * </ul>
  * {@code I18n} instances can, for example, be set up/injected to represent user profile or request-specific,
- * (i18n-related) configuration settings.
+ * (i18n-related) configuration settings; {@link SimpleI18n#view(Locale, ZoneId, DateTimeFormatter) views} of a shared
+ * instance are the cheapest way of doing so.
  *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.0, May 23, 2019
+ * @version 1.2, Oct 17, 2026
  * @see <a href="https://stackoverflow.com/a/10571144/272939">This</a> Stack Overflow answer
  */
 public interface I18n {
@@ -75,4 +76,12 @@ public interface I18n {
      * @return never {@code null} (at worst, an empty string)
      */
     @NonNull String l(Instant instant);
+
+    /**
+     * @return a format {@link #l(Instant) localizing} timestamps as {@code this} entry point currently does, meant to
+     *     be resolved once and used for many values (e.g., the cells of a result grid column)
+     */
+    default @NonNull TimestampFormat timestamps() {
+        return TimestampFormat.of(getDateTimeFormatter(), getLocale(), getZoneId());
+    }
 }
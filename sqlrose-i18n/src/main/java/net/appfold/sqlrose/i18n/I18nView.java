@@ -0,0 +1,77 @@
+package net.appfold.sqlrose.i18n;
+
+import lombok.NonNull;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+
+/**
+ * An immutable, thread-safe, per-user (or per-request) {@link I18n} holding nothing but its locale, time-zone and
+ * date/time formatter: messages are translated by a shared {@link SimpleI18n} instance (along with its catalogs and
+ * message formats), hence creating a view costs no more than allocating it.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.3, Oct 18, 2026
+ * @see SimpleI18n#view(Locale, ZoneId, DateTimeFormatter)
+ */
+public final class I18nView implements I18n {
+
+    private final SimpleI18n<?> shared;
+
+    private final Locale locale;
+
+    private final ZoneId zoneId;
+
+    private final DateTimeFormatter dateTimeFormatter;
+
+    private TimestampFormat timestamps; // => resolved upon first use (racy but idempotent, formats being immutable)
+
+    I18nView(@NonNull SimpleI18n<?> shared, Locale locale, ZoneId zoneId, DateTimeFormatter dateTimeFormatter) {
+        this.shared = shared;
+        this.locale = locale == null ? Locale.getDefault() : locale;
+        this.zoneId = zoneId == null ? ZoneId.systemDefault() : zoneId;
+        this.dateTimeFormatter = dateTimeFormatter == null ? RFC_1123_DATE_TIME : dateTimeFormatter;
+    }
+
+    @Override
+    public Locale getLocale() { return locale; }
+
+    @Override
+    public ZoneId getZoneId() { return zoneId; }
+
+    @Override
+    public DateTimeFormatter getDateTimeFormatter() { return dateTimeFormatter; }
+
+    @NonNull
+    public I18nView withLocale(Locale locale) { return new I18nView(shared, locale, zoneId, dateTimeFormatter); }
+
+    @NonNull
+    public I18nView withZoneId(ZoneId zoneId) { return new I18nView(shared, locale, zoneId, dateTimeFormatter); }
+
+    @NonNull
+    public I18nView withDateTimeFormatter(DateTimeFormatter dateTimeFormatter) {
+        return new I18nView(shared, locale, zoneId, dateTimeFormatter);
+    }
+
+    @NonNull
+    @Override
+    public String t(String key, Object... args) { return shared.translate(key, locale, args); }
+
+    @NonNull
+    @Override
+    public String l(Instant instant) { return instant == null ? "" : timestamps().format(instant); }
+
+    @NonNull
+    @Override
+    public TimestampFormat timestamps() {
+        final TimestampFormat timestamps = this.timestamps;
+        return timestamps != null ? timestamps :
+               (this.timestamps = TimestampFormat.of(dateTimeFormatter, locale, zoneId));
+    }
+
+    @Override
+    public String toString() { return "I18nView(" + locale + ", " + zoneId + ")"; }
+}
@@ -0,0 +1,87 @@
+package net.appfold.sqlrose.i18n;
+
+import net.appfold.sqlrose.cache.ConcurrentSoftCache;
+import net.appfold.sqlrose.cache.SoftCache;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The messages of a {@link Locale locale}, merged from several {@link ResourceBundle resource bundles} (the ones
+ * listed first taking precedence, their fallback chains already resolved) into a single map, so that looking a
+ * message up takes a single hash probe rather than a bundle lookup (and a {@link MissingResourceException}) per base
+ * name.
+ * <p/>
+ * Since bundles are not required to enumerate all of their keys, keys missing from the catalog can still be
+ * {@link #MessageCatalog(Locale, Map, Function) resolved} on demand; outcomes, messages missing everywhere included,
+ * are then remembered (in a bounded cache) so that resolving a key, even in vain, happens only once.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class MessageCatalog {
+
+    private final Locale locale;
+
+    private final Map<String, String> messages;
+
+    private final Function<String, String> fallback;
+
+    private final SoftCache<String, Optional<String>> resolved; // => Optional.empty() for missing messages
+
+    public MessageCatalog(Locale locale, Map<String, String> messages) { this(locale, messages, null); }
+
+    /**
+     * @param fallback resolves (e.g., by looking up each bundle in turn) the messages not found in the catalog,
+     *                 returning {@code null} for missing ones; if {@code null}, the catalog is considered complete
+     */
+    public MessageCatalog(Locale locale, Map<String, String> messages, Function<String, String> fallback) {
+        this.locale = locale;
+        this.messages = unmodifiableMap(new HashMap<>(requireNonNull(messages, "A catalog requires messages")));
+        this.fallback = fallback;
+        this.resolved = fallback == null ? null : new ConcurrentSoftCache<>();
+    }
+
+    /**
+     * @return the message for the given {@code key} or {@code null} if missing
+     */
+    public String get(String key) {
+        final String message = messages.get(key);
+        if (message != null || resolved == null || key == null) {
+            return message;
+        }
+        return resolved.getOrCompute(key, k -> Optional.ofNullable(fallback.apply(k))).orElse(null);
+    }
+
+    public boolean contains(String key) { return get(key) != null; }
+
+    public Locale getLocale() { return locale; }
+
+    /**
+     * @return the messages merged, i.e., not including the ones resolved on demand
+     */
+    public Map<String, String> getMessages() { return messages; }
+
+    public int size() { return messages.size(); }
+
+    /**
+     * Merges the (string) messages of the given {@code bundles}, in order: the first bundle defining a key wins.
+     */
+    public static Map<String, String> merge(Iterable<? extends ResourceBundle> bundles) {
+        final Map<String, String> messages = new HashMap<>();
+        for (ResourceBundle bundle : bundles) {
+            for (String key : bundle.keySet()) { // => parent bundles included
+                if (!messages.containsKey(key)) {
+                    final Object message = bundle.getObject(key);
+                    if (message instanceof String) {
+                        messages.put(key, (String) message);
+                    }
+                }
+            }
+        }
+        return messages;
+    }
+}
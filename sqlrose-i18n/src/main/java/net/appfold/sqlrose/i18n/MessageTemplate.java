@@ -0,0 +1,325 @@
+package net.appfold.sqlrose.i18n;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.*;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable, thread-safe, {@link MessageFormat}-compatible message template: the pattern is parsed once, upon
+ * creation, into literal and argument segments so that {@link #formatTo(StringBuilder, Object...) formatting} merely
+ * appends the literals and the (formatted) arguments, in turn, straight to a {@link StringBuilder} or {@link
+ * Appendable} without the intermediate {@link StringBuffer}s, {@link FieldPosition}s and sub-format lookups of {@link
+ * MessageFormat#format(Object)}.
+ * <p/>
+ * The pattern syntax (quoting included) and the output are those of {@link MessageFormat}, which actually parses the
+ * pattern and creates the sub-formats of the typed arguments (e.g., <code>{0,number,#.##}</code>). Since these are
+ * not thread-safe, each thread formats (and parses) with its own copies of them, created lazily; plain numbers and
+ * dates are formatted by per-thread {@link NumberFormat#getInstance(Locale) number} and {@link
+ * DateFormat#getDateTimeInstance(int, int, Locale) date/time} formats as well. Being a {@link MessageFormat} itself
+ * (whose inherited methods are thread-safe too), a template can be returned by a {@link
+ * SimpleI18n#setMessageFormatSupplier(java.util.function.BiFunction) message format supplier}; the methods that would
+ * mutate it throw an {@link UnsupportedOperationException} though.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class MessageTemplate extends MessageFormat {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<DefaultFormats> DEFAULT_FORMATS = ThreadLocal.withInitial(DefaultFormats::new);
+
+    private final String pattern;
+
+    private final String[] literals; // => one more than the arguments, possibly empty
+
+    private final int[] argumentIndexes;
+
+    private final Format[] formats; // => by format element, null for plain arguments
+
+    private final int literalLength;
+
+    private final boolean compiled;
+
+    public MessageTemplate(String pattern) { this(pattern, Locale.getDefault(Locale.Category.FORMAT)); }
+
+    public MessageTemplate(String pattern, Locale locale) {
+        super(requireNonNull(pattern, "Cannot compile a null pattern"), locale);
+        this.pattern = pattern;
+
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> argumentIndexes = new ArrayList<>();
+        parse(pattern, literals, argumentIndexes);
+
+        formats = super.getFormats();
+        if (formats.length != argumentIndexes.size()) { // => should never happen, unless MessageFormat changes
+            throw new IllegalArgumentException("Cannot compile pattern: " + pattern);
+        }
+        for (int i = 0; i < formats.length; i++) {
+            if (formats[i] != null && !(formats[i] instanceof ChoiceFormat)) { // => choice formats are read-only
+                super.setFormat(i, formats[i] = new ThreadConfinedFormat(formats[i]));
+            }
+        }
+
+        this.literals = literals.toArray(new String[0]);
+        this.argumentIndexes = argumentIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+        this.compiled = true;
+    }
+
+    /**
+     * @return the message, exactly as {@link MessageFormat#format(Object) formatted} by {@link MessageFormat}
+     */
+    public String render(Object... args) {
+        return formatTo(new StringBuilder(literalLength + 16 * arity()), args).toString();
+    }
+
+    public StringBuilder formatTo(StringBuilder out, Object... args) {
+        format(args, out);
+        return out;
+    }
+
+    public <A extends Appendable> A formatTo(A out, Object... args) {
+        if (out instanceof StringBuilder) {
+            format(args, (StringBuilder) out);
+            return out;
+        }
+        try {
+            out.append(render(args));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out;
+    }
+
+    /**
+     * @return the number of format elements in the pattern (some arguments might be referred to more than once)
+     */
+    public int arity() { return argumentIndexes.length; }
+
+    @Override
+    public String toPattern() { return pattern; }
+
+    @Override
+    public Format[] getFormats() {
+        final Format[] formats = this.formats.clone();
+        for (int i = 0; i < formats.length; i++) {
+            final Format format = formats[i] instanceof ThreadConfinedFormat ?
+                                  ((ThreadConfinedFormat) formats[i]).prototype : formats[i];
+            formats[i] = format == null ? null : (Format) format.clone();
+        }
+        return formats;
+    }
+
+    @Override
+    public Format[] getFormatsByArgumentIndex() {
+        final Format[] byElement = getFormats();
+        final Format[] byArgument = new Format[Arrays.stream(argumentIndexes).max().orElse(-1) + 1];
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            byArgument[argumentIndexes[i]] = byElement[i];
+        }
+        return byArgument;
+    }
+
+    @Override
+    public void applyPattern(String pattern) {
+        if (compiled) {
+            throw new UnsupportedOperationException("Message templates are immutable");
+        }
+        super.applyPattern(pattern); // => only called by the constructor of MessageFormat
+    }
+
+    @Override
+    public void setLocale(Locale locale) { throw new UnsupportedOperationException("Message templates are immutable"); }
+
+    @Override
+    public void setFormatsByArgumentIndex(Format[] newFormats) {
+        throw new UnsupportedOperationException("Message templates are immutable");
+    }
+
+    @Override
+    public void setFormats(Format[] newFormats) {
+        throw new UnsupportedOperationException("Message templates are immutable");
+    }
+
+    @Override
+    public void setFormatByArgumentIndex(int argumentIndex, Format newFormat) {
+        throw new UnsupportedOperationException("Message templates are immutable");
+    }
+
+    @Override
+    public void setFormat(int formatElementIndex, Format newFormat) {
+        throw new UnsupportedOperationException("Message templates are immutable");
+    }
+
+    /**
+     * Mirrors {@code MessageFormat.subformat()}.
+     */
+    private void format(Object[] arguments, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            final int index = argumentIndexes[i];
+            if (arguments == null || index >= arguments.length) {
+                out.append('{').append(index).append('}');
+            } else {
+                final Object argument = arguments[index];
+                final Format format = formats[i];
+                if (argument == null) {
+                    out.append("null");
+                } else if (format instanceof ChoiceFormat) {
+                    final String choice = format.format(argument);
+                    if (choice.indexOf('{') >= 0) { // => a nested pattern, formatted with all the arguments
+                        new MessageTemplate(choice, getLocale()).format(arguments, out);
+                    } else {
+                        out.append(choice);
+                    }
+                } else if (format != null) {
+                    out.append(format.format(argument));
+                } else if (argument instanceof String) {
+                    out.append((String) argument);
+                } else if (argument instanceof Number) {
+                    out.append(DEFAULT_FORMATS.get().number(getLocale()).format(argument));
+                } else if (argument instanceof Date) {
+                    out.append(DEFAULT_FORMATS.get().dateTime(getLocale()).format(argument));
+                } else {
+                    out.append(argument);
+                }
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Mirrors {@link MessageFormat#applyPattern(String)}, only keeping the literals and the argument indexes.
+     */
+    private static void parse(String pattern, List<String> literals, List<Integer> argumentIndexes) {
+        final StringBuilder literal = new StringBuilder(), index = new StringBuilder();
+        int part = 0, braceStack = 0;
+        boolean inQuote = false;
+
+        for (int i = 0; i < pattern.length(); i++) {
+            final char ch = pattern.charAt(i);
+            if (part == 0) {
+                if (ch == '\'') {
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                        literal.append(ch);
+                        ++i;
+                    } else {
+                        inQuote = !inQuote;
+                    }
+                } else if (ch == '{' && !inQuote) {
+                    part = 1;
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    index.setLength(0);
+                } else {
+                    literal.append(ch);
+                }
+            } else if (inQuote) {
+                inQuote = ch != '\'';
+            } else {
+                switch (ch) {
+                case ',':
+                    part = part < 3 ? part + 1 : part;
+                    break;
+                case '{':
+                    ++braceStack;
+                    break;
+                case '}':
+                    if (braceStack == 0) {
+                        part = 0;
+                        argumentIndexes.add(Integer.parseInt(index.toString()));
+                    } else {
+                        --braceStack;
+                    }
+                    break;
+                case '\'':
+                    inQuote = true;
+                    break;
+                default:
+                    if (part == 1) {
+                        index.append(ch);
+                    }
+                }
+            }
+        }
+        literals.add(literal.toString());
+    }
+
+    /**
+     * Formats (and parses) by means of a per-thread copy of a (non-thread-safe) prototype format.
+     */
+    private static final class ThreadConfinedFormat extends Format {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Format prototype;
+
+        private transient ThreadLocal<Format> local;
+
+        private ThreadConfinedFormat(Format prototype) { this.prototype = prototype; }
+
+        @Override
+        public StringBuffer format(Object obj, StringBuffer toAppendTo, FieldPosition pos) {
+            return local().format(obj, toAppendTo, pos);
+        }
+
+        @Override
+        public AttributedCharacterIterator formatToCharacterIterator(Object obj) {
+            return local().formatToCharacterIterator(obj);
+        }
+
+        @Override
+        public Object parseObject(String source, ParsePosition pos) { return local().parseObject(source, pos); }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o ||
+                   o instanceof ThreadConfinedFormat && prototype.equals(((ThreadConfinedFormat) o).prototype);
+        }
+
+        @Override
+        public int hashCode() { return prototype.hashCode(); }
+
+        private Format local() {
+            ThreadLocal<Format> local = this.local;
+            if (local == null) { // => benign race, at worst a few more copies get created
+                this.local = local = ThreadLocal.withInitial(() -> (Format) prototype.clone());
+            }
+            return local.get();
+        }
+    }
+
+    /**
+     * The formats of the plain (i.e., untyped) arguments, confined to a thread and cached for the last locale used.
+     */
+    private static final class DefaultFormats {
+
+        private Locale numberLocale;
+
+        private NumberFormat number;
+
+        private Locale dateTimeLocale;
+
+        private DateFormat dateTime;
+
+        private NumberFormat number(Locale locale) {
+            if (number == null || !locale.equals(numberLocale)) {
+                number = NumberFormat.getInstance(locale);
+                numberLocale = locale;
+            }
+            return number;
+        }
+
+        private DateFormat dateTime(Locale locale) {
+            if (dateTime == null || !locale.equals(dateTimeLocale)) {
+                dateTime = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale);
+                dateTimeLocale = locale;
+            }
+            return dateTime;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package net.appfold.sqlrose.i18n;
+
+import net.appfold.sqlrose.logging.Log;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static java.util.Collections.*;
+import static java.util.Objects.requireNonNull;
+import static java.util.ResourceBundle.Control.FORMAT_DEFAULT;
+
+/**
+ * A {@link SimpleI18n#setResourceBundleSupplier(BiFunction) resource bundle supplier} reading {@code .properties}
+ * bundles from the file system (base names being resolved against a root directory, e.g., a {@link
+ * SimpleI18n#L10N_BASEDIR_KEY l10n.basedir} pointing outside of the class path) and reloading them as soon as they
+ * change, without restarting the application.
+ * <p/>
+ * Bundles are kept in an immutable snapshot, published through an atomic reference: readers never lock and see
+ * either the previous or the new version of a bundle, never a partially loaded one. The directories bundles are read
+ * from are watched by a (daemon) thread which, upon changes, only reloads the bundles whose files (or candidate files,
+ * for files not created yet) changed, then swaps in a new snapshot and notifies the {@link
+ * #addListener(BiConsumer) listeners} (e.g., {@link SimpleI18n} instances rebuilding their catalogs). Each batch of
+ * changes is numbered (by a generation counter) so that readers loading a bundle while its files change, too late for
+ * the watcher to see it in the snapshot, load it again themselves rather than publishing a stale version.
+ * <p/>
+ * Locales are resolved as by {@link ResourceBundle#getBundle(String, Locale)} (candidate locales, then the default
+ * locale); base names with no files at all are looked up by a {@code delegate} supplier.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.2, Oct 18, 2026
+ */
+public final class ReloadableBundles implements BiFunction<String, Locale, ResourceBundle>, Closeable {
+
+    private static final ResourceBundle.Control CONTROL = ResourceBundle.Control.getNoFallbackControl(FORMAT_DEFAULT);
+
+    private final Path root;
+
+    private final BiFunction<String, Locale, ResourceBundle> delegate;
+
+    private final AtomicReference<Map<Key, Entry>> snapshot = new AtomicReference<>(emptyMap());
+
+    private final List<BiConsumer<String, Locale>> listeners = new CopyOnWriteArrayList<>();
+
+    private final Set<Path> watchedDirs = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong generation = new AtomicLong(); // => bumped by the watcher upon each batch of changes
+
+    private final Map<Path, Long> changedAt = new ConcurrentHashMap<>(); // => the last generation each file changed in
+
+    private volatile long overflowedAt; // => the last generation events got lost in, i.e., every file changed
+
+    private volatile WatchService watchService; // => created along with the watcher thread, upon the first load
+
+    private volatile boolean closed;
+
+    /**
+     * Resolves base names against the current directory, delegating to {@link CompiledBundles#supplier()}.
+     */
+    public ReloadableBundles() { this(Paths.get(""), CompiledBundles.supplier()); }
+
+    public ReloadableBundles(Path root, BiFunction<String, Locale, ResourceBundle> delegate) {
+        this.root = requireNonNull(root, "Reloadable bundles require a root directory");
+        this.delegate = requireNonNull(delegate, "Reloadable bundles require a delegate supplier");
+    }
+
+    @Override
+    public ResourceBundle apply(String baseName, Locale locale) {
+        final Key key = new Key(requireNonNull(baseName, "Cannot look up a bundle with a null base name"),
+                                locale == null ? Locale.getDefault() : locale);
+        final Entry entry = snapshot.get().get(key);
+        if (entry != null) {
+            return entry.bundle;
+        }
+
+        long generation = this.generation.get();
+        Entry loaded = load(key);
+        publish(singletonMap(key, loaded), false);
+        while (changedSince(loaded.files, generation)) { // => the watcher might have missed the key, load it again
+            generation = this.generation.get();
+            loaded = load(key);
+            publish(singletonMap(key, loaded), true);
+            notifyListeners(singleton(key));
+        }
+        return loaded.bundle;
+    }
+
+    /**
+     * @param listener notified, from the watcher thread, with the base name and (requested) locale of each bundle
+     *                 reloaded
+     */
+    public void addListener(BiConsumer<String, Locale> listener) {
+        listeners.add(requireNonNull(listener, "Cannot notify a null listener"));
+    }
+
+    public void removeListener(BiConsumer<String, Locale> listener) { listeners.remove(listener); }
+
+    /**
+     * Stops watching for changes; bundles already loaded keep being served.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        final WatchService watchService = this.watchService;
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private Entry load(Key key) {
+        final Set<Path> files = new LinkedHashSet<>();
+        final List<FileBundle> chain = new ArrayList<>();
+        read(key.baseName, key.locale, files, chain);
+        if (!key.locale.equals(Locale.getDefault())) { // => a fallback, only read if no requested bundle is found
+            read(key.baseName, Locale.getDefault(), files, chain.isEmpty() ? chain : null);
+        }
+
+        final Path rootFile = file(key.baseName, Locale.ROOT);
+        files.add(rootFile);
+        final FileBundle rootBundle = read(rootFile, Locale.ROOT);
+        if (rootBundle != null) {
+            chain.add(rootBundle);
+        }
+        files.forEach(this::watch);
+
+        if (chain.isEmpty()) {
+            return new Entry(delegate.apply(key.baseName, key.locale), files);
+        }
+        for (int i = 0; i < chain.size() - 1; i++) {
+            chain.get(i).setParent(chain.get(i + 1));
+        }
+        return new Entry(chain.get(0), files);
+    }
+
+    /**
+     * Reads the bundles of the candidate locales of the given {@code locale} into the {@code chain} (unless {@code
+     * null}), most specific first, except for the root bundle, adding their files (whether found or not) to {@code
+     * files}.
+     */
+    private void read(String baseName, Locale locale, Set<Path> files, List<FileBundle> chain) {
+        for (Locale candidate : CONTROL.getCandidateLocales(baseName, locale)) {
+            if (!Locale.ROOT.equals(candidate)) {
+                final Path file = file(baseName, candidate);
+                files.add(file);
+                final FileBundle bundle = chain == null ? null : read(file, candidate);
+                if (bundle != null) {
+                    chain.add(bundle);
+                }
+            }
+        }
+    }
+
+    private Path file(String baseName, Locale locale) {
+        return root.resolve(baseName + (Locale.ROOT.equals(locale) ? "" : "_" + locale) + ".properties")
+                   .toAbsolutePath().normalize();
+    }
+
+    private static FileBundle read(Path file, Locale locale) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return new FileBundle(in, locale);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read bundle " + file, ex);
+        }
+    }
+
+    /**
+     * Copies the current snapshot, adding the given entries, and publishes the copy.
+     *
+     * @param replace whether to replace entries already published (i.e., reloaded) or to keep them (i.e., loaded by
+     *                concurrent readers, which are then just as fresh)
+     */
+    private void publish(Map<Key, Entry> entries, boolean replace) {
+        for (; ; ) {
+            final Map<Key, Entry> current = snapshot.get();
+            final Map<Key, Entry> next = new HashMap<>(current);
+            entries.forEach(replace ? next::put : next::putIfAbsent);
+            if (snapshot.compareAndSet(current, unmodifiableMap(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether any of the given {@code files} changed after the given {@code generation}
+     */
+    private boolean changedSince(Set<Path> files, long generation) {
+        if (overflowedAt > generation) {
+            return true;
+        }
+        for (Path file : files) {
+            final Long changed = changedAt.get(file);
+            if (changed != null && changed > generation) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the {@code changed} files (all of them if {@code null}) as of a new generation, before reloading the
+     * bundles found in the snapshot: bundles published later on are checked against that generation by their readers.
+     */
+    private void reload(Set<Path> changed) {
+        final long generation = this.generation.incrementAndGet();
+        if (changed == null) {
+            overflowedAt = generation;
+        } else {
+            changed.forEach(file -> changedAt.put(file, generation));
+        }
+
+        final Map<Key, Entry> reloaded = new HashMap<>();
+        snapshot.get().forEach((key, entry) -> {
+            if (changed == null || !disjoint(entry.files, changed)) {
+                try {
+                    reloaded.put(key, load(key));
+                } catch (RuntimeException ex) {
+                    Log.logFor(this).warn("Cannot reload bundle {} for locale {}", key.baseName, key.locale, ex);
+                }
+            }
+        });
+
+        if (!reloaded.isEmpty()) {
+            publish(reloaded, true);
+            notifyListeners(reloaded.keySet());
+        }
+    }
+
+    private void notifyListeners(Collection<Key> keys) {
+        for (Key key : keys) {
+            for (BiConsumer<String, Locale> listener : listeners) {
+                listener.accept(key.baseName, key.locale);
+            }
+        }
+    }
+
+    private void watch(Path file) {
+        final Path dir = file.getParent();
+        if (closed || dir == null || watchedDirs.contains(dir) || !Files.isDirectory(dir)) {
+            return;
+        }
+
+        synchronized (watchedDirs) {
+            if (watchedDirs.contains(dir)) {
+                return;
+            }
+            try {
+                if (watchService == null) {
+                    watchService = dir.getFileSystem().newWatchService();
+                    final Thread watcher = new Thread(this::run, "sqlrose-l10n-watcher");
+                    watcher.setDaemon(true);
+                    watcher.start();
+                }
+                dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                watchedDirs.add(dir);
+            } catch (IOException | ClosedWatchServiceException ex) {
+                Log.logFor(this).warn("Cannot watch l10n directory {} for changes", dir, ex);
+            }
+        }
+    }
+
+    private void run() {
+        final WatchService watchService = this.watchService;
+        try {
+            while (!closed) {
+                WatchKey watchKey = watchService.take();
+                Set<Path> changed = new HashSet<>();
+                do { // => drain all pending events so that a file saved in several steps gets reloaded only once
+                    final Path dir = (Path) watchKey.watchable();
+                    for (WatchEvent<?> event : watchKey.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            changed = null; // => reload everything
+                        } else if (changed != null) {
+                            changed.add(dir.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!watchKey.reset()) {
+                        watchedDirs.remove(dir);
+                    }
+                } while ((watchKey = watchService.poll(50, TimeUnit.MILLISECONDS)) != null);
+
+                reload(changed);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // closed, stop watching
+        }
+    }
+
+    private static final class Key {
+
+        private final String baseName;
+
+        private final Locale locale;
+
+        private Key(String baseName, Locale locale) {
+            this.baseName = baseName;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Key && baseName.equals(((Key) o).baseName) &&
+                                locale.equals(((Key) o).locale);
+        }
+
+        @Override
+        public int hashCode() { return 31 * baseName.hashCode() + locale.hashCode(); }
+    }
+
+    private static final class Entry {
+
+        private final ResourceBundle bundle;
+
+        private final Set<Path> files; // => the files the bundle has been (or would have been) read from
+
+        private Entry(ResourceBundle bundle, Set<Path> files) {
+            this.bundle = bundle;
+            this.files = files;
+        }
+    }
+
+    private static final class FileBundle extends PropertyResourceBundle {
+
+        private final Locale locale;
+
+        private FileBundle(InputStream in, Locale locale) throws IOException {
+            super(in);
+            this.locale = locale;
+        }
+
+        @Override
+        public Locale getLocale() { return locale; }
+
+        @Override
+        protected void setParent(ResourceBundle parent) { super.setParent(parent); }
+    }
+}
@@ -1,19 +1,21 @@
 package net.appfold.sqlrose.i18n;
 
 import lombok.NonNull;
+import net.appfold.sqlrose.metrics.Histogram;
+import net.appfold.sqlrose.metrics.Metrics;
 
 import java.text.MessageFormat;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.*;
 
 import static java.lang.System.getProperty;
 import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
 import static java.util.Collections.addAll;
 import static java.util.Optional.*;
-import static java.util.ResourceBundle.getBundle;
-import static net.appfold.sqlrose.cache.MemoizedBiFn.memoize;
+import static net.appfold.sqlrose.cache.MemoizedBiFn.memoizeTwoLevel;
 import static org.apache.commons.lang3.StringUtils.appendIfMissing;
 
 /**
@@ -23,15 +25,16 @@ import static org.apache.commons.lang3.StringUtils.appendIfMissing;
  * <p/>
  * Very similar in behaviour to <code><a href="https://docs.spring.io/spring/docs/current/javadoc-api/org/springframework/context/support/ResourceBundleMessageSource.html">
  * Spring's ResourceBundleMessageSource</a></code>, this class relies on the underlying JDK's {@link ResourceBundle}
- * implementation in combination with the JDK's standard message parsing provided by {@link MessageFormat}, {@link
- * net.appfold.sqlrose.cache.SoftCache (soft-)caches} by default the generated message formats for each message and can
- * be configured concerning how both the {@link #setResourceBundleSupplier(BiFunction) resource bundles} and the {@link
- * #setMessageFormatSupplier(BiFunction) message formats} are created. It also suffers from the same shortcomings as
- * {@code ResourceBundleMessageSource} so a {@code ReloadableResourceBundleMessageSource} might be a better choice if
- * the client application is based on Spring.
+ * implementation in combination with the JDK's standard message parsing provided by {@link MessageFormat} (by means
+ * of thread-safe, precompiled {@link MessageTemplate templates}), {@link net.appfold.sqlrose.cache.TwoLevelCache
+ * (soft-)caches} by default the generated message formats for each message and can be configured concerning how both
+ * the {@link #setResourceBundleSupplier(BiFunction) resource bundles} and the {@link
+ * #setMessageFormatSupplier(BiFunction) message formats} are created. It also suffers from the same
+ * shortcomings as {@code ResourceBundleMessageSource} so a {@code ReloadableResourceBundleMessageSource} might be a
+ * better choice if the client application is based on Spring.
  *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 1.0, May 23, 2019
+ * @version 1.9, Oct 18, 2026
  * @see <a href="https://blog.joda.org/2011/08/implementations-of-interfaces-prefixes.html">Implementations of
  *     interfaces - prefixes and suffixes</a>
  * @see <a href="https://stackoverflow.com/a/23895571/272939">Answer to <em>Fluent API with inheritance and
@@ -45,21 +48,44 @@ public class SimpleI18n<SELF extends SimpleI18n<SELF>> implements I18n {
 
     public static final String L10N_BASEDIR_DEF = "l10n/";
 
+    /**
+     * Latencies of translations, across instances and {@link I18nView views}.
+     */
+    static final Histogram TRANSLATIONS = Metrics.histogram("i18n.t");
+
     protected final Set<String> bundleBaseNames = new LinkedHashSet<>(4);
 
     protected String bundlePrefix;
 
     protected Locale locale;
 
-    protected BiFunction<String, Locale, MessageFormat> messageFormatSupplier = memoize(MessageFormat::new);
+    /**
+     * Shared by all instances since {@link MessageTemplate templates} are immutable.
+     */
+    protected static final BiFunction<String, Locale, MessageFormat> MESSAGE_TEMPLATES =
+        memoizeTwoLevel(MessageTemplate::new);
+
+    protected BiFunction<String, Locale, MessageFormat> messageFormatSupplier = MESSAGE_TEMPLATES;
 
-    protected BiFunction<String, Locale, ResourceBundle> resourceBundleSupplier =
-        (baseName, locale) -> locale == null ? getBundle(baseName) : getBundle(baseName, locale);
+    /**
+     * Reads the bundles {@link BundleCompiler compiled at build time}, if any, and {@link ResourceBundle#getBundle
+     * looks up} the others.
+     */
+    protected BiFunction<String, Locale, ResourceBundle> resourceBundleSupplier = CompiledBundles.supplier();
 
     protected DateTimeFormatter dateTimeFormatter = RFC_1123_DATE_TIME;
 
     protected ZoneId zoneId = ZoneId.systemDefault();
 
+    /**
+     * Built lazily, by locale, and discarded whenever the bundles to look messages up in change.
+     */
+    protected final Map<Locale, MessageCatalog> catalogs = new ConcurrentHashMap<>();
+
+    private volatile TimestampFormat timestamps; // => the last one resolved, reused as long as settings do not change
+
+    private final BiConsumer<String, Locale> reloadListener = (baseName, locale) -> bundleReloaded(locale);
+
     public SimpleI18n(String... bundleBaseNames) {
         setBundlePrefix(getProperty(L10N_BASEDIR_KEY, L10N_BASEDIR_DEF));
         addBundleBaseNames(bundleBaseNames);
@@ -68,6 +94,7 @@ public class SimpleI18n<SELF extends SimpleI18n<SELF>> implements I18n {
     public SELF addBundleBaseNames(String... bundleBaseNames) {
         if (bundleBaseNames != null && bundleBaseNames.length > 0) {
             addAll(this.bundleBaseNames, bundleBaseNames);
+            catalogs.clear();
         }
         return self();
     }
@@ -77,11 +104,13 @@ public class SimpleI18n<SELF extends SimpleI18n<SELF>> implements I18n {
         if (bundleBaseNames != null && !bundleBaseNames.isEmpty()) {
             this.bundleBaseNames.addAll(bundleBaseNames);
         }
+        catalogs.clear();
         return self();
     }
 
     public SELF setBundlePrefix(String bundlePrefix) {
         this.bundlePrefix = appendIfMissing(bundlePrefix == null ? null : bundlePrefix.trim(), "/");
+        catalogs.clear();
         return self();
     }
 
@@ -90,8 +119,19 @@ public class SimpleI18n<SELF extends SimpleI18n<SELF>> implements I18n {
         return self();
     }
 
+    /**
+     * @param resourceBundleSupplier if {@link ReloadableBundles reloadable}, catalogs get rebuilt whenever any of
+     *                               their bundles is reloaded
+     */
     public SELF setResourceBundleSupplier(BiFunction<String, Locale, ResourceBundle> resourceBundleSupplier) {
+        if (this.resourceBundleSupplier instanceof ReloadableBundles) {
+            ((ReloadableBundles) this.resourceBundleSupplier).removeListener(reloadListener);
+        }
         this.resourceBundleSupplier = resourceBundleSupplier;
+        if (resourceBundleSupplier instanceof ReloadableBundles) {
+            ((ReloadableBundles) resourceBundleSupplier).addListener(reloadListener);
+        }
+        catalogs.clear();
         return self();
     }
 
@@ -127,57 +167,169 @@ public class SimpleI18n<SELF extends SimpleI18n<SELF>> implements I18n {
         }
 
         final Locale locale = firstNonNull(this::getLocale, this::getDefaultLocale).orElseGet(Locale::getDefault);
+        return translate(key, locale, args);
+    }
 
+    /**
+     * Translates the message for the given {@code locale} rather than for the {@link #getLocale() current} one; meant
+     * to be called by {@link #view(Locale, ZoneId, DateTimeFormatter) views}.
+     */
+    @NonNull
+    public String translate(String key, @NonNull Locale locale, Object... args) {
+        if (key == null) {
+            return "";
+        }
+
+        final long start = System.nanoTime();
+        try {
+            return render(key, locale, args);
+        } finally {
+            TRANSLATIONS.time(start);
+        }
+    }
+
+    @NonNull
+    private String render(@NonNull String key, @NonNull Locale locale, Object... args) {
         final String message = message(key, locale);
         if (args == null || args.length == 0 || messageFormatSupplier == null) {
             return message;
         }
 
         final MessageFormat format = messageFormatSupplier.apply(message, locale);
-        return format == null ? message : format.format(args);
+        return format == null ? message :
+               format instanceof MessageTemplate ? ((MessageTemplate) format).render(args) : format.format(args);
     }
 
+    /**
+     * Looks the message up in the {@link #catalog(Locale) catalog} of the given {@code locale}.
+     */
     @NonNull
     protected String message(@NonNull String key, @NonNull Locale locale) {
         if (resourceBundleSupplier == null) {
             return key;
         }
 
-        for (String baseName : bundleBaseNames) {
-            if (baseName == null) {
-                continue;
-            }
+        final String message = catalog(locale).get(key);
+        return message == null ? key : message;
+    }
+
+    /**
+     * @return the messages of all the bundles, for the given {@code locale}, merged once into a single catalog
+     */
+    @NonNull
+    protected MessageCatalog catalog(@NonNull Locale locale) {
+        final MessageCatalog catalog = catalogs.get(locale); // => never locks, unlike computeIfAbsent() on Java 8
+        return catalog != null ? catalog : catalogs.computeIfAbsent(locale, this::loadCatalog);
+    }
 
-            if (bundlePrefix != null) {
-                baseName = bundlePrefix + baseName;
+    /**
+     * Rebuilds the catalog of the given {@code locale} (if already built), then swaps it in; meanwhile, messages keep
+     * being looked up in the previous one.
+     */
+    protected void bundleReloaded(@NonNull Locale locale) {
+        if (catalogs.containsKey(locale)) {
+            catalogs.put(locale, loadCatalog(locale));
+        }
+    }
+
+    @NonNull
+    protected MessageCatalog loadCatalog(@NonNull Locale locale) {
+        final List<ResourceBundle> bundles = new ArrayList<>(bundleBaseNames.size());
+        for (String baseName : bundleBaseNames) {
+            final ResourceBundle resourceBundle = resourceBundle(baseName, locale);
+            if (resourceBundle != null) {
+                bundles.add(resourceBundle);
             }
+        }
+        return new MessageCatalog(locale, MessageCatalog.merge(bundles), key -> resolve(key, locale));
+    }
 
-            try {
-                final ResourceBundle resourceBundle = resourceBundleSupplier.apply(baseName, locale);
-                if (resourceBundle != null) {
+    /**
+     * Looks the message up in each bundle, in turn; only called for keys bundles do not enumerate.
+     *
+     * @return the message or {@code null} if missing
+     */
+    protected String resolve(@NonNull String key, @NonNull Locale locale) {
+        for (String baseName : bundleBaseNames) {
+            final ResourceBundle resourceBundle = resourceBundle(baseName, locale);
+            if (resourceBundle != null) {
+                try {
                     return resourceBundle.getString(key);
+                } catch (MissingResourceException ex) {
+                    // continue to the next bundle (base name)
                 }
-            } catch (MissingResourceException ex) {
-                // continue to the next bundle (base name)
             }
         }
+        return null;
+    }
+
+    protected ResourceBundle resourceBundle(String baseName, @NonNull Locale locale) {
+        if (baseName == null || resourceBundleSupplier == null) {
+            return null;
+        }
 
-        return key;
+        if (bundlePrefix != null) {
+            baseName = bundlePrefix + baseName;
+        }
+
+        try {
+            return resourceBundleSupplier.apply(baseName, locale);
+        } catch (MissingResourceException ex) {
+            return null;
+        }
     }
 
     @NonNull
     @Override
-    public String l(Instant instant) {
-        if (instant == null) {
-            return "";
+    public String l(Instant instant) { return instant == null ? "" : timestamps().format(instant); }
+
+    @NonNull
+    public String localize(Instant instant, @NonNull DateTimeFormatter dtf, @NonNull Locale locale,
+                           @NonNull ZoneId zoneId) {
+        return instant == null ? "" : TimestampFormat.of(dtf, locale, zoneId).format(instant);
+    }
+
+    /**
+     * Resolves the current date/time formatter, locale and time-zone (or their defaults) without allocating, then
+     * reuses the format last resolved if they did not change since.
+     */
+    @NonNull
+    @Override
+    public TimestampFormat timestamps() {
+        DateTimeFormatter dtf = getDateTimeFormatter();
+        if (dtf == null) {
+            dtf = getDefaultDateTimeFormatter();
+        }
+        Locale locale = getLocale();
+        if (locale == null) {
+            locale = getDefaultLocale();
+        }
+        ZoneId zoneId = getZoneId();
+        if (zoneId == null) {
+            zoneId = getDefaultZoneId();
         }
 
-        final DateTimeFormatter dtf =
-            firstNonNull(this::getDateTimeFormatter, this::getDefaultDateTimeFormatter).orElse(RFC_1123_DATE_TIME);
-        final Locale locale = firstNonNull(this::getLocale, this::getDefaultLocale).orElseGet(Locale::getDefault);
-        final ZoneId zoneId = firstNonNull(this::getZoneId, this::getDefaultZoneId).orElseGet(ZoneId::systemDefault);
+        final TimestampFormat timestamps = this.timestamps;
+        return timestamps != null && timestamps.isFor(dtf, locale, zoneId) ? timestamps :
+               (this.timestamps = TimestampFormat.of(dtf, locale, zoneId));
+    }
 
-        return dtf.withLocale(locale).format(instant.atZone(zoneId));
+    /**
+     * @return a view of {@code this} instance for the given locale, using the current time-zone and date/time
+     *     formatter
+     * @see #view(Locale, ZoneId, DateTimeFormatter)
+     */
+    @NonNull
+    public I18nView view(Locale locale) { return view(locale, getZoneId(), getDateTimeFormatter()); }
+
+    /**
+     * Views are the cheap way of translating and localizing for many users or requests: they only hold their own
+     * locale, time-zone and date/time formatter while sharing the catalogs and message formats of {@code this} (meant
+     * to be a long lived, configured once) instance; {@code null} arguments stand for the {@link I18n} defaults.
+     */
+    @NonNull
+    public I18nView view(Locale locale, ZoneId zoneId, DateTimeFormatter dateTimeFormatter) {
+        return new I18nView(this, locale, zoneId, dateTimeFormatter);
     }
 
     @NonNull
@@ -0,0 +1,556 @@
+package net.appfold.sqlrose.i18n;
+
+import net.appfold.sqlrose.cache.ConcurrentSoftCache;
+import net.appfold.sqlrose.cache.SoftCache;
+import net.appfold.sqlrose.metrics.Histogram;
+import net.appfold.sqlrose.metrics.Metrics;
+
+import java.time.*;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.*;
+
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static java.time.temporal.ChronoField.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link DateTimeFormatter date/time formatter} resolved once for a {@link Locale locale} and a {@link ZoneId
+ * time-zone}, meant to format (many) timestamps fast, e.g., the {@code TIMESTAMP} cells of a result grid, one by one or
+ * a whole (epoch milliseconds) column at a time.
+ * <p/>
+ * Rather than building a {@link ZonedDateTime} for each timestamp, instances format a per-thread, mutable view of it
+ * whose date and offset are only resolved when the timestamp falls outside the day (or, on time-zone transition days,
+ * the part of the day) of the previous one. Formats {@link #ofPattern(String, Locale, ZoneId) built from patterns}
+ * whose date fields all precede their time fields (e.g., {@code yyyy-MM-dd HH:mm:ss}) go one step further and only
+ * format the date prefix once per day, too, and print their time suffix directly if it only holds numeric fields.
+ * Instances are immutable and thread-safe; {@link #of(DateTimeFormatter, Locale, ZoneId) resolving} them is
+ * (soft-)cached.
+ * <p/>
+ * Formatting a whole column is timed in the {@code i18n.l} {@link Metrics#histogram(String) latency histogram};
+ * formatting a single timestamp is not, two {@link System#nanoTime()} calls costing about as much as the formatting.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+public final class TimestampFormat {
+
+    private static final SoftCache<Key, TimestampFormat> FORMATS = new ConcurrentSoftCache<>();
+
+    private static final Histogram COLUMNS = Metrics.histogram("i18n.l"); // => across all formats
+
+    private static final String DATE_LETTERS = "GuyDMLdQqYwWEecF";
+
+    private static final String TIME_LETTERS = "ahKkHmsSAnNVzOXxZ"; // => zone names and offsets may change in a day
+
+    private final Key key;
+
+    private final DateTimeFormatter formatter;
+
+    private final DateTimeFormatter dateFormatter; // => both null unless the date prefix can be formatted apart
+
+    private final DateTimeFormatter timeFormatter;
+
+    private final TimePrinter timePrinter; // => null unless the time suffix only has numeric fields (and literals)
+
+    private final Locale locale;
+
+    private final ZoneId zoneId;
+
+    private final ThreadLocal<Timestamp> timestamps;
+
+    private TimestampFormat(Key key, DateTimeFormatter formatter, DateTimeFormatter dateFormatter,
+                            DateTimeFormatter timeFormatter, TimePrinter timePrinter, Locale locale, ZoneId zoneId) {
+        this.key = key;
+        this.formatter = formatter;
+        this.dateFormatter = dateFormatter;
+        this.timeFormatter = timeFormatter;
+        this.timePrinter = timePrinter;
+        this.locale = locale;
+        this.zoneId = zoneId;
+        this.timestamps = ThreadLocal.withInitial(() -> new Timestamp(zoneId)); // => not referencing this instance
+    }
+
+    /**
+     * @param formatter {@code null} for {@link DateTimeFormatter#RFC_1123_DATE_TIME RFC 1123}; if it overrides the
+     *                  time-zone, timestamps are formatted in that time-zone rather than in the given {@code zoneId}
+     * @param locale    {@code null} for {@link Locale#getDefault()}
+     * @param zoneId    {@code null} for {@link ZoneId#systemDefault()}
+     */
+    public static TimestampFormat of(DateTimeFormatter formatter, Locale locale, ZoneId zoneId) {
+        final Key key = new Key(formatter == null ? RFC_1123_DATE_TIME : formatter,
+                                locale == null ? Locale.getDefault() : locale,
+                                zoneId == null ? ZoneId.systemDefault() : zoneId);
+        return FORMATS.getOrCompute(key, TimestampFormat::resolve);
+    }
+
+    /**
+     * @param pattern as accepted by {@link DateTimeFormatter#ofPattern(String)}
+     * @see #of(DateTimeFormatter, Locale, ZoneId)
+     */
+    public static TimestampFormat ofPattern(String pattern, Locale locale, ZoneId zoneId) {
+        final Key key = new Key(requireNonNull(pattern, "Cannot format timestamps with a null pattern"),
+                                locale == null ? Locale.getDefault() : locale,
+                                zoneId == null ? ZoneId.systemDefault() : zoneId);
+        return FORMATS.getOrCompute(key, TimestampFormat::resolve);
+    }
+
+    private static TimestampFormat resolve(Key key) {
+        if (key.format instanceof String) {
+            final String pattern = (String) key.format;
+            final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, key.locale);
+
+            final int split = datePrefixLength(pattern);
+            if (split <= 0) {
+                return new TimestampFormat(key, formatter, null, null, null, key.locale, key.zoneId);
+            }
+            return new TimestampFormat(key, formatter,
+                                       DateTimeFormatter.ofPattern(pattern.substring(0, split), key.locale),
+                                       DateTimeFormatter.ofPattern(pattern.substring(split), key.locale),
+                                       TimePrinter.compile(pattern.substring(split)), key.locale, key.zoneId);
+        }
+
+        final DateTimeFormatter formatter = ((DateTimeFormatter) key.format).withLocale(key.locale);
+        return new TimestampFormat(key, formatter, null, null, null, key.locale,
+                                   formatter.getZone() == null ? key.zoneId : formatter.getZone());
+    }
+
+    /**
+     * @return the length of the {@code pattern} prefix holding all of its date fields (and the literals following
+     *     them) but no time field, or {@code 0} if the pattern has no such prefix (e.g., time fields come first) or
+     *     cannot be split (e.g., has optional sections)
+     */
+    static int datePrefixLength(String pattern) {
+        int split = 0;
+        boolean date = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\'') {
+                i = pattern.indexOf('\'', i + 1); // => '' (an escaped quote) is skipped as an empty literal
+                if (i < 0) {
+                    return 0;
+                }
+            } else if (c == '[' || c == ']' || c == 'p' || c == '{' || c == '}' || c == '#') {
+                return 0;
+            } else if (DATE_LETTERS.indexOf(c) >= 0) {
+                if (split > 0) {
+                    return 0; // => a date field follows a time field
+                }
+                date = true;
+            } else if (TIME_LETTERS.indexOf(c) >= 0) {
+                if (split == 0) {
+                    split = i;
+                }
+            } else if (c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z') {
+                return 0; // => unknown (or reserved) pattern letter
+            }
+        }
+        return date ? split : 0;
+    }
+
+    /**
+     * @return whether {@code this} format is the one {@link #of(DateTimeFormatter, Locale, ZoneId) resolved} for the
+     *     given arguments, i.e., whether it can be reused instead of looking it up again
+     */
+    public boolean isFor(DateTimeFormatter formatter, Locale locale, ZoneId zoneId) {
+        return key.format == (formatter == null ? RFC_1123_DATE_TIME : formatter) &&
+               key.locale.equals(locale == null ? Locale.getDefault() : locale) &&
+               key.zoneId.equals(zoneId == null ? ZoneId.systemDefault() : zoneId);
+    }
+
+    public DateTimeFormatter getFormatter() { return formatter; }
+
+    public Locale getLocale() { return locale; }
+
+    public ZoneId getZoneId() { return zoneId; }
+
+    /**
+     * @return whether the date prefix is formatted only once per day
+     */
+    public boolean reusesDatePrefix() { return dateFormatter != null; }
+
+    /**
+     * @return whether the time suffix is printed directly, rather than by a {@link DateTimeFormatter} (which, e.g.,
+     *     prints fractions of a second by means of {@link java.math.BigDecimal}s on Java 8)
+     */
+    public boolean printsTimeDirectly() { return timePrinter != null; }
+
+    public String format(Instant instant) {
+        return instant == null ? "" : format(timestamps.get(), instant.getEpochSecond(), instant.getNano());
+    }
+
+    public String format(long epochMilli) {
+        return format(timestamps.get(), floorDiv(epochMilli, 1000L), nanoOf(epochMilli));
+    }
+
+    /**
+     * @return the cells of a whole column of timestamps (i.e., epoch milliseconds)
+     */
+    public String[] format(long[] epochMillis) {
+        return epochMillis == null ? new String[0] : format(epochMillis, 0, epochMillis.length);
+    }
+
+    /**
+     * @param from inclusive
+     * @param to   exclusive
+     */
+    public String[] format(long[] epochMillis, int from, int to) {
+        requireNonNull(epochMillis, "Cannot format a null column");
+        if (from < 0 || to > epochMillis.length || from > to) {
+            throw new IndexOutOfBoundsException("Cannot format range [" + from + ", " + to + ") of a column of " +
+                                                epochMillis.length + " timestamps");
+        }
+
+        final long start = System.nanoTime();
+        final Timestamp timestamp = timestamps.get();
+        final String[] cells = new String[to - from];
+        for (int i = from; i < to; i++) {
+            final long epochMilli = epochMillis[i];
+            cells[i - from] = format(timestamp, floorDiv(epochMilli, 1000L), nanoOf(epochMilli));
+        }
+        COLUMNS.time(start);
+        return cells;
+    }
+
+    /**
+     * Appends the formatted {@code instant} (nothing if {@code null}) straight to {@code out}.
+     *
+     * @return {@code out}
+     */
+    public StringBuilder formatTo(Instant instant, StringBuilder out) {
+        requireNonNull(out, "Cannot format to a null builder");
+        return instant == null ? out : formatTo(timestamps.get(), instant.getEpochSecond(), instant.getNano(), out);
+    }
+
+    /**
+     * @return {@code out}
+     * @see #formatTo(Instant, StringBuilder)
+     */
+    public StringBuilder formatTo(long epochMilli, StringBuilder out) {
+        requireNonNull(out, "Cannot format to a null builder");
+        return formatTo(timestamps.get(), floorDiv(epochMilli, 1000L), nanoOf(epochMilli), out);
+    }
+
+    private static int nanoOf(long epochMilli) { return (int) floorMod(epochMilli, 1000L) * 1_000_000; }
+
+    private String format(Timestamp timestamp, long epochSecond, int nano) {
+        if (timestamp.text != null && timestamp.textSecond == epochSecond && timestamp.textNano == nano) {
+            return timestamp.text; // => e.g., sorted columns repeating timestamps
+        }
+
+        timestamp.buffer.setLength(0);
+        timestamp.text = formatTo(timestamp, epochSecond, nano, timestamp.buffer).toString();
+        timestamp.textSecond = epochSecond;
+        timestamp.textNano = nano;
+        return timestamp.text;
+    }
+
+    private StringBuilder formatTo(Timestamp timestamp, long epochSecond, int nano, StringBuilder out) {
+        if (epochSecond < timestamp.from || epochSecond >= timestamp.until) {
+            timestamp.resolve(epochSecond);
+        }
+        timestamp.epochSecond = epochSecond;
+        timestamp.nanoOfDay = (epochSecond + timestamp.offset.getTotalSeconds() - timestamp.date.toEpochDay() * 86400L)
+                              * 1_000_000_000L + nano;
+
+        if (dateFormatter == null) {
+            formatter.formatTo(timestamp, out);
+        } else {
+            if (timestamp.datePrefix == null) {
+                timestamp.datePrefix = dateFormatter.format(timestamp.date);
+            }
+            out.append(timestamp.datePrefix);
+            if (timePrinter != null) {
+                timePrinter.print(timestamp.nanoOfDay, out);
+            } else {
+                timeFormatter.formatTo(timestamp, out);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() { return "TimestampFormat(" + formatter + ", " + locale + ", " + zoneId + ")"; }
+
+    /**
+     * Prints time patterns made only of numeric fields ({@code H}, {@code k}, {@code K}, {@code h}, {@code m}, {@code
+     * s}, up to twice, and {@code S}) and literals the way {@link DateTimeFormatter#ofPattern(String)} does.
+     */
+    private static final class TimePrinter {
+
+        private static final int[] POWERS_OF_TEN =
+            {1, 10, 100, 1000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000};
+
+        private final char[] letters; // => '\0' for literals
+
+        private final int[] widths;
+
+        private final String[] literals;
+
+        private TimePrinter(char[] letters, int[] widths, String[] literals) {
+            this.letters = letters;
+            this.widths = widths;
+            this.literals = literals;
+        }
+
+        private static TimePrinter compile(String pattern) {
+            final StringBuilder letters = new StringBuilder();
+            final List<Integer> widths = new ArrayList<>();
+            final List<String> literals = new ArrayList<>();
+            for (int i = 0; i < pattern.length(); ) {
+                final char c = pattern.charAt(i);
+                if (c == '\'') {
+                    final StringBuilder literal = new StringBuilder();
+                    int j = i + 1;
+                    for (; j < pattern.length(); j++) {
+                        if (pattern.charAt(j) == '\'') {
+                            if (j + 1 < pattern.length() && pattern.charAt(j + 1) == '\'') {
+                                j++; // => an escaped quote within the literal
+                            } else {
+                                break;
+                            }
+                        }
+                        literal.append(pattern.charAt(j));
+                    }
+                    if (j >= pattern.length()) {
+                        return null;
+                    }
+                    letters.append('\0');
+                    widths.add(0);
+                    literals.add(i + 1 == j ? "'" : literal.toString());
+                    i = j + 1;
+                } else if (c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z') {
+                    int j = i;
+                    while (j < pattern.length() && pattern.charAt(j) == c) {
+                        j++;
+                    }
+                    if ("HkKhms".indexOf(c) >= 0 && j - i <= 2 || c == 'S' && j - i <= 9) {
+                        letters.append(c);
+                        widths.add(j - i);
+                        literals.add(null);
+                        i = j;
+                    } else {
+                        return null;
+                    }
+                } else if ("[]{}#".indexOf(c) >= 0) {
+                    return null;
+                } else {
+                    letters.append('\0');
+                    widths.add(0);
+                    literals.add(String.valueOf(c));
+                    i++;
+                }
+            }
+
+            final int[] w = new int[widths.size()];
+            for (int i = 0; i < w.length; i++) {
+                w[i] = widths.get(i);
+            }
+            return new TimePrinter(letters.toString().toCharArray(), w, literals.toArray(new String[0]));
+        }
+
+        private void print(long nanoOfDay, StringBuilder out) {
+            final int secondOfDay = (int) (nanoOfDay / 1_000_000_000L);
+            final int hour = secondOfDay / 3600;
+            for (int i = 0; i < letters.length; i++) {
+                switch (letters[i]) {
+                case 'H':
+                    pad(hour, widths[i], out);
+                    break;
+                case 'k':
+                    pad(hour == 0 ? 24 : hour, widths[i], out);
+                    break;
+                case 'K':
+                    pad(hour % 12, widths[i], out);
+                    break;
+                case 'h':
+                    pad(hour % 12 == 0 ? 12 : hour % 12, widths[i], out);
+                    break;
+                case 'm':
+                    pad(secondOfDay / 60 % 60, widths[i], out);
+                    break;
+                case 's':
+                    pad(secondOfDay % 60, widths[i], out);
+                    break;
+                case 'S':
+                    final int fraction = (int) (nanoOfDay % 1_000_000_000L) / POWERS_OF_TEN[9 - widths[i]];
+                    for (int digit = widths[i] - 1; digit >= 0; digit--) { // => truncated, as DateTimeFormatter does
+                        out.append((char) ('0' + fraction / POWERS_OF_TEN[digit] % 10));
+                    }
+                    break;
+                default:
+                    out.append(literals[i]);
+                }
+            }
+        }
+
+        private static void pad(int value, int width, StringBuilder out) {
+            if (width == 2 && value < 10) {
+                out.append('0');
+            }
+            out.append(value);
+        }
+    }
+
+    private static final class Key {
+
+        private final Object format; // => a DateTimeFormatter (compared by identity) or a pattern
+
+        private final Locale locale;
+
+        private final ZoneId zoneId;
+
+        private Key(Object format, Locale locale, ZoneId zoneId) {
+            this.format = format;
+            this.locale = locale;
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Key && format.equals(((Key) o).format) &&
+                                locale.equals(((Key) o).locale) && zoneId.equals(((Key) o).zoneId);
+        }
+
+        @Override
+        public int hashCode() { return (31 * format.hashCode() + locale.hashCode()) * 31 + zoneId.hashCode(); }
+    }
+
+    /**
+     * A mutable {@link TemporalAccessor} standing for the timestamp being formatted; its date and offset are valid for
+     * the epoch seconds in [{@code from}, {@code until}).
+     */
+    private static final class Timestamp implements TemporalAccessor {
+
+        private final StringBuilder buffer = new StringBuilder(48);
+
+        private final ZoneId zoneId;
+
+        private final ZoneRules rules;
+
+        private long from = Long.MAX_VALUE, until = Long.MIN_VALUE;
+
+        private LocalDate date;
+
+        private ZoneOffset offset;
+
+        private String datePrefix;
+
+        private long epochSecond, nanoOfDay;
+
+        private String text; // => the last timestamp formatted to a string
+
+        private long textSecond;
+
+        private int textNano;
+
+        private Timestamp(ZoneId zoneId) {
+            this.zoneId = zoneId;
+            this.rules = zoneId.getRules();
+        }
+
+        private void resolve(long epochSecond) {
+            final Instant instant = Instant.ofEpochSecond(epochSecond);
+            offset = rules.getOffset(instant);
+
+            final long epochDay = floorDiv(epochSecond + offset.getTotalSeconds(), 86400L);
+            date = LocalDate.ofEpochDay(epochDay);
+            datePrefix = null;
+            from = epochDay * 86400L - offset.getTotalSeconds();
+            until = from + 86400L;
+
+            if (!rules.isFixedOffset()) {
+                final ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1)); // => or at
+                if (previous != null && previous.toEpochSecond() > from) {
+                    from = previous.toEpochSecond();
+                }
+                final ZoneOffsetTransition next = rules.nextTransition(instant);
+                if (next != null && next.toEpochSecond() < until) {
+                    until = next.toEpochSecond();
+                }
+            }
+        }
+
+        @Override
+        public boolean isSupported(TemporalField field) {
+            return field instanceof ChronoField || field != null && field.isSupportedBy(this);
+        }
+
+        @Override
+        public long getLong(TemporalField field) {
+            if (!(field instanceof ChronoField)) {
+                return requireNonNull(field, "Cannot get a null field").getFrom(this);
+            }
+
+            switch ((ChronoField) field) {
+            case INSTANT_SECONDS:
+                return epochSecond;
+            case OFFSET_SECONDS:
+                return offset.getTotalSeconds();
+            case NANO_OF_SECOND:
+                return nanoOfDay % 1_000_000_000L;
+            case NANO_OF_DAY:
+                return nanoOfDay;
+            case MICRO_OF_SECOND:
+                return nanoOfDay % 1_000_000_000L / 1000;
+            case MICRO_OF_DAY:
+                return nanoOfDay / 1000;
+            case MILLI_OF_SECOND:
+                return nanoOfDay % 1_000_000_000L / 1_000_000;
+            case MILLI_OF_DAY:
+                return nanoOfDay / 1_000_000;
+            case SECOND_OF_MINUTE:
+                return nanoOfDay / 1_000_000_000L % 60;
+            case SECOND_OF_DAY:
+                return nanoOfDay / 1_000_000_000L;
+            case MINUTE_OF_HOUR:
+                return nanoOfDay / 60_000_000_000L % 60;
+            case MINUTE_OF_DAY:
+                return nanoOfDay / 60_000_000_000L;
+            case HOUR_OF_AMPM:
+                return nanoOfDay / 3_600_000_000_000L % 12;
+            case CLOCK_HOUR_OF_AMPM:
+                final long hourOfAmPm = nanoOfDay / 3_600_000_000_000L % 12;
+                return hourOfAmPm == 0 ? 12 : hourOfAmPm;
+            case HOUR_OF_DAY:
+                return nanoOfDay / 3_600_000_000_000L;
+            case CLOCK_HOUR_OF_DAY:
+                final long hourOfDay = nanoOfDay / 3_600_000_000_000L;
+                return hourOfDay == 0 ? 24 : hourOfDay;
+            case AMPM_OF_DAY:
+                return nanoOfDay / 3_600_000_000_000L / 12;
+            default:
+                return date.getLong(field);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R query(TemporalQuery<R> query) {
+            if (query == TemporalQueries.zoneId() || query == TemporalQueries.zone()) {
+                return (R) zoneId;
+            }
+            if (query == TemporalQueries.offset()) {
+                return (R) offset;
+            }
+            if (query == TemporalQueries.chronology()) {
+                return (R) IsoChronology.INSTANCE;
+            }
+            if (query == TemporalQueries.localDate()) {
+                return (R) date;
+            }
+            if (query == TemporalQueries.localTime()) {
+                return (R) LocalTime.ofNanoOfDay(nanoOfDay);
+            }
+            if (query == TemporalQueries.precision()) {
+                return (R) ChronoUnit.NANOS;
+            }
+            return query.queryFrom(this);
+        }
+    }
+}
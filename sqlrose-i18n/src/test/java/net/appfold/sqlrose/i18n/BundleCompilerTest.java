@@ -0,0 +1,120 @@
+package net.appfold.sqlrose.i18n;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class BundleCompilerTest {
+
+    @TempDir
+    Path directory;
+
+    private Path sourceDir, outputDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        sourceDir = Files.createDirectory(directory.resolve("src"));
+        outputDir = Files.createDirectory(directory.resolve("out"));
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        final Path file = sourceDir.resolve(name + ".properties");
+        Files.createDirectories(file.getParent());
+        Files.write(file, asList(lines), ISO_8859_1);
+    }
+
+    /**
+     * Looks the bundle up the way the application would, the catalogs being on the class path.
+     */
+    private ResourceBundle lookup(String baseName, Locale locale) throws IOException {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextClassLoader = thread.getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toUri().toURL()}, null)) {
+            thread.setContextClassLoader(loader);
+            return CompiledBundles.supplier().apply(baseName, locale);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private IllegalStateException assertCannotCompile() {
+        final IllegalStateException ex =
+            assertThrows(IllegalStateException.class, () -> BundleCompiler.compile(sourceDir, outputDir));
+        assertEquals(0, outputDir.toFile().list().length, "Nothing should be written");
+        return ex;
+    }
+
+    @Test
+    public void compile_CompleteTranslationsGiven_ShouldWriteOneCatalogPerBaseName() throws IOException {
+        write("compiled", "greeting=Hello", "farewell=Bye");
+        write("compiled_fr", "greeting=Bonjour", "farewell=Caf\\u00e9?");
+        write("compiled_de_AT", "greeting=Servus", "farewell=Baba");
+        write("sub/errors", "e1=Oops");
+
+        assertEquals(asList(Paths.get("compiled.catalog"), Paths.get("sub", "errors.catalog")),
+                     BundleCompiler.compile(sourceDir, outputDir));
+
+        assertEquals("Hello", lookup("compiled", Locale.ROOT).getString("greeting"));
+        assertEquals("Café?", lookup("compiled", Locale.FRANCE).getString("farewell"),
+                     "Messages should be read as ISO-8859-1 with Unicode escapes");
+        assertEquals(new Locale("de", "AT"), lookup("compiled", new Locale("de", "AT")).getLocale());
+        assertEquals("Oops", lookup("sub.errors", Locale.ROOT).getString("e1"));
+    }
+
+    @Test
+    public void compile_FileNamesGiven_ShouldTakeLocalesFromTheLongestBaseName() throws IOException {
+        write("named", "k=root");
+        write("named_app", "k=app"); // => not a locale, a base name of its own
+        write("named_app_fr_CA", "k=app fr CA");
+        write("named_en_GB_POSIX", "k=en GB POSIX");
+
+        assertEquals(asList(Paths.get("named.catalog"), Paths.get("named_app.catalog")),
+                     BundleCompiler.compile(sourceDir, outputDir));
+
+        assertEquals("app fr CA", lookup("named_app", Locale.CANADA_FRENCH).getString("k"));
+        assertEquals(Locale.CANADA_FRENCH, lookup("named_app", Locale.CANADA_FRENCH).getLocale());
+        assertEquals(new Locale("en", "GB", "POSIX"), lookup("named", new Locale("en", "GB", "POSIX")).getLocale());
+        assertEquals("root", lookup("named", Locale.CANADA_FRENCH).getString("k"));
+    }
+
+    @Test
+    public void compile_MissingOrExtraTranslationsGiven_ShouldFailListingAll() throws IOException {
+        write("messages", "a=A", "b=B");
+        write("messages_fr", "a=A");
+        write("messages_de", "a=A", "b=B", "c=C", "d=D");
+
+        final String message = assertCannotCompile().getMessage();
+        assertTrue(message.contains("messages_fr: missing translations of [b]"), message);
+        assertTrue(message.contains("messages_de: messages not in the default bundle [c, d]"), message);
+    }
+
+    @Test
+    public void compile_TranslationsWithoutDefaultBundleGiven_ShouldFail() throws IOException {
+        write("orphan_fr", "a=A");
+        write("orphan_de_DE", "a=A");
+
+        final String message = assertCannotCompile().getMessage();
+        assertTrue(message.contains("orphan_fr.properties: translation has no default bundle"), message);
+        assertTrue(message.contains("orphan_de_DE.properties: translation has no default bundle"), message);
+    }
+
+    @Test
+    public void compile_NonCompilableLocaleGiven_ShouldFail() throws IOException {
+        write("odd", "a=A");
+        write("odd_no_NO_NY", "a=A"); // => a legacy locale, turned into nn_NO by language tags
+
+        assertTrue(assertCannotCompile().getMessage().contains("odd_no_NO_NY.properties: locale no_NO_NY"));
+    }
+}
@@ -0,0 +1,123 @@
+package net.appfold.sqlrose.i18n;
+
+import org.junit.jupiter.api.*;
+
+import java.text.MessageFormat;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class MessageTemplateTest {
+
+    private static final List<Locale> LOCALES = Arrays.asList(Locale.ROOT, Locale.US, Locale.GERMANY, Locale.FRANCE);
+
+    private static final Date DATE = new Date(1_792_310_400_123L);
+
+    /**
+     * Checks that the template renders exactly what {@link MessageFormat} formats, for each locale and set of
+     * arguments.
+     */
+    private static void assertSameAsMessageFormat(String pattern, Object[]... argumentSets) {
+        for (Locale locale : LOCALES) {
+            final MessageTemplate template = new MessageTemplate(pattern, locale);
+            final MessageFormat expected = new MessageFormat(pattern, locale);
+            for (Object[] args : argumentSets) {
+                assertEquals(expected.format(args), template.render(args),
+                             "Pattern " + pattern + " with " + Arrays.toString(args) + " in " + locale);
+            }
+        }
+    }
+
+    @Test
+    public void render_QuotedPatternsGiven_ShouldFormatAsMessageFormat() {
+        final Object[] args = {"x", 42};
+        assertSameAsMessageFormat("It''s {0}", args);
+        assertSameAsMessageFormat("'{0}' is not {0}", args);
+        assertSameAsMessageFormat("'{'{0}'}' and ''{1}''", args);
+        assertSameAsMessageFormat("'It''s {1}' {0}''", args);
+        assertSameAsMessageFormat("{1,number,'#'#}", args);
+        assertSameAsMessageFormat("unterminated 'quote {0}", args);
+        assertSameAsMessageFormat("''", args);
+        assertSameAsMessageFormat("", args);
+    }
+
+    @Test
+    public void render_ChoiceFormatsGiven_ShouldFormatAsMessageFormat() {
+        final String pattern = "{0,choice,0#no files|1#one file|1<{0,number,integer} files}";
+        assertSameAsMessageFormat(pattern, new Object[]{0}, new Object[]{1}, new Object[]{1234}, new Object[]{-1});
+        assertSameAsMessageFormat("There {0,choice,0#are no files|1#is one file|1<are {0} files} in {1}.",
+                                  new Object[]{0, "a"}, new Object[]{1, "b"}, new Object[]{2, "c"});
+    }
+
+    @Test
+    public void render_NestedChoiceFormatsGiven_ShouldFormatAsMessageFormat() {
+        final String pattern = "{0,choice,0#none|1#'{1,choice,0#one, no dirs|1#one, one dir|1<one, {1} dirs}'" +
+                               "|1<{0} in '{1,choice,0#no dirs|1#{2}|1<{1,number,percent} dirs}'}"; // => quoted choices
+        for (int files = 0; files < 3; files++) {
+            for (double dirs = 0; dirs < 3; dirs += .5) {
+                assertSameAsMessageFormat(pattern, new Object[]{files, dirs, "'quoted' {2}"});
+            }
+        }
+    }
+
+    @Test
+    public void render_PlainArgumentsGiven_ShouldFormatNumbersAndDatesAsMessageFormat() {
+        assertSameAsMessageFormat("{0} / {1} / {2} / {3} / {4} / {5}",
+                                  new Object[]{1234567.891, -0.5, 1L << 40, DATE, "str", 'c'},
+                                  new Object[]{null, Double.NaN, Double.NEGATIVE_INFINITY, new Date(-1L), true});
+    }
+
+    @Test
+    public void render_TypedArgumentsGiven_ShouldFormatAsMessageFormat() {
+        assertSameAsMessageFormat("{0,number} {0,number,integer} {0,number,percent} {0,number,#,##0.00}",
+                                  new Object[]{1234.5678}, new Object[]{-0.125});
+        assertSameAsMessageFormat("{0,date} {0,date,short} {0,date,long} {0,time} {0,time,full} {0,date,yyyy-MM-dd}",
+                                  new Object[]{DATE});
+    }
+
+    @Test
+    public void render_MissingArgumentsGiven_ShouldFormatAsMessageFormat() {
+        assertSameAsMessageFormat("{0} {1} {2,number} {0}", new Object[]{"a"}, new Object[0]);
+        assertEquals(new MessageFormat("{0} {1}").format(null), new MessageTemplate("{0} {1}").render((Object[]) null));
+    }
+
+    @Test
+    public void render_ManyThreadsGiven_ShouldFormatAsMessageFormat() throws Exception {
+        final String pattern = "{0,number,#.##} on {1,date,yyyy-MM-dd HH:mm:ss.SSS} ({2})";
+        final MessageTemplate template = new MessageTemplate(pattern, Locale.US);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    final MessageFormat expected = new MessageFormat(pattern, Locale.US);
+                    for (int i = 0; i < 2_000; i++) {
+                        final Object[] args = {seed * i / 7.0, new Date(seed * 1_000_003L * i), i};
+                        assertEquals(expected.format(args), template.render(args));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void setFormat_AnyFormatGiven_ShouldThrowUnsupportedOperationException() {
+        final MessageTemplate template = new MessageTemplate("{0,number}");
+        assertThrows(UnsupportedOperationException.class, () -> template.applyPattern("{1}"));
+        assertThrows(UnsupportedOperationException.class, () -> template.setLocale(Locale.ROOT));
+        assertThrows(UnsupportedOperationException.class, () -> template.setFormat(0, null));
+        assertEquals("{0,number}", template.toPattern(), "Template should not change");
+    }
+}
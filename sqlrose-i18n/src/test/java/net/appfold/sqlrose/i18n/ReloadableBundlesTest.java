@@ -0,0 +1,114 @@
+package net.appfold.sqlrose.i18n;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ */
+class ReloadableBundlesTest {
+
+    private static final List<String> KEYS = Arrays.asList("root", "en", "en_US", "de");
+
+    @TempDir
+    Path directory;
+
+    private Locale defaultLocale;
+
+    private ReloadableBundles bundlesUnderTest;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+
+        write("x", "root");
+        write("x_en", "en");
+        write("x_en_US", "en_US");
+        bundlesUnderTest = new ReloadableBundles(directory, (baseName, locale) -> null);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        bundlesUnderTest.close();
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void apply_NoBundleForRequestedLocale_ShouldFallBackToWholeDefaultLocaleChain() throws IOException {
+        final ResourceBundle bundle = bundlesUnderTest.apply("x", Locale.GERMAN);
+
+        assertEquals("en_US", bundle.getString("en_US"));
+        assertEquals("en", bundle.getString("en"), "Keys only defined for the language should be found");
+        assertEquals("root", bundle.getString("root"));
+        assertSameAsJdk(bundle, Locale.GERMAN);
+    }
+
+    @Test
+    public void apply_BundleForRequestedLocale_ShouldNotFallBackToDefaultLocale() throws IOException {
+        write("x_de", "de");
+        final ResourceBundle bundle = bundlesUnderTest.apply("x", Locale.GERMANY);
+
+        assertEquals("de", bundle.getString("de"));
+        assertFalse(bundle.containsKey("en"), "Default locale bundles should only be a fallback");
+        assertSameAsJdk(bundle, Locale.GERMANY);
+    }
+
+    @Test
+    public void apply_FilesChangedWhileLoading_ShouldNotKeepStaleBundle() throws Exception {
+        final ResourceBundle delegated = new ListResourceBundle() {
+
+            @Override
+            protected Object[][] getContents() { return new Object[][]{{"z", "delegated"}}; }
+        };
+        final CountDownLatch reloaded = new CountDownLatch(1);
+        final AtomicBoolean changeWhileLoading = new AtomicBoolean();
+
+        try (ReloadableBundles bundles = new ReloadableBundles(directory, (baseName, locale) -> {
+            if (changeWhileLoading.getAndSet(false)) { // => too late for the watcher to see the bundle being loaded
+                try {
+                    write("z", "z");
+                    assertTrue(reloaded.await(10, TimeUnit.SECONDS), "Watcher should reload the other bundle");
+                } catch (IOException | InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            return delegated;
+        })) {
+            bundles.addListener((baseName, locale) -> reloaded.countDown());
+            assertSame(delegated, bundles.apply("z", Locale.CANADA_FRENCH), "Bundles without files are delegated");
+
+            changeWhileLoading.set(true);
+            assertEquals("z", bundles.apply("z", Locale.FRENCH).getString("z"), "Bundle should be loaded again");
+            assertEquals("z", bundles.apply("z", Locale.FRENCH).getString("z"), "Stale bundle should not be kept");
+        }
+    }
+
+    private void write(String name, String key) throws IOException {
+        Files.write(directory.resolve(name + ".properties"), (key + "=" + key + "\n").getBytes(ISO_8859_1));
+    }
+
+    /**
+     * Checks that the bundle holds the very same keys {@link ResourceBundle#getBundle} would find.
+     */
+    private void assertSameAsJdk(ResourceBundle bundle, Locale locale) throws IOException {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, null)) {
+            final ResourceBundle expected = ResourceBundle.getBundle("x", locale, loader);
+            for (String key : KEYS) {
+                assertEquals(expected.containsKey(key), bundle.containsKey(key), "Key " + key + " as for the JDK");
+            }
+            assertEquals(expected.getLocale(), bundle.getLocale(), "Locale should be the one the JDK resolves");
+        }
+    }
+}
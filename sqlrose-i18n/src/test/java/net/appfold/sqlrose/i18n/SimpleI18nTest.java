@@ -0,0 +1,153 @@
+package net.appfold.sqlrose.i18n;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class SimpleI18nTest {
+
+    private static final List<String> KEYS = asList("k1", "k2", "k3", "k4", "k5", "unlisted", "missing");
+
+    private final Map<String, ResourceBundle> bundles = new HashMap<>();
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final BiFunction<String, Locale, ResourceBundle> supplier = (baseName, locale) -> {
+        lookups.incrementAndGet();
+        final ResourceBundle bundle = bundles.get(baseName);
+        if (bundle == null) {
+            throw new MissingResourceException("No bundle", baseName, "");
+        }
+        return bundle;
+    };
+
+    private I18nUnderTest i18nUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        bundles.put("first", new Bundle(new Bundle(null, "k2", "first-parent", "k4", "first-parent"),
+                                        "k1", "first", "k3", "first"));
+        bundles.put("second", new Bundle(null, "k1", "second", "k2", "second", "k5", "second"));
+        bundles.put("third", new UnlistedBundle());
+
+        i18nUnderTest = new I18nUnderTest("first", "missing", "second", "third").setBundlePrefix(null)
+                                                                                 .setResourceBundleSupplier(supplier)
+                                                                                 .setLocale(Locale.ROOT);
+    }
+
+    /**
+     * Looks the message up the way translations used to be, i.e., each bundle in turn.
+     */
+    private String lookUpEachBundle(String key, String... baseNames) {
+        for (String baseName : baseNames) {
+            final ResourceBundle bundle = bundles.get(baseName);
+            if (bundle != null) {
+                try {
+                    return bundle.getString(key);
+                } catch (MissingResourceException ex) {
+                    // continue to the next bundle
+                }
+            }
+        }
+        return key;
+    }
+
+    @Test
+    public void loadCatalog_SeveralBaseNamesGiven_ShouldTakeMessagesFromTheFirstBundleDefiningThem() {
+        final MessageCatalog catalog = i18nUnderTest.loadCatalog(Locale.ROOT);
+        assertEquals("first-parent", catalog.get("k2"), "Parent bundles should come before the next base name");
+        assertEquals("second", catalog.get("k5"));
+        assertFalse(catalog.getMessages().containsKey("unlisted"), "Only enumerated keys should be merged");
+
+        for (String key : KEYS) {
+            assertEquals(lookUpEachBundle(key, "first", "second", "third"), i18nUnderTest.t(key),
+                         "Message " + key + " should be the one looking each bundle up in turn finds");
+        }
+    }
+
+    @Test
+    public void t_KeyNotInCatalogGiven_ShouldResolveItOnlyOnce() {
+        i18nUnderTest.t("k1"); // => builds the catalog
+        final int lookupsToBuild = lookups.get();
+
+        assertEquals("missing", i18nUnderTest.t("missing"));
+        assertEquals("resolved", i18nUnderTest.t("unlisted"));
+        final int lookupsToResolve = lookups.get();
+        assertTrue(lookupsToResolve > lookupsToBuild, "Keys not in the catalog should be resolved");
+
+        assertEquals("missing", i18nUnderTest.t("missing"));
+        assertEquals("resolved", i18nUnderTest.t("unlisted"));
+        assertEquals(lookupsToResolve, lookups.get(), "Outcomes, even missing messages, should be remembered");
+    }
+
+    @Test
+    public void setBundleBaseNames_CatalogBuilt_ShouldDiscardIt() {
+        assertEquals("first", i18nUnderTest.t("k1"));
+
+        i18nUnderTest.setBundleBaseNames(asList("second", "first"));
+        assertEquals("second", i18nUnderTest.t("k1"), "Catalog should follow the new base names");
+        assertEquals("second", i18nUnderTest.t("k2"));
+    }
+
+    @Test
+    public void setBundlePrefix_CatalogBuilt_ShouldDiscardIt() {
+        assertEquals("first", i18nUnderTest.t("k1"));
+
+        bundles.put("l10n/first", new Bundle(null, "k1", "prefixed"));
+        i18nUnderTest.setBundlePrefix("l10n");
+        assertEquals("prefixed", i18nUnderTest.t("k1"), "Catalog should follow the new prefix");
+        assertEquals("k5", i18nUnderTest.t("k5"), "Bundles without the prefix should no longer be looked up");
+    }
+
+    @Test
+    public void setResourceBundleSupplier_CatalogBuilt_ShouldDiscardIt() {
+        assertEquals("first", i18nUnderTest.t("k1"));
+
+        i18nUnderTest.setResourceBundleSupplier((baseName, locale) -> new Bundle(null, "k1", "supplied-" + baseName));
+        assertEquals("supplied-first", i18nUnderTest.t("k1"), "Catalog should follow the new supplier");
+    }
+
+    private static final class I18nUnderTest extends SimpleI18n<I18nUnderTest> {
+
+        I18nUnderTest(String... bundleBaseNames) { super(bundleBaseNames); }
+    }
+
+    private static final class Bundle extends ListResourceBundle {
+
+        private final Object[][] contents;
+
+        Bundle(ResourceBundle parent, String... keysAndValues) {
+            contents = new Object[keysAndValues.length / 2][];
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = new Object[]{keysAndValues[2 * i], keysAndValues[2 * i + 1]};
+            }
+            if (parent != null) {
+                setParent(parent);
+            }
+        }
+
+        @Override
+        protected Object[][] getContents() { return contents; }
+    }
+
+    /**
+     * Does not enumerate its only key, as bundles are allowed to.
+     */
+    private static final class UnlistedBundle extends ResourceBundle {
+
+        @Override
+        protected Object handleGetObject(String key) { return "unlisted".equals(key) ? "resolved" : null; }
+
+        @Override
+        public Enumeration<String> getKeys() { return Collections.emptyEnumeration(); }
+    }
+}
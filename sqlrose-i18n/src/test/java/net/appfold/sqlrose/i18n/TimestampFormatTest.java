@@ -0,0 +1,140 @@
+package net.appfold.sqlrose.i18n;
+
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class TimestampFormatTest {
+
+    private static final List<Locale> LOCALES = Arrays.asList(Locale.ROOT, Locale.US, Locale.FRANCE);
+
+    private static final List<String> PATTERNS = Arrays.asList(
+        "yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS", "dd MMM uuuu, EEEE H:m:s", "G y-M-d kk:mm",
+        "d.M.yy hh:mm a", "yyyy-MM-dd HH:mm:ss xxx", "yyyy-MM-dd HH:mm z", "yyyy-MM-dd HH:mm VV", "HH:mm:ss yyyy",
+        "yyyy [HH:mm]", "yyyy-MM-dd'''a' HH:mm");
+
+    /**
+     * @param epochMillis sorted, as result grids often are, so that most timestamps fall in the day of the previous one
+     */
+    private static void assertSameAsDateTimeFormatter(String pattern, ZoneId zoneId, long... epochMillis) {
+        for (Locale locale : LOCALES) {
+            final DateTimeFormatter expected = DateTimeFormatter.ofPattern(pattern, locale).withZone(zoneId);
+            final TimestampFormat format = TimestampFormat.ofPattern(pattern, locale, zoneId);
+
+            final String[] column = format.format(epochMillis);
+            for (int i = 0; i < epochMillis.length; i++) {
+                final String message = pattern + " for " + epochMillis[i] + " in " + zoneId + ", " + locale;
+                final String text = expected.format(Instant.ofEpochMilli(epochMillis[i]));
+                assertEquals(text, column[i], message);
+                assertEquals(text, format.format(epochMillis[i]), message);
+                assertEquals(text, format.formatTo(epochMillis[i], new StringBuilder()).toString(), message);
+            }
+        }
+    }
+
+    /**
+     * @return every {@code step} milliseconds (plus some) of the local day {@code date} in {@code zoneId} and a bit
+     *     of the days around it
+     */
+    private static long[] around(LocalDate date, ZoneId zoneId, long step) {
+        final long start = date.atStartOfDay(zoneId).minusHours(3).toInstant().toEpochMilli();
+        return LongStream.range(0, (30 * 3_600_000L) / step).map(i -> start + i * step + i % 1000).toArray();
+    }
+
+    @Test
+    public void format_TimeZoneTransitionDaysGiven_ShouldFormatAsDateTimeFormatter() {
+        final Map<ZoneId, LocalDate> transitions = new LinkedHashMap<>();
+        transitions.put(ZoneId.of("Europe/Berlin"), LocalDate.of(2026, 3, 29)); // => 02:00 to 03:00
+        transitions.put(ZoneId.of("Europe/Bucharest"), LocalDate.of(2026, 10, 25)); // => 04:00 back to 03:00
+        transitions.put(ZoneId.of("America/Sao_Paulo"), LocalDate.of(2018, 11, 4)); // => the day starts at 01:00
+        transitions.put(ZoneId.of("America/Havana"), LocalDate.of(2019, 11, 3)); // => 01:00 back to 00:00
+        transitions.put(ZoneId.of("Australia/Lord_Howe"), LocalDate.of(2026, 4, 5)); // => half an hour back
+        transitions.put(ZoneId.of("Pacific/Apia"), LocalDate.of(2011, 12, 29)); // => a whole day skipped
+
+        transitions.forEach((zoneId, date) -> {
+            for (String pattern : PATTERNS) {
+                assertSameAsDateTimeFormatter(pattern, zoneId, around(date, zoneId, 7 * 60_000L + 13));
+            }
+        });
+    }
+
+    @Test
+    public void format_NegativeEpochsGiven_ShouldFormatAsDateTimeFormatter() {
+        final long[] epochMillis = {
+            -62_135_596_800_001L, // => 1 BC (year 0)
+            -30_610_224_000_000L, // => 1000 AD
+            -2_208_988_800_000L, // => 1900 AD, local mean times with odd offsets
+            -86_400_001L, -86_400_000L, -3_600_000L, -1001L, -1000L, -999L, -1L, 0L, 1L};
+
+        for (String zoneId : Arrays.asList("UTC", "Europe/Amsterdam", "Asia/Kolkata", "America/New_York")) {
+            for (String pattern : PATTERNS) {
+                assertSameAsDateTimeFormatter(pattern, ZoneId.of(zoneId), epochMillis);
+            }
+            assertSameAsDateTimeFormatter("yyyy-MM-dd HH:mm:ss.SSS", ZoneId.of(zoneId),
+                                          around(LocalDate.of(1969, 12, 31), ZoneId.of(zoneId), 60_001L));
+        }
+    }
+
+    @Test
+    public void format_EachDirectlyPrintedTimeLetterGiven_ShouldFormatAsDateTimeFormatter() {
+        final ZoneId zoneId = ZoneId.of("Europe/Bucharest");
+        final long[] epochMillis = around(LocalDate.of(2026, 10, 18), zoneId, 59_999L);
+
+        for (String time : Arrays.asList("H", "HH", "k", "kk", "K", "KK", "h", "hh", "m", "mm", "s", "ss", "S", "SS",
+                                         "SSS", "SSSSSS", "SSSSSSSSS", "HH:mm:ss,SSS", "'T'HH''mm' o''clock'")) {
+            final String pattern = "yyyy-MM-dd " + time;
+            assertTrue(TimestampFormat.ofPattern(pattern, Locale.ROOT, zoneId).printsTimeDirectly(),
+                       pattern + " should print its time suffix directly");
+            assertSameAsDateTimeFormatter(pattern, zoneId, epochMillis);
+        }
+    }
+
+    @Test
+    public void format_InstantsGiven_ShouldKeepNanosAsDateTimeFormatter() {
+        final ZoneId zoneId = ZoneId.of("Europe/Berlin");
+        final TimestampFormat format = TimestampFormat.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSSS", Locale.ROOT, zoneId);
+        final DateTimeFormatter expected = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSSS", Locale.ROOT);
+
+        for (Instant instant : Arrays.asList(Instant.ofEpochSecond(-1, 1), Instant.ofEpochSecond(1_792_310_400L,
+                                                                                                   999_999_999))) {
+            assertEquals(expected.format(instant.atZone(zoneId)), format.format(instant));
+        }
+        assertEquals("", format.format((Instant) null));
+    }
+
+    @Test
+    public void format_ColumnRangeGiven_ShouldFormatOnlyThatRange() {
+        final TimestampFormat format = TimestampFormat.ofPattern("HH:mm", Locale.ROOT, ZoneOffset.UTC);
+
+        assertArrayEquals(new String[]{"00:01", "00:02"}, format.format(new long[]{0L, 60_000L, 120_000L}, 1, 3));
+        assertArrayEquals(new String[0], format.format((long[]) null));
+        assertThrows(IndexOutOfBoundsException.class, () -> format.format(new long[1], 0, 2));
+    }
+
+    @Test
+    public void datePrefixLength_PatternsGiven_ShouldSplitOnlyAfterAllDateFields() {
+        assertEquals(11, TimestampFormat.datePrefixLength("yyyy-MM-dd HH:mm:ss"));
+        assertEquals(13, TimestampFormat.datePrefixLength("yyyy-MM-dd'T'HH:mm"));
+        assertEquals(16, TimestampFormat.datePrefixLength("yyyy-MM-dd'''a' HH:mm"), "Escaped quotes are literals");
+        assertEquals(18, TimestampFormat.datePrefixLength("dd MMM uuuu, EEEE H:m:s"));
+        assertEquals(0, TimestampFormat.datePrefixLength("HH:mm:ss yyyy"), "Time fields come first");
+        assertEquals(0, TimestampFormat.datePrefixLength("yyyy-MM-dd HH:mm e"), "A date field follows a time field");
+        assertEquals(0, TimestampFormat.datePrefixLength("yyyy [HH:mm]"), "Optional sections cannot be split");
+        assertEquals(0, TimestampFormat.datePrefixLength("yyyy-MM-dd 'HH:mm"), "Unterminated literal");
+        assertEquals(0, TimestampFormat.datePrefixLength("yyyy-MM-dd"), "No time fields");
+        assertEquals(0, TimestampFormat.datePrefixLength("HH:mm"), "No date fields");
+
+        assertTrue(TimestampFormat.ofPattern("yyyy-MM-dd HH:mm z", Locale.ROOT, ZoneOffset.UTC).reusesDatePrefix());
+        assertFalse(TimestampFormat.ofPattern("yyyy-MM-dd HH:mm z", Locale.ROOT, ZoneOffset.UTC).printsTimeDirectly());
+        assertFalse(TimestampFormat.ofPattern("HH:mm:ss yyyy", Locale.ROOT, ZoneOffset.UTC).reusesDatePrefix());
+    }
+}
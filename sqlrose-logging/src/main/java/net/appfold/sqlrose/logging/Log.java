@@ -1,29 +1,83 @@
 package net.appfold.sqlrose.logging;
 
 import ch.qos.logback.classic.*;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
 import me.nallar.whocalled.WhoCalled;
 import org.slf4j.Logger;
 import org.slf4j.*;
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
+import java.util.*;
+
 import static org.slf4j.Logger.ROOT_LOGGER_NAME;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Entry point for logging-related configuration and (<a href="https://www.slf4j.org/">SLF4J</a>-based) utilities.
+ * <p/>
+ * {@link Logger Loggers} are cached per class so that calling {@link #log()} (or {@link #logFor(Object)}) freely costs
+ * about as much as holding a {@code static} logger field, plus (for {@link #log()}) looking the calling class up.
  *
  * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
- * @version 3.0, May 13, 2019
+ * @version 3.2, Oct 18, 2026
  */
 public class Log {
 
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<Logger>() {
+        @Override
+        protected Logger computeValue(Class<?> type) { return getLogger(type); }
+    };
+
     /**
-     * Performs additional logging configuration, like {@link #routeJulToSlf4j() adapting j.u.l to logFor}, etc.
+     * Performs additional logging configuration, like {@link #routeJulToSlf4j() adapting j.u.l to logFor}, {@link
+     * #installRingBuffer() logging asynchronously}, etc.
      * <p/>
      * Should probably be invoked early during the initialization phase of the application.
      */
     public static void config() {
         routeJulToSlf4j();
+        installRingBuffer();
+    }
+
+    /**
+     * Moves the appenders of the root logger behind a (started) {@link RingBufferAppender}, so that application
+     * threads no longer write to them (e.g., to the console or to files) themselves; does nothing if the root logger
+     * already appends to a ring buffer.
+     * <p/>
+     * The ring buffer is {@link RingBufferAppender#stop() stopped} by a shutdown hook, its (daemon) worker thread
+     * being otherwise abandoned as soon as the JVM exits: the events still buffered then get written for at most
+     * {@link RingBufferAppender#setMaxFlushTime(long) maxFlushTime} milliseconds (1 second, by default).
+     *
+     * @return the ring buffer appender of the root logger or {@code null} if the SLF4J implementation used is not
+     *     Logback
+     */
+    public static synchronized RingBufferAppender installRingBuffer() {
+        final ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext)) {
+            return null;
+        }
+
+        final LoggerContext loggerContext = (LoggerContext) loggerFactory;
+        final ch.qos.logback.classic.Logger root = loggerContext.getLogger(ROOT_LOGGER_NAME);
+        final List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> i = root.iteratorForAppenders(); i.hasNext(); ) {
+            final Appender<ILoggingEvent> appender = i.next();
+            if (appender instanceof RingBufferAppender) {
+                return (RingBufferAppender) appender;
+            }
+            appenders.add(appender);
+        }
+
+        final RingBufferAppender ringBuffer = new RingBufferAppender();
+        ringBuffer.setContext(loggerContext);
+        appenders.forEach(ringBuffer::addAppender);
+        ringBuffer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(ringBuffer::stop, "sqlrose-log-shutdown"));
+
+        root.addAppender(ringBuffer); // => events logged meanwhile might get written twice but none gets lost
+        appenders.forEach(root::detachAppender);
+        return ringBuffer;
     }
 
     /**
@@ -69,7 +123,7 @@ public class Log {
         }
     }
 
-    public static Logger log() { return logFor(null); }
+    public static Logger log() { return callerLog(); }
 
     /**
      * @param source if {@code null}, a {@link Logger} instance corresponding to the calling class is retrieved
@@ -77,19 +131,27 @@ public class Log {
      */
     public static Logger logFor(final Object source) {
         if (source == null) {
-            try {
-                return getLogger(WhoCalled.$.getCallingClass(2));
-            } catch (Throwable throwable) {
-                return getLogger(ROOT_LOGGER_NAME);
-            }
+            return callerLog();
         } else if (source instanceof Class<?>) {
-            return getLogger((Class<?>) source);
+            return LOGGERS.get((Class<?>) source);
         } else if (source instanceof String) {
             return getLogger((String) source);
         } else if (source instanceof Logger) {
             return (Logger) source;
         } else {
-            return getLogger(source.getClass());
+            return LOGGERS.get(source.getClass());
+        }
+    }
+
+    /**
+     * Meant to be called directly by {@link #log()} and {@link #logFor(Object)} only, the calling class being looked up
+     * two frames up the stack.
+     */
+    private static Logger callerLog() {
+        try {
+            return LOGGERS.get(WhoCalled.$.getCallingClass(2));
+        } catch (Throwable throwable) {
+            return getLogger(ROOT_LOGGER_NAME);
         }
     }
 }
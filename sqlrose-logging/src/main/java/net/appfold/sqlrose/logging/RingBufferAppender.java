@@ -0,0 +1,372 @@
+package net.appfold.sqlrose.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous <a href="https://logback.qos.ch/">Logback</a> appender handing events over, through a bounded ring
+ * buffer preallocated upon {@link #start() start}, to a single (daemon) worker thread which writes them, in batches,
+ * to the attached appenders; application threads thus never wait for I/O.
+ * <p/>
+ * Slots are claimed by application threads with a single compare-and-set (no locks, no allocations); once the buffer
+ * is full, events are either {@link Policy#DROP dropped} or the application threads {@link Policy#BLOCK wait} for
+ * room, events at or above the {@link #setNeverDropLevel(String) never-drop level} always being waited for. Attached
+ * {@link OutputStreamAppender}s (e.g., console or rolling file appenders) are switched to buffered writes and only
+ * flushed once per batch.
+ * <p/>
+ * Since events are written by another thread, caller data (i.e., {@code %file}, {@code %line}, etc.) is only
+ * available if {@link #setIncludeCallerData(boolean) captured} (at a cost) by application threads.
+ * <p/>
+ * The worker being a daemon thread, the appender has to be {@link #stop() stopped} before the JVM exits (e.g., by a
+ * shutdown hook, as {@link Log#installRingBuffer()} registers, or by Logback's {@code <shutdownHook/>}) for the events
+ * still buffered to be written; stopping waits for at most {@link #setMaxFlushTime(long) maxFlushTime} milliseconds.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.1, Oct 18, 2026
+ * @see <a href="http://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue">Bounded MPMC queue</a>
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+    implements AppenderAttachable<ILoggingEvent> {
+
+    public static final String DEFAULT_NAME = "RING";
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    public enum Policy {
+        /**
+         * Drops the events that do not fit in a full buffer (unless at or above the never-drop level).
+         */
+        DROP,
+        /**
+         * Makes application threads wait until the worker makes room for their events.
+         */
+        BLOCK
+    }
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private final Map<OutputStreamAppender<ILoggingEvent>, Boolean> immediateFlushes = new IdentityHashMap<>();
+
+    private int capacity = DEFAULT_CAPACITY;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private Policy policy = Policy.DROP;
+
+    private Level neverDropLevel = Level.WARN;
+
+    private boolean includeCallerData;
+
+    private long maxFlushTime = 1000L; // => milliseconds to wait, upon stop, for the buffered events to be written
+
+    private AtomicReferenceArray<ILoggingEvent> slots;
+
+    private AtomicLongArray sequences; // => a slot is writable at position p if its sequence is p, readable if p + 1
+
+    private int mask;
+
+    private final AtomicLong tail = new AtomicLong(); // => the next position to write to
+
+    private volatile long head; // => the next position to read from, only written by the worker
+
+    private volatile boolean sleeping; // => whether the worker waits for events
+
+    private Thread worker;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder appended = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    public RingBufferAppender() { setName(DEFAULT_NAME); }
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A ring buffer appender requires a capacity of at least 2");
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    public int getCapacity() { return capacity; }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("A ring buffer appender requires a positive batch size");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() { return batchSize; }
+
+    public void setPolicy(Policy policy) { this.policy = policy == null ? Policy.DROP : policy; }
+
+    public Policy getPolicy() { return policy; }
+
+    /**
+     * @param level the name of the lowest level not to drop events at, whatever the {@link #setPolicy(Policy)
+     *              policy}; {@code OFF} to allow dropping events at any level
+     */
+    public void setNeverDropLevel(String level) { this.neverDropLevel = Level.toLevel(level, Level.WARN); }
+
+    public String getNeverDropLevel() { return neverDropLevel.toString(); }
+
+    public void setIncludeCallerData(boolean includeCallerData) { this.includeCallerData = includeCallerData; }
+
+    public boolean isIncludeCallerData() { return includeCallerData; }
+
+    /**
+     * @param maxFlushTime the number of milliseconds {@link #stop() stopping} waits for the buffered events to be
+     *                     written (1000, by default); events still buffered afterwards are lost
+     */
+    public void setMaxFlushTime(long maxFlushTime) { this.maxFlushTime = maxFlushTime; }
+
+    public long getMaxFlushTime() { return maxFlushTime; }
+
+    /**
+     * @return the number of events dropped so far, the buffer being full
+     */
+    public long getDroppedCount() { return dropped.sum(); }
+
+    /**
+     * @return the number of events written (i.e., handed over to the attached appenders) so far
+     */
+    public long getAppendedCount() { return appended.sum(); }
+
+    /**
+     * @return the number of batches written so far
+     */
+    public long getBatchCount() { return batches.sum(); }
+
+    /**
+     * @return the number of events currently waiting in the buffer to be written
+     */
+    public int getQueuedCount() { return (int) Math.max(0, Math.min(capacity, tail.get() - head)); }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+
+        slots = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        tail.set(0);
+        head = 0;
+
+        synchronized (immediateFlushes) {
+            for (Iterator<Appender<ILoggingEvent>> i = appenders.iteratorForAppenders(); i.hasNext(); ) {
+                bufferWrites(i.next());
+            }
+        }
+
+        worker = new Thread(this::run, "sqlrose-log-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    /**
+     * Writes (for at most {@link #setMaxFlushTime(long) maxFlushTime} milliseconds) the events still buffered, then
+     * stops the attached appenders.
+     */
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTime);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Stopped before writing " + getQueuedCount() + " buffered events");
+            worker.interrupt();
+        }
+        if (getDroppedCount() > 0) {
+            addWarn("Dropped " + getDroppedCount() + " events, the ring buffer being full");
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+
+        final boolean neverDrop = event.getLevel().isGreaterOrEqual(neverDropLevel);
+        for (int spins = 0; !offer(event); spins++) {
+            if (policy == Policy.DROP && !neverDrop || !isStarted() || Thread.currentThread() == worker) {
+                dropped.increment(); // => the worker cannot make room for its own events
+                return;
+            }
+            LockSupport.unpark(worker);
+            if (spins < 64) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+            }
+        }
+
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private boolean offer(ILoggingEvent event) {
+        for (; ; ) {
+            final long position = tail.get();
+            final int slot = (int) position & mask;
+            final long sequence = sequences.get(slot);
+            if (sequence < position) {
+                return false; // => full
+            }
+            if (sequence == position && tail.compareAndSet(position, position + 1)) {
+                slots.lazySet(slot, event);
+                sequences.set(slot, position + 1); // => publishes the event (volatile write after the slot one)
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return the number of events drained (at most {@code batchSize})
+     */
+    private int drain() {
+        long position = head;
+        int count = 0;
+        for (; count < batchSize; count++, position++) {
+            final int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                break; // => empty (or not published yet)
+            }
+
+            final ILoggingEvent event = slots.get(slot);
+            slots.lazySet(slot, null);
+            sequences.set(slot, position + capacity); // => frees the slot for the next lap
+            head = position + 1;
+
+            try {
+                appenders.appendLoopOnAppenders(event);
+            } catch (RuntimeException ex) {
+                addError("Cannot append event", ex);
+            }
+        }
+
+        if (count > 0) {
+            appended.add(count);
+            batches.increment();
+            flush();
+        }
+        return count;
+    }
+
+    private void run() {
+        try {
+            while (isStarted()) {
+                if (drain() == 0) {
+                    sleeping = true;
+                    if (sequences.get((int) head & mask) != head + 1) { // => still empty
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                    }
+                    sleeping = false;
+                }
+            }
+            while (drain() > 0 && !Thread.currentThread().isInterrupted()) {
+                // => writes what was logged before stopping
+            }
+        } finally {
+            synchronized (immediateFlushes) {
+                immediateFlushes.forEach(OutputStreamAppender::setImmediateFlush);
+                immediateFlushes.clear();
+            }
+            appenders.detachAndStopAllAppenders();
+        }
+    }
+
+    private void flush() {
+        synchronized (immediateFlushes) {
+            for (OutputStreamAppender<ILoggingEvent> appender : immediateFlushes.keySet()) {
+                try {
+                    if (appender.isStarted() && appender.getOutputStream() != null) {
+                        appender.getOutputStream().flush();
+                    }
+                } catch (IOException ex) {
+                    addError("Cannot flush appender " + appender.getName(), ex);
+                }
+            }
+        }
+    }
+
+    private void bufferWrites(Appender<ILoggingEvent> appender) {
+        if (appender instanceof OutputStreamAppender) {
+            final OutputStreamAppender<ILoggingEvent> out = (OutputStreamAppender<ILoggingEvent>) appender;
+            immediateFlushes.putIfAbsent(out, out.isImmediateFlush());
+            out.setImmediateFlush(false);
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+        if (isStarted()) {
+            synchronized (immediateFlushes) {
+                bufferWrites(appender);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() { return appenders.iteratorForAppenders(); }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) { return appenders.getAppender(name); }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) { return appenders.isAttached(appender); }
+
+    @Override
+    public void detachAndStopAllAppenders() { appenders.detachAndStopAllAppenders(); }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        synchronized (immediateFlushes) {
+            final Boolean immediateFlush = immediateFlushes.remove(appender);
+            if (immediateFlush != null) {
+                ((OutputStreamAppender<ILoggingEvent>) appender).setImmediateFlush(immediateFlush);
+            }
+        }
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        final Appender<ILoggingEvent> appender = appenders.getAppender(name);
+        return appender != null && detachAppender(appender);
+    }
+}
@@ -0,0 +1,187 @@
+package net.appfold.sqlrose.logging;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A structured, binary trace of the queries run (their timings, row counts, errors, etc.), cheap enough to be kept on
+ * in production: fixed-layout records are written, without allocating or locking, to a memory-mapped file used as a
+ * ring (i.e., once full, the oldest records get overwritten) and decoded offline by the {@link TraceReader}.
+ * <p/>
+ * The file starts with a {@value #HEADER_SIZE}-byte header ({@code int} magic, {@code int} format version, {@code
+ * int} record size, {@code int} capacity, {@code long} creation time), followed by {@code capacity} records of
+ * {@value #RECORD_SIZE} bytes (little-endian, i.e., the byte order of most platforms):
+ * <pre>
+ *  0 long sequence      (1-based, 0 for empty slots; record n goes to slot (n - 1) % capacity)
+ *  8 long epochMilli
+ * 16 long durationNanos
+ * 24 long rows
+ * 32 long subject       (caller-defined, e.g., the hash of a statement, whose text may be logged once through Log)
+ * 40 long threadId
+ * 48 int  kind          (the ordinal of a Kind)
+ * 52 int  code          (e.g., an error or vendor code)
+ * 56 long check         (of all the above, to tell torn records apart)
+ * </pre>
+ * Reopening an existing trace file of the same capacity continues its sequence; otherwise the file is reset.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class TraceLog implements Closeable {
+
+    public static final int MAGIC = 0x5352544C; // => "SRTL"
+
+    public static final int FORMAT_VERSION = 1;
+
+    public static final int HEADER_SIZE = 64;
+
+    public static final int RECORD_SIZE = 64;
+
+    public static final int DEFAULT_CAPACITY = 1 << 20; // => 64 MB
+
+    public enum Kind {
+        QUERY, UPDATE, ERROR, EVENT
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final Path file;
+
+    private final int capacity;
+
+    private final MappedByteBuffer buffer;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public TraceLog(Path file) throws IOException { this(file, DEFAULT_CAPACITY); }
+
+    /**
+     * @param capacity the number of records kept
+     */
+    public TraceLog(Path file, int capacity) throws IOException {
+        if (capacity < 1 || capacity > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("A trace log requires a capacity between 1 and " +
+                                               (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE + " records");
+        }
+        this.file = requireNonNull(file, "A trace log requires a file");
+        this.capacity = capacity;
+
+        final long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            final boolean reuse = channel.size() == size;
+            buffer = channel.map(READ_WRITE, 0, size); // => stays valid once the channel is closed
+            buffer.order(LITTLE_ENDIAN);
+
+            if (reuse && buffer.getInt(0) == MAGIC && buffer.getInt(4) == FORMAT_VERSION &&
+                buffer.getInt(8) == RECORD_SIZE && buffer.getInt(12) == capacity) {
+                long last = 0;
+                for (int slot = 0; slot < capacity; slot++) {
+                    last = Math.max(last, buffer.getLong(HEADER_SIZE + slot * RECORD_SIZE));
+                }
+                sequence.set(last);
+            } else {
+                for (int i = 0; i < size; i += 8) {
+                    buffer.putLong(i, 0L);
+                }
+                buffer.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, RECORD_SIZE).putInt(12, capacity)
+                      .putLong(16, System.currentTimeMillis());
+            }
+        }
+    }
+
+    public void query(long subject, long durationNanos, long rows) {
+        trace(Kind.QUERY, subject, durationNanos, rows, 0);
+    }
+
+    public void update(long subject, long durationNanos, long rows) {
+        trace(Kind.UPDATE, subject, durationNanos, rows, 0);
+    }
+
+    public void error(long subject, long durationNanos, int code) {
+        trace(Kind.ERROR, subject, durationNanos, 0, code);
+    }
+
+    public void event(long subject, int code) { trace(Kind.EVENT, subject, 0, 0, code); }
+
+    /**
+     * Writes a record, overwriting the oldest one if the ring is full; does nothing once {@link #close() closed}.
+     */
+    public void trace(Kind kind, long subject, long durationNanos, long rows, int code) {
+        if (closed) {
+            return;
+        }
+
+        final long sequence = this.sequence.incrementAndGet();
+        final int at = HEADER_SIZE + (int) ((sequence - 1) % capacity) * RECORD_SIZE;
+        final long epochMilli = System.currentTimeMillis();
+        final long threadId = Thread.currentThread().getId();
+        final int ordinal = requireNonNull(kind, "Cannot trace a record of a null kind").ordinal();
+
+        buffer.putLong(at, 0L); // => marks the slot as being written
+        buffer.putLong(at + 8, epochMilli);
+        buffer.putLong(at + 16, durationNanos);
+        buffer.putLong(at + 24, rows);
+        buffer.putLong(at + 32, subject);
+        buffer.putLong(at + 40, threadId);
+        buffer.putInt(at + 48, ordinal);
+        buffer.putInt(at + 52, code);
+        buffer.putLong(at + 56, check(sequence, epochMilli, durationNanos, rows, subject, threadId, ordinal, code));
+        buffer.putLong(at, sequence);
+    }
+
+    /**
+     * @return the sequence of the last record written
+     */
+    public long getSequence() { return sequence.get(); }
+
+    public int getCapacity() { return capacity; }
+
+    public Path getFile() { return file; }
+
+    /**
+     * Writes the records to the storage device; records are otherwise written whenever the operating system decides,
+     * even if the process crashes.
+     */
+    public void force() {
+        if (!closed) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            buffer.force();
+        }
+    }
+
+    static long check(long sequence, long epochMilli, long durationNanos, long rows, long subject, long threadId,
+                      int kind, int code) {
+        long check = mix(0, sequence);
+        check = mix(check, epochMilli);
+        check = mix(check, durationNanos);
+        check = mix(check, rows);
+        check = mix(check, subject);
+        check = mix(check, threadId);
+        return mix(check, (long) kind << 32 | code & 0xFFFFFFFFL);
+    }
+
+    private static long mix(long check, long value) {
+        final long mixed = (check ^ value) * 0x9E3779B97F4A7C15L; // => the 64-bit golden ratio
+        return mixed ^ mixed >>> 29;
+    }
+
+    static Kind kind(int ordinal) { return ordinal >= 0 && ordinal < KINDS.length ? KINDS[ordinal] : null; }
+}
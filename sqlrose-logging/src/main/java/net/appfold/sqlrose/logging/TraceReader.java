@@ -0,0 +1,144 @@
+package net.appfold.sqlrose.logging;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Comparator.comparingLong;
+
+/**
+ * Decodes {@link TraceLog trace files} offline, oldest record first, skipping empty slots and torn records (e.g.,
+ * being written when the process crashed):
+ * <pre>
+ * java net.appfold.sqlrose.logging.TraceReader &lt;trace file&gt; [text|csv]
+ * </pre>
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 17, 2026
+ */
+public final class TraceReader {
+
+    private TraceReader() {}
+
+    public static void main(String... args) throws IOException {
+        if (args == null || args.length < 1 || args.length > 2 ||
+            args.length == 2 && !"text".equals(args[1]) && !"csv".equals(args[1])) {
+            throw new IllegalArgumentException("Usage: TraceReader <trace file> [text|csv]");
+        }
+
+        final Writer out = new BufferedWriter(new OutputStreamWriter(System.out, UTF_8));
+        final boolean csv = args.length == 2 && "csv".equals(args[1]);
+        if (csv) {
+            out.write("sequence,timestamp,kind,thread,subject,duration_ns,rows,code\n");
+        }
+        for (Record record : read(Paths.get(args[0]))) {
+            out.write(csv ? record.toCsv() : record.toString());
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * @return the records of the given trace file, in sequence order
+     * @throws IOException if not a trace file (or written by another version)
+     */
+    public static List<Record> read(Path file) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(LITTLE_ENDIAN);
+        }
+
+        if (buffer.capacity() < TraceLog.HEADER_SIZE || buffer.getInt(0) != TraceLog.MAGIC ||
+            buffer.getInt(4) != TraceLog.FORMAT_VERSION || buffer.getInt(8) != TraceLog.RECORD_SIZE) {
+            throw new IOException("Not a trace file (or written by another version): " + file);
+        }
+        final int capacity = buffer.getInt(12);
+        if (buffer.capacity() < TraceLog.HEADER_SIZE + (long) capacity * TraceLog.RECORD_SIZE) {
+            throw new IOException("Truncated trace file: " + file);
+        }
+
+        final List<Record> records = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            final int at = TraceLog.HEADER_SIZE + slot * TraceLog.RECORD_SIZE;
+            final Record record =
+                new Record(buffer.getLong(at), buffer.getLong(at + 8), buffer.getLong(at + 16), buffer.getLong(at + 24),
+                           buffer.getLong(at + 32), buffer.getLong(at + 40), buffer.getInt(at + 48),
+                           buffer.getInt(at + 52));
+            if (record.sequence > 0 && (record.sequence - 1) % capacity == slot && record.kind != null &&
+                buffer.getLong(at + 56) == TraceLog.check(record.sequence, record.epochMilli, record.durationNanos,
+                                                          record.rows, record.subject, record.threadId,
+                                                          record.kind.ordinal(), record.code)) {
+                records.add(record);
+            }
+        }
+        records.sort(comparingLong(Record::getSequence));
+        return records;
+    }
+
+    public static final class Record {
+
+        private final long sequence;
+
+        private final long epochMilli;
+
+        private final long durationNanos;
+
+        private final long rows;
+
+        private final long subject;
+
+        private final long threadId;
+
+        private final TraceLog.Kind kind;
+
+        private final int code;
+
+        private Record(long sequence, long epochMilli, long durationNanos, long rows, long subject, long threadId,
+                       int kind, int code) {
+            this.sequence = sequence;
+            this.epochMilli = epochMilli;
+            this.durationNanos = durationNanos;
+            this.rows = rows;
+            this.subject = subject;
+            this.threadId = threadId;
+            this.kind = TraceLog.kind(kind);
+            this.code = code;
+        }
+
+        public long getSequence() { return sequence; }
+
+        public long getEpochMilli() { return epochMilli; }
+
+        public long getDurationNanos() { return durationNanos; }
+
+        public long getRows() { return rows; }
+
+        public long getSubject() { return subject; }
+
+        public long getThreadId() { return threadId; }
+
+        public TraceLog.Kind getKind() { return kind; }
+
+        public int getCode() { return code; }
+
+        public String toCsv() {
+            return sequence + "," + Instant.ofEpochMilli(epochMilli) + "," + kind + "," + threadId + "," +
+                   Long.toHexString(subject) + "," + durationNanos + "," + rows + "," + code;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s %-6s [thread %d] %016x %.3f ms, %d rows, code %d", sequence,
+                                 Instant.ofEpochMilli(epochMilli), kind, threadId, subject, durationNanos / 1e6, rows,
+                                 code);
+        }
+    }
+}
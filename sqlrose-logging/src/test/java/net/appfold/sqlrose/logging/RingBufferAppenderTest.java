@@ -0,0 +1,199 @@
+package net.appfold.sqlrose.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class RingBufferAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    private final CountDownLatch writing = new CountDownLatch(1), release = new CountDownLatch(1);
+
+    private GatedListAppender list;
+
+    private RingBufferAppender ringBuffer;
+
+    @BeforeEach
+    public void setUp() {
+        list = new GatedListAppender();
+        list.setContext(context);
+        list.start();
+
+        ringBuffer = new RingBufferAppender();
+        ringBuffer.setContext(context);
+        ringBuffer.setCapacity(4);
+        ringBuffer.addAppender(list);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        ringBuffer.stop();
+        context.stop();
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, message, null, null);
+    }
+
+    private List<String> messages() {
+        return list.list.stream().map(ILoggingEvent::getFormattedMessage).collect(toList());
+    }
+
+    /**
+     * Makes the worker wait, while writing a first event, until {@link #release} is counted down, then fills the
+     * buffer.
+     */
+    private void blockWorkerAndFill() throws InterruptedException {
+        ringBuffer.doAppend(event(Level.INFO, "first"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS), "Worker should write the first event");
+        for (int i = 0; i < ringBuffer.getCapacity(); i++) {
+            ringBuffer.doAppend(event(Level.INFO, "queued-" + i));
+        }
+        assertEquals(ringBuffer.getCapacity(), ringBuffer.getQueuedCount(), "Buffer should be full");
+    }
+
+    @Test
+    public void doAppend_ManyEventsGiven_ShouldDeliverAllInOrder() {
+        release.countDown();
+        ringBuffer.setPolicy(RingBufferAppender.Policy.BLOCK);
+        ringBuffer.start();
+
+        for (int i = 0; i < 10_000; i++) {
+            ringBuffer.doAppend(event(Level.DEBUG, "event-" + i));
+        }
+        ringBuffer.stop();
+
+        final List<String> messages = messages();
+        assertEquals(10_000, messages.size(), "Every event should be delivered");
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals("event-" + i, messages.get(i), "Events should be delivered in order");
+        }
+        assertEquals(0, ringBuffer.getDroppedCount());
+        assertEquals(10_000, ringBuffer.getAppendedCount());
+    }
+
+    @Test
+    public void doAppend_BufferFullUnderDropPolicy_ShouldDropAndCountEvents() throws Exception {
+        ringBuffer.start();
+        blockWorkerAndFill();
+
+        ringBuffer.doAppend(event(Level.INFO, "dropped-0"));
+        ringBuffer.doAppend(event(Level.DEBUG, "dropped-1"));
+        assertEquals(2, ringBuffer.getDroppedCount(), "Events not fitting in the buffer should be dropped");
+
+        release.countDown();
+        ringBuffer.stop();
+        assertEquals(5, messages().size(), "Only the events that fit should be delivered");
+        assertFalse(messages().contains("dropped-0"));
+    }
+
+    @Test
+    public void doAppend_BufferFullUnderBlockPolicy_ShouldWaitForRoom() throws Exception {
+        ringBuffer.setPolicy(RingBufferAppender.Policy.BLOCK);
+        ringBuffer.start();
+        blockWorkerAndFill();
+
+        assertWaitsForRoom(event(Level.DEBUG, "waiting"));
+    }
+
+    @Test
+    public void doAppend_BufferFullAndNeverDropEventGiven_ShouldWaitForRoom() throws Exception {
+        ringBuffer.start(); // => DROP policy, WARN never-drop level
+        blockWorkerAndFill();
+
+        assertWaitsForRoom(event(Level.ERROR, "waiting"));
+    }
+
+    private void assertWaitsForRoom(ILoggingEvent event) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> appending = executor.submit(() -> ringBuffer.doAppend(event));
+            assertThrows(TimeoutException.class, () -> appending.get(200, TimeUnit.MILLISECONDS),
+                         "Appending should wait while the buffer is full");
+
+            release.countDown();
+            appending.get(5, TimeUnit.SECONDS);
+            ringBuffer.stop();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, ringBuffer.getDroppedCount(), "No event should be dropped");
+        assertEquals("waiting", messages().get(messages().size() - 1), "Waiting event should be delivered last");
+        assertEquals(6, messages().size());
+    }
+
+    @Test
+    public void stop_EventsQueued_ShouldDeliverThemAndRestoreImmediateFlush() throws Exception {
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final OutputStreamAppender<ILoggingEvent> out = new OutputStreamAppender<>();
+        out.setContext(context);
+        out.setEncoder(encoder);
+        out.setOutputStream(bytes);
+        out.setImmediateFlush(true);
+        out.start();
+        ringBuffer.addAppender(out);
+
+        ringBuffer.start();
+        assertFalse(out.isImmediateFlush(), "Attached output stream appenders should buffer their writes");
+        blockWorkerAndFill();
+
+        release.countDown();
+        ringBuffer.stop();
+        assertEquals(0, ringBuffer.getQueuedCount(), "Stopping should drain the buffer");
+        assertEquals(5, messages().size(), "Queued events should be delivered upon stop");
+        assertEquals("queued-3", messages().get(4));
+        assertTrue(bytes.toString().endsWith("queued-3" + System.lineSeparator()), "Writes should be flushed");
+        assertTrue(out.isImmediateFlush(), "Immediate flush should be restored upon detaching");
+    }
+
+    @Test
+    public void detachAppender_OutputStreamAppenderGiven_ShouldRestoreImmediateFlush() {
+        final OutputStreamAppender<ILoggingEvent> out = new OutputStreamAppender<>();
+        out.setImmediateFlush(true);
+        ringBuffer.addAppender(out);
+        ringBuffer.start();
+        assertFalse(out.isImmediateFlush());
+
+        assertTrue(ringBuffer.detachAppender(out));
+        assertTrue(out.isImmediateFlush(), "Immediate flush should be restored upon detaching");
+    }
+
+    /**
+     * Makes the writing (worker) thread wait for {@link #release} before taking any event in.
+     */
+    private final class GatedListAppender extends ListAppender<ILoggingEvent> {
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            super.append(event);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package net.appfold.sqlrose.logging;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class TraceLogTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() { file = directory.resolve("sqlrose.trace"); }
+
+    private static List<Long> asLongs(long... values) { return Arrays.stream(values).boxed().collect(toList()); }
+
+    private static List<Long> subjects(List<TraceReader.Record> records) {
+        return records.stream().map(TraceReader.Record::getSubject).collect(toList());
+    }
+
+    private static List<Long> sequences(List<TraceReader.Record> records) {
+        return records.stream().map(TraceReader.Record::getSequence).collect(toList());
+    }
+
+    private static void overwrite(Path file, long position, long value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, WRITE)) {
+            channel.write(ByteBuffer.allocate(8).order(LITTLE_ENDIAN).putLong(0, value), position);
+        }
+    }
+
+    @Test
+    public void trace_RecordsGiven_ShouldBeReadBackAsWritten() throws IOException {
+        final long before = System.currentTimeMillis();
+        try (TraceLog trace = new TraceLog(file, 8)) {
+            trace.query(0xCAFEL, 1_500_000L, 3);
+            trace.update(0xBEEFL, 2_000L, 1);
+            trace.error(0xCAFEL, 750L, 42);
+            trace.event(-1L, -7);
+            assertEquals(4, trace.getSequence());
+        }
+        final long after = System.currentTimeMillis();
+
+        final List<TraceReader.Record> records = TraceReader.read(file);
+        assertEquals(4, records.size(), "Every record should be read back");
+        for (int i = 0; i < records.size(); i++) {
+            final TraceReader.Record record = records.get(i);
+            assertEquals(i + 1, record.getSequence(), "Records should be read in sequence order");
+            assertEquals(Thread.currentThread().getId(), record.getThreadId());
+            assertTrue(before <= record.getEpochMilli() && record.getEpochMilli() <= after, "Records should be timed");
+        }
+
+        final TraceReader.Record query = records.get(0), error = records.get(2), event = records.get(3);
+        assertEquals(TraceLog.Kind.QUERY, query.getKind());
+        assertEquals(0xCAFEL, query.getSubject());
+        assertEquals(1_500_000L, query.getDurationNanos());
+        assertEquals(3, query.getRows());
+        assertEquals(TraceLog.Kind.UPDATE, records.get(1).getKind());
+        assertEquals(TraceLog.Kind.ERROR, error.getKind());
+        assertEquals(42, error.getCode());
+        assertEquals(TraceLog.Kind.EVENT, event.getKind());
+        assertEquals(-1L, event.getSubject());
+        assertEquals(-7, event.getCode());
+    }
+
+    @Test
+    public void trace_MoreRecordsThanCapacityGiven_ShouldKeepTheLastOnesOldestFirst() throws IOException {
+        try (TraceLog trace = new TraceLog(file, 4)) {
+            for (long subject = 0; subject < 10; subject++) {
+                trace.event(subject, 0);
+            }
+        }
+
+        final List<TraceReader.Record> records = TraceReader.read(file);
+        assertEquals(asLongs(7, 8, 9, 10), sequences(records), "Only the last records should be kept");
+        assertEquals(asLongs(6, 7, 8, 9), subjects(records));
+    }
+
+    @Test
+    public void new_SameCapacityGiven_ShouldContinueTheSequence() throws IOException {
+        try (TraceLog trace = new TraceLog(file, 4)) {
+            for (long subject = 0; subject < 5; subject++) {
+                trace.event(subject, 0);
+            }
+        }
+        try (TraceLog trace = new TraceLog(file, 4)) {
+            assertEquals(5, trace.getSequence(), "Reopened trace should continue from its last record");
+            trace.event(5, 0);
+        }
+
+        final List<TraceReader.Record> records = TraceReader.read(file);
+        assertEquals(asLongs(3, 4, 5, 6), sequences(records));
+        assertEquals(asLongs(2, 3, 4, 5), subjects(records));
+    }
+
+    @Test
+    public void new_DifferentCapacityGiven_ShouldResetTheFile() throws IOException {
+        try (TraceLog trace = new TraceLog(file, 4)) {
+            trace.event(1, 0);
+            trace.event(2, 0);
+        }
+        try (TraceLog trace = new TraceLog(file, 8)) {
+            assertEquals(0, trace.getSequence(), "Trace of another capacity should start over");
+        }
+
+        assertTrue(TraceReader.read(file).isEmpty(), "Previous records should be discarded");
+        assertEquals(TraceLog.HEADER_SIZE + 8 * TraceLog.RECORD_SIZE, Files.size(file));
+    }
+
+    @Test
+    public void read_TornRecordGiven_ShouldSkipIt() throws IOException {
+        try (TraceLog trace = new TraceLog(file, 4)) {
+            trace.event(1, 0);
+            trace.event(2, 0);
+            trace.event(3, 0);
+        }
+        overwrite(file, TraceLog.HEADER_SIZE + TraceLog.RECORD_SIZE + 56, 0L); // => the check of the second record
+
+        assertEquals(asLongs(1, 3), subjects(TraceReader.read(file)), "Torn records should be skipped");
+    }
+
+    @Test
+    public void read_NotATraceFileGiven_ShouldThrowIOException() throws IOException {
+        try (TraceLog trace = new TraceLog(file, 4)) {
+            trace.event(1, 0);
+        }
+        try (FileChannel channel = FileChannel.open(file, WRITE)) {
+            channel.truncate(TraceLog.HEADER_SIZE + TraceLog.RECORD_SIZE);
+        }
+        assertThrows(IOException.class, () -> TraceReader.read(file), "Truncated trace files should be rejected");
+
+        overwrite(file, 0, 0L); // => the magic and the format version
+        assertThrows(IOException.class, () -> TraceReader.read(file), "Other files should be rejected");
+
+        Files.write(file, new byte[TraceLog.HEADER_SIZE - 1]);
+        assertThrows(IOException.class, () -> TraceReader.read(file), "Files shorter than a header should be rejected");
+    }
+}
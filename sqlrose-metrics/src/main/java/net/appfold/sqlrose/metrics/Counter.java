@@ -0,0 +1,26 @@
+package net.appfold.sqlrose.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count (e.g., of errors handled), backed by a striped {@link LongAdder} so that
+ * incrementing it from many threads neither locks nor contends.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ * @see Metrics#counter(String)
+ */
+public final class Counter implements CounterMXBean {
+
+    private final LongAdder count = new LongAdder();
+
+    public void increment() { count.increment(); }
+
+    public void add(long delta) { count.add(delta); }
+
+    @Override
+    public long getCount() { return count.sum(); }
+
+    @Override
+    public String toString() { return String.valueOf(getCount()); }
+}
@@ -0,0 +1,13 @@
+package net.appfold.sqlrose.metrics;
+
+/**
+ * The management interface a {@link Counter counter} is published through, once {@link Metrics#registerMBeans()
+ * registered} with the platform MBean server.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+public interface CounterMXBean {
+
+    long getCount();
+}
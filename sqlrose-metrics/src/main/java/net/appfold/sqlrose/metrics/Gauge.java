@@ -0,0 +1,15 @@
+package net.appfold.sqlrose.metrics;
+
+/**
+ * A value sampled whenever read (e.g., the size of a cache); also the management interface a gauge is published
+ * through, once {@link Metrics#registerMBeans() registered} with the platform MBean server.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ * @see Metrics#gauge(String, Gauge)
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    double getValue();
+}
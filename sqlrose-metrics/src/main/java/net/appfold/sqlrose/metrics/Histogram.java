@@ -0,0 +1,106 @@
+package net.appfold.sqlrose.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A high-dynamic-range histogram of non-negative {@code long} values (typically latencies, in nanoseconds), recorded
+ * without locking or allocating: values are counted in log-linear buckets (i.e., {@value #SUB_BUCKETS} linear
+ * sub-buckets per power of two, as in <a href="http://hdrhistogram.org/">HdrHistogram</a>), so that any value, up to
+ * {@link Long#MAX_VALUE}, is kept with a relative error under 2% in a fixed array of {@value #BUCKETS} counters.
+ * <p/>
+ * Percentiles are read from {@link #snapshot() snapshots}, which can also be {@link HistogramSnapshot#minus(
+ * HistogramSnapshot) subtracted} from each other to tell what happened over an interval.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ * @see Metrics#histogram(String)
+ */
+public final class Histogram implements HistogramMXBean {
+
+    static final int PRECISION = 7; // => bits of a value kept exactly (i.e., the relative error is under 2^-6)
+
+    static final int SUB_BUCKETS = 1 << PRECISION;
+
+    private static final int HALF = SUB_BUCKETS >> 1;
+
+    static final int BUCKETS = SUB_BUCKETS + (63 - PRECISION) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param value negative values are recorded as {@code 0}
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+    }
+
+    /**
+     * Records the nanoseconds elapsed since {@code startNanos}.
+     *
+     * @param startNanos as previously returned by {@link System#nanoTime()}
+     */
+    public void time(long startNanos) { record(System.nanoTime() - startNanos); }
+
+    public HistogramSnapshot snapshot() {
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(snapshot, sum.sum());
+    }
+
+    @Override
+    public long getCount() { return snapshot().getCount(); }
+
+    @Override
+    public double getMean() { return snapshot().getMean(); }
+
+    @Override
+    public long getP50() { return snapshot().percentile(0.5); }
+
+    @Override
+    public long getP90() { return snapshot().percentile(0.9); }
+
+    @Override
+    public long getP99() { return snapshot().percentile(0.99); }
+
+    @Override
+    public long getP999() { return snapshot().percentile(0.999); }
+
+    @Override
+    public long getMax() { return snapshot().getMax(); }
+
+    @Override
+    public String toString() { return snapshot().toString(); }
+
+    /**
+     * @return the bucket of the given (non-negative) value: values under {@value #SUB_BUCKETS} get a bucket each,
+     *     greater ones share one with the values having the same {@value #PRECISION} most significant bits
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 64 - Long.numberOfLeadingZeros(value) - PRECISION;
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    /**
+     * @return the highest value counted in the given bucket
+     */
+    static long upper(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / HALF + 1;
+        final long sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((sub + 1) << shift) - 1; // => overflows into Long.MAX_VALUE for the very last bucket
+    }
+}
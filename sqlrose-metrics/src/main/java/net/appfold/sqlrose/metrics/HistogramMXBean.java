@@ -0,0 +1,26 @@
+package net.appfold.sqlrose.metrics;
+
+/**
+ * The management interface a {@link Histogram histogram} is published through, once {@link
+ * Metrics#registerMBeans() registered} with the platform MBean server; percentiles are upper bounds (i.e., the
+ * highest value recorded in the same bucket), in the unit values were recorded in (nanoseconds, for latencies).
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+public interface HistogramMXBean {
+
+    long getCount();
+
+    double getMean();
+
+    long getP50();
+
+    long getP90();
+
+    long getP99();
+
+    long getP999();
+
+    long getMax();
+}
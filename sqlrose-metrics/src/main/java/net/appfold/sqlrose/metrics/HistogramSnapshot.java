@@ -0,0 +1,92 @@
+package net.appfold.sqlrose.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable copy of the counts of a {@link Histogram histogram}, taken at some point in time.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+
+    private final long sum;
+
+    private final long count;
+
+    HistogramSnapshot(long[] counts, long sum) {
+        this.counts = counts;
+        this.sum = sum;
+
+        long count = 0;
+        for (long bucket : counts) {
+            count += bucket;
+        }
+        this.count = count;
+    }
+
+    public long getCount() { return count; }
+
+    public long getSum() { return sum; }
+
+    public double getMean() { return count == 0 ? 0.0 : (double) sum / count; }
+
+    /**
+     * @param quantile between {@code 0.0} and {@code 1.0} (e.g., {@code 0.99} for the 99th percentile)
+     * @return the highest value that may have been recorded in the bucket of the given quantile or {@code 0} if no
+     *     values have been recorded
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("A quantile must be between 0.0 and 1.0");
+        }
+        if (count == 0) {
+            return 0L;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Histogram.upper(i);
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return the highest value that may have been recorded in the highest non-empty bucket, {@code 0} if none
+     */
+    public long getMax() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return Histogram.upper(i);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * @param previous an earlier snapshot of the same histogram
+     * @return what has been recorded since the {@code previous} snapshot
+     */
+    public HistogramSnapshot minus(HistogramSnapshot previous) {
+        requireNonNull(previous, "Cannot subtract a null snapshot");
+        final long[] interval = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            interval[i] = counts[i] - previous.counts[i];
+        }
+        return new HistogramSnapshot(interval, sum - previous.sum);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + Metrics.nanos((long) getMean()) + ", p50=" +
+               Metrics.nanos(percentile(0.5)) + ", p90=" + Metrics.nanos(percentile(0.9)) + ", p99=" +
+               Metrics.nanos(percentile(0.99)) + ", p99.9=" + Metrics.nanos(percentile(0.999)) + ", max=" +
+               Metrics.nanos(getMax());
+    }
+}
@@ -0,0 +1,158 @@
+package net.appfold.sqlrose.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.util.Collections.unmodifiableSortedMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Entry point for (process-wide, named) metrics: {@link Counter counters}, {@link Gauge gauges} and latency {@link
+ * Histogram histograms}. Metrics are meant to be looked up once (e.g., into {@code static} fields) and recorded to
+ * freely afterwards, recording neither locking nor allocating.
+ * <p/>
+ * Metrics can be published over JMX by {@link #registerMBeans() registering} them (including the ones created
+ * afterwards) and summarized periodically through the log by {@link #startReporting(long, TimeUnit) reporting} them.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+public final class Metrics {
+
+    public static final String DOMAIN = "net.appfold.sqlrose.metrics";
+
+    private static final SortedMap<String, Object> METRICS = new ConcurrentSkipListMap<>();
+
+    private static volatile boolean registered;
+
+    private static MetricsReporter reporter;
+
+    private Metrics() {}
+
+    public static Counter counter(String name) { return metric(name, Counter.class, key -> new Counter()); }
+
+    public static Histogram histogram(String name) { return metric(name, Histogram.class, key -> new Histogram()); }
+
+    /**
+     * Registers the given {@code gauge} unless a gauge of the same name already exists.
+     *
+     * @return the gauge registered under the given name
+     */
+    public static Gauge gauge(String name, Gauge gauge) {
+        requireNonNull(gauge, "Cannot register a null gauge");
+        return metric(name, Gauge.class, key -> gauge);
+    }
+
+    /**
+     * @return a (read-only) view of all the metrics, by name
+     */
+    public static SortedMap<String, Object> all() { return unmodifiableSortedMap(METRICS); }
+
+    private static <M> M metric(String name, Class<M> type, Function<String, M> factory) {
+        requireNonNull(name, "A metric requires a name");
+
+        Object metric = METRICS.get(name);
+        if (metric == null) {
+            final Object[] created = new Object[1];
+            metric = METRICS.computeIfAbsent(name, key -> created[0] = factory.apply(key));
+            if (metric == created[0] && registered) {
+                register(name, metric);
+            }
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(
+                "Metric " + name + " is a " + typeOf(metric) + ", not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * Publishes all the metrics, including the ones created afterwards, with the platform MBean server, under
+     * {@value #DOMAIN}{@code :type=<Counter|Gauge|Histogram>,name=<name>}.
+     */
+    public static synchronized void registerMBeans() {
+        registered = true;
+        for (Map.Entry<String, Object> metric : METRICS.entrySet()) {
+            register(metric.getKey(), metric.getValue());
+        }
+    }
+
+    public static synchronized void unregisterMBeans() {
+        registered = false;
+        for (Map.Entry<String, Object> metric : METRICS.entrySet()) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                                 .unregisterMBean(objectName(metric.getKey(), metric.getValue()));
+            } catch (InstanceNotFoundException ex) {
+                // already unregistered
+            } catch (JMException ex) {
+                throw new IllegalStateException("Cannot unregister metric MBean " + metric.getKey(), ex);
+            }
+        }
+    }
+
+    private static void register(String name, Object metric) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                metric instanceof Gauge ? new StandardMBean((Gauge) metric, Gauge.class, true) : metric,
+                objectName(name, metric));
+        } catch (InstanceAlreadyExistsException ex) {
+            // already registered
+        } catch (JMException ex) {
+            throw new IllegalStateException("Cannot register metric MBean " + name, ex);
+        }
+    }
+
+    static ObjectName objectName(String name, Object metric) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=" + typeOf(metric) + ",name=" + ObjectName.quote(name));
+    }
+
+    private static String typeOf(Object metric) {
+        return metric instanceof Counter ? "Counter" : metric instanceof Histogram ? "Histogram" : "Gauge";
+    }
+
+    /**
+     * Logs, every {@code period}, a summary of what each metric recorded over the period (stopping any previous
+     * reporting); histograms which recorded nothing over the period are left out.
+     */
+    public static synchronized void startReporting(long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Metrics require a positive reporting period");
+        }
+        requireNonNull(unit, "Metrics require a reporting period unit");
+
+        stopReporting();
+        reporter = new MetricsReporter(METRICS, period, unit);
+    }
+
+    /**
+     * Stops reporting metrics, logging a last summary.
+     */
+    public static synchronized void stopReporting() {
+        if (reporter != null) {
+            reporter.stop();
+            reporter = null;
+        }
+    }
+
+    /**
+     * @return the given nanoseconds in the most readable unit (e.g., {@code 1.25 ms})
+     */
+    static String nanos(long nanos) {
+        if (nanos < 1_000L) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000L) {
+            return String.format("%.2f us", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000L) {
+            return String.format("%.2f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+}
@@ -0,0 +1,74 @@
+package net.appfold.sqlrose.metrics;
+
+import net.appfold.sqlrose.logging.Log;
+import org.slf4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs (at {@code INFO}, through {@link Log}) what the metrics recorded since the previous report, on a
+ * single daemon thread; latencies are reported as percentiles, so that tail-latency regressions stand out.
+ *
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ * @see Metrics#startReporting(long, TimeUnit)
+ */
+class MetricsReporter {
+
+    private final Map<String, Object> metrics;
+
+    private final Map<String, HistogramSnapshot> histograms = new HashMap<>(); // => as of the previous report
+
+    private final Map<String, Long> counters = new HashMap<>(); // => as of the previous report
+
+    private final ScheduledExecutorService scheduler;
+
+    MetricsReporter(Map<String, Object> metrics, long period, TimeUnit unit) {
+        this.metrics = metrics;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "sqlrose-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, period, period, unit);
+    }
+
+    synchronized void report() {
+        final Logger log = Log.logFor(MetricsReporter.class);
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            final String name = entry.getKey();
+            final Object metric = entry.getValue();
+            try {
+                if (metric instanceof Histogram) {
+                    final HistogramSnapshot current = ((Histogram) metric).snapshot();
+                    final HistogramSnapshot previous = histograms.put(name, current);
+                    final HistogramSnapshot interval = previous == null ? current : current.minus(previous);
+                    if (interval.getCount() > 0) {
+                        log.info("{}: {}", name, interval);
+                    }
+                } else if (metric instanceof Counter) {
+                    final long current = ((Counter) metric).getCount();
+                    final Long previous = counters.put(name, current);
+                    log.info("{}: count={} (+{})", name, current, previous == null ? current : current - previous);
+                } else {
+                    log.info("{}: value={}", name, ((Gauge) metric).getValue());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Cannot report metric " + name, ex);
+            }
+        }
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+        report();
+    }
+}
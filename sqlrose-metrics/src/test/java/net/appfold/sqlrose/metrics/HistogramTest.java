@@ -0,0 +1,79 @@
+package net.appfold.sqlrose.metrics;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Octavian Theodor NITA (https://github.com/octavian-nita/)
+ * @version 1.0, Oct 18, 2026
+ */
+class HistogramTest {
+
+    private Histogram histogramUnderTest;
+
+    @BeforeEach
+    public void setUp() { histogramUnderTest = new Histogram(); }
+
+    @Test
+    public void index_AnyValueGiven_ShouldMapToBucketBoundingIt() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final long value = random.nextLong() >>> 1 + random.nextInt(63);
+            final int index = Histogram.index(value);
+
+            assertTrue(index >= 0 && index < Histogram.BUCKETS, "Bucket should be within bounds for " + value);
+            assertTrue(Histogram.upper(index) >= value, "Bucket should bound " + value + " from above");
+            assertTrue(index == 0 || Histogram.upper(index - 1) < value, "Previous bucket should be below " + value);
+            assertTrue(Histogram.upper(index) - value <= value / 64, "Relative error should be under 2% for " + value);
+        }
+        assertEquals(Histogram.BUCKETS - 1, Histogram.index(Long.MAX_VALUE), "Last bucket should hold the maximum");
+        assertEquals(Long.MAX_VALUE, Histogram.upper(Histogram.BUCKETS - 1), "Last bucket should end at the maximum");
+    }
+
+    @Test
+    public void percentile_ValuesRecorded_ShouldBeWithinPrecision() {
+        for (long value = 1; value <= 10_000; value++) {
+            histogramUnderTest.record(value * 1000);
+        }
+
+        final HistogramSnapshot snapshot = histogramUnderTest.snapshot();
+        assertEquals(10_000, snapshot.getCount(), "Snapshot should count all values");
+        assertEquals(5_000_500.0, snapshot.getMean(), 1e-9, "Mean should be exact");
+        assertEquals(5_000_000, snapshot.percentile(0.5), 5_000_000 / 64, "Median should be within precision");
+        assertEquals(9_900_000, snapshot.percentile(0.99), 9_900_000 / 64, "p99 should be within precision");
+        assertEquals(10_000_000, snapshot.getMax(), 10_000_000 / 64, "Max should be within precision");
+    }
+
+    @Test
+    public void record_NegativeValueGiven_ShouldRecordZero() {
+        histogramUnderTest.record(-5);
+
+        assertEquals(1, histogramUnderTest.getCount(), "Negative value should be counted");
+        assertEquals(0, histogramUnderTest.getMax(), "Negative value should be recorded as 0");
+    }
+
+    @Test
+    public void minus_EarlierSnapshotGiven_ShouldOnlyKeepLaterValues() {
+        histogramUnderTest.record(1_000_000);
+        final HistogramSnapshot earlier = histogramUnderTest.snapshot();
+        histogramUnderTest.record(10);
+        histogramUnderTest.record(20);
+
+        final HistogramSnapshot interval = histogramUnderTest.snapshot().minus(earlier);
+        assertEquals(2, interval.getCount(), "Interval should only count later values");
+        assertEquals(20, interval.getMax(), "Interval should not see earlier values");
+        assertEquals(15.0, interval.getMean(), 1e-9, "Interval mean should only consider later values");
+    }
+
+    @Test
+    public void histogram_NameOfCounterGiven_ShouldThrow() {
+        Metrics.counter("test.clash");
+
+        assertThrows(IllegalArgumentException.class, () -> Metrics.histogram("test.clash"),
+                     "Metric types should not clash");
+        assertSame(Metrics.counter("test.clash"), Metrics.counter("test.clash"), "Metrics should be looked up once");
+    }
+}